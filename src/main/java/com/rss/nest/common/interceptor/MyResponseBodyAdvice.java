@@ -3,6 +3,7 @@ package com.rss.nest.common.interceptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rometools.rome.feed.rss.Channel;
+import com.rss.nest.controller.UnifiedRssController;
 import com.rss.nest.query.IRssCacheDataQueryService;
 import com.rss.nest.utils.LogUtil;
 import com.rss.nest.utils.rss.RssUtil;
@@ -40,9 +41,13 @@ public class MyResponseBodyAdvice implements ResponseBodyAdvice {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    /**
+     * 统一RSS接口由RssCacheService自行缓存，不再重复写入
+     */
     @Override
     public boolean supports(MethodParameter returnType, Class converterType) {
-        return returnType.hasMethodAnnotation(GetMapping.class);
+        return returnType.hasMethodAnnotation(GetMapping.class)
+                && !UnifiedRssController.class.equals(returnType.getContainingClass());
     }
 
     /**
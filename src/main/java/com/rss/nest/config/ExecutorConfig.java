@@ -0,0 +1,66 @@
+package com.rss.nest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author Lemon695
+ * @description: 业务线程池配置
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * RSS后台刷新线程池
+     * 用于stale-while-revalidate与提前刷新，队列满时直接丢弃（调用方仍可返回旧内容）
+     */
+    @Bean("rssRefreshExecutor")
+    public ThreadPoolTaskExecutor rssRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("rss-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * RSS解析线程池
+     * 异步抓取完成后在此执行HTML解析、数据提取与RSS转换（CPU密集），避免占用OkHttp的回调线程
+     */
+    @Bean("rssParseExecutor")
+    public ThreadPoolTaskExecutor rssParseExecutor() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(processors);
+        executor.setMaxPoolSize(processors);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("rss-parse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * RSS生成线程池
+     * 异步接口中缓存未命中的请求在此输出XML并写缓存（抓取通过OkHttp异步完成，不占用该线程池）；
+     * 队列满时在提交线程中执行
+     */
+    @Bean("rssGenerationExecutor")
+    public ThreadPoolTaskExecutor rssGenerationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(64);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("rss-gen-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,10 +1,23 @@
 package com.rss.nest.config;
 
+import com.rss.nest.utils.http.FixtureInterceptor;
+import com.rss.nest.utils.http.OkHttpMetricsEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -12,18 +25,80 @@ import java.util.concurrent.TimeUnit;
  * @date: 2024/9/25 上午9:59:09
  * @description:
  */
+@Slf4j
 @Configuration
 public class OkHttpClientConfig {
 
+    /**
+     * 未按网站划分的请求（旧版服务直接使用的客户端）在指标中的网站标签
+     */
+    private static final String SHARED_SITE = "shared";
+
+    /**
+     * 上游响应录制/回放模式: off / record / replay
+     */
+    @Value("${rss-nest.upstream.fixture.mode:off}")
+    private String fixtureMode;
+
+    @Value("${rss-nest.upstream.fixture.dir:./fixtures}")
+    private String fixtureDir;
+
+    @Value("${rss-nest.upstream.fixture.replay-latency-ms:0}")
+    private long replayLatencyMillis;
+
+    @Value("${rss-nest.upstream.fixture.replay-latency-jitter-ms:0}")
+    private long replayLatencyJitterMillis;
+
+    @Value("${rss-nest.upstream.fixture.replay-error-rate:0}")
+    private double replayErrorRate;
+
+    @Value("${rss-nest.upstream.fixture.replay-error-status:503}")
+    private int replayErrorStatus;
+
     @Bean
-    public OkHttpClient okHttpClient() {
-        return new OkHttpClient.Builder()
+    public OkHttpClient okHttpClient(Environment environment, MeterRegistry meterRegistry) {
+        // 异步请求（enqueue）的并发上限，默认每个Host只有5个；单个网站的并发由舱壁控制
+        Dispatcher dispatcher = createDispatcher(environment);
+        dispatcher.setMaxRequests(256);
+        dispatcher.setMaxRequestsPerHost(32);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        FixtureInterceptor.FixtureMode mode = FixtureInterceptor.FixtureMode.valueOf(fixtureMode.toUpperCase(Locale.ROOT));
+        if (mode != FixtureInterceptor.FixtureMode.OFF) {
+            // 应用拦截器，网站客户端派生时一并继承
+            log.warn("上游响应{}模式已开启, 目录: {}", mode == FixtureInterceptor.FixtureMode.RECORD ? "录制" : "回放",
+                    Path.of(fixtureDir).toAbsolutePath());
+            builder.addInterceptor(new FixtureInterceptor(mode, Path.of(fixtureDir), replayLatencyMillis,
+                    replayLatencyJitterMillis, replayErrorRate, replayErrorStatus));
+        }
+
+        return builder
+                .dispatcher(dispatcher)
                 // 连接池大小和保持时间
                 .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
                 // 连接超时时间
                 .connectTimeout(30, TimeUnit.SECONDS)
                 // 读取超时时间
                 .readTimeout(30, TimeUnit.SECONDS)
+                // 各阶段耗时与连接复用指标，网站客户端派生时替换为对应的网站ID
+                .eventListenerFactory(new OkHttpMetricsEventListener.Factory(meterRegistry, SHARED_SITE))
                 .build();
     }
+
+    /**
+     * 开启虚拟线程（spring.threads.virtual.enabled=true 且运行在JDK 21+）时，异步请求在虚拟线程中执行；
+     * 线程池形态与OkHttp默认一致（不保留空闲线程，按需创建）
+     */
+    private Dispatcher createDispatcher(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("OkHttp异步请求使用虚拟线程");
+            return new Dispatcher(new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), new VirtualThreadTaskExecutor("okhttp-").getVirtualThreadFactory()));
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("已配置spring.threads.virtual.enabled，但当前JDK版本 {} 不支持虚拟线程，使用平台线程",
+                    System.getProperty("java.version"));
+        }
+        return new Dispatcher();
+    }
 }
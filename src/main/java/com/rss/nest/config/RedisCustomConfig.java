@@ -2,7 +2,9 @@ package com.rss.nest.config;
 
 import com.rss.nest.config.redis.CustomKeyPrefix;
 import com.rss.nest.config.redis.FastJson2JsonRedisSerializer;
+import com.rss.nest.core.cache.RssCacheMessage;
 import com.rss.nest.framework.listener.RedisKeyExpirationListener;
+import com.rss.nest.framework.listener.RssCacheMessageListener;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,10 +23,12 @@ import org.springframework.data.redis.connection.lettuce.LettucePoolingClientCon
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
@@ -87,6 +91,24 @@ public class RedisCustomConfig extends CachingConfigurerSupport {
         return getStringStringRedisTemplate(factory);
     }
 
+    /**
+     * 二进制Value的RedisTemplate（用于压缩后的RSS缓存）
+     *
+     * @param factory
+     * @return
+     */
+    @Bean("bytesRedisTemplate")
+    public RedisTemplate<String, byte[]> bytesRedisTemplate(@Qualifier("redisFactory") RedisConnectionFactory factory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
     @Bean("objRedisTemplate")
     @Primary
     public RedisTemplate<Object, Object> objRedisTemplate(@Qualifier("redisFactory") RedisConnectionFactory factory) {
@@ -184,20 +206,36 @@ public class RedisCustomConfig extends CachingConfigurerSupport {
         return redisScript;
     }
 
+    /**
+     * 令牌桶限流脚本
+     * 按Redis服务器时间补充令牌，一次可申请多个令牌（节点本地缓存）；
+     * 返回值大于0为实际获得的令牌数，否则为获得下一个令牌还需等待的毫秒数（负数）
+     */
+    @Bean
+    public DefaultRedisScript<Long> tokenBucketScript() {
+        DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptText(tokenBucketScriptText());
+        redisScript.setResultType(Long.class);
+        return redisScript;
+    }
+
     /**
      * 配置Redis监听器
      * <p>
      * 这里的__keyevent@0__:expired指的是订阅Redis数据库0的键过期事件。根据需要，你可以调整数据库编号。
+     * 同时订阅RSS缓存消息频道，用于跨节点失效L1缓存。
      *
      * @param connectionFactory
      * @param listener
+     * @param cacheMessageListener
      * @return: org.springframework.data.redis.listener.RedisMessageListenerContainer
      * @author Lemon695
      * @date 2024/9/18 上午11:01
      */
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
-                                                                       RedisKeyExpirationListener listener) {
+                                                                       RedisKeyExpirationListener listener,
+                                                                       RssCacheMessageListener cacheMessageListener) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
 
@@ -205,9 +243,42 @@ public class RedisCustomConfig extends CachingConfigurerSupport {
         String patternTopic = String.format("__keyevent@%s__:expired", database);
         container.addMessageListener(listener, new PatternTopic(patternTopic));
 
+        // 订阅 RSS 缓存消息
+        container.addMessageListener(cacheMessageListener, new ChannelTopic(RssCacheMessage.CHANNEL));
+
         return container;
     }
 
+    /**
+     * 令牌桶脚本
+     * KEYS[1]: 令牌桶Key；ARGV[1]: 每秒补充令牌数；ARGV[2]: 桶容量；ARGV[3]: 申请令牌数
+     */
+    private String tokenBucketScriptText() {
+        return "redis.replicate_commands()\n" +
+                "local key = KEYS[1]\n" +
+                "local rate = tonumber(ARGV[1])\n" +
+                "local capacity = tonumber(ARGV[2])\n" +
+                "local requested = tonumber(ARGV[3])\n" +
+                "local time = redis.call('time')\n" +
+                "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+                "local bucket = redis.call('hmget', key, 'tokens', 'ts')\n" +
+                "local tokens = tonumber(bucket[1])\n" +
+                "local ts = tonumber(bucket[2])\n" +
+                "if tokens == nil or ts == nil then\n" +
+                "    tokens = capacity\n" +
+                "    ts = now\n" +
+                "end\n" +
+                "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)\n" +
+                "local granted = math.min(requested, math.floor(tokens))\n" +
+                "tokens = tokens - granted\n" +
+                "redis.call('hset', key, 'tokens', tostring(tokens), 'ts', tostring(now))\n" +
+                "redis.call('pexpire', key, math.ceil(capacity * 1000 / rate) + 1000)\n" +
+                "if granted > 0 then\n" +
+                "    return granted\n" +
+                "end\n" +
+                "return -math.max(1, math.ceil((1 - tokens) * 1000 / rate))";
+    }
+
     /**
      * 限流脚本
      */
@@ -1,18 +1,23 @@
 package com.rss.nest.controller;
 
 import com.rss.nest.core.cache.CacheableRssService;
+import com.rss.nest.core.cache.RssCacheStats;
 import com.rss.nest.core.provider.RssProviderFactory;
+import com.rss.nest.core.response.RssFeedResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 统一RSS控制器
@@ -30,14 +35,20 @@ public class UnifiedRssController {
     @Autowired
     private RssProviderFactory providerFactory;
 
+    @Autowired
+    private RssCacheStats cacheStats;
+
     /**
      * 统一RSS生成接口
+     * 客户端支持gzip等编码时直接输出缓存中的压缩内容
      */
     @GetMapping(value = "/{siteId}", produces = MediaType.APPLICATION_XML_VALUE)
     @Operation(summary = "生成RSS", description = "根据网站ID和参数生成RSS订阅源")
-    public String generateRss(
+    public ResponseEntity<byte[]> generateRss(
             @Parameter(description = "网站ID，如: rrdynb") @PathVariable String siteId,
-            @Parameter(description = "请求参数，如: category=movie") @RequestParam(required = false) Map<String, String> params) {
+            @Parameter(description = "请求参数，如: category=movie") @RequestParam(required = false) Map<String, String> params,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("收到RSS生成请求, siteId: {}, params: {}", siteId, params);
 
@@ -45,7 +56,7 @@ public class UnifiedRssController {
             params = new HashMap<>();
         }
 
-        return cacheableRssService.generateRssWithCache(siteId, params);
+        return RssFeedResponse.of(cacheableRssService.getFeedWithCache(siteId, params), acceptEncoding, ifNoneMatch);
     }
 
     /**
@@ -53,10 +64,12 @@ public class UnifiedRssController {
      */
     @GetMapping(value = "/{siteId}/{category}", produces = MediaType.APPLICATION_XML_VALUE)
     @Operation(summary = "生成RSS（带分类）", description = "根据网站ID和分类生成RSS订阅源")
-    public String generateRssWithCategory(
+    public ResponseEntity<byte[]> generateRssWithCategory(
             @Parameter(description = "网站ID") @PathVariable String siteId,
             @Parameter(description = "分类") @PathVariable String category,
-            @Parameter(description = "其他参数") @RequestParam(required = false) Map<String, String> params) {
+            @Parameter(description = "其他参数") @RequestParam(required = false) Map<String, String> params,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("收到RSS生成请求, siteId: {}, category: {}, params: {}", siteId, category, params);
 
@@ -65,7 +78,52 @@ public class UnifiedRssController {
         }
         params.put("category", category);
 
-        return cacheableRssService.generateRssWithCache(siteId, params);
+        return RssFeedResponse.of(cacheableRssService.getFeedWithCache(siteId, params), acceptEncoding, ifNoneMatch);
+    }
+
+    /**
+     * 统一RSS生成接口（异步）
+     * 命中缓存时直接返回；未命中时异步抓取并生成，等待上游期间不占用Tomcat线程
+     */
+    @GetMapping(value = "/async/{siteId}", produces = MediaType.APPLICATION_XML_VALUE)
+    @Operation(summary = "生成RSS（异步）", description = "与生成RSS相同，缓存未命中时异步生成")
+    public CompletableFuture<ResponseEntity<byte[]>> generateRssAsync(
+            @Parameter(description = "网站ID，如: rrdynb") @PathVariable String siteId,
+            @Parameter(description = "请求参数，如: category=movie") @RequestParam(required = false) Map<String, String> params,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        log.info("收到RSS异步生成请求, siteId: {}, params: {}", siteId, params);
+
+        if (params == null) {
+            params = new HashMap<>();
+        }
+
+        return cacheableRssService.getFeedWithCacheAsync(siteId, params)
+                .thenApply(feed -> RssFeedResponse.of(feed, acceptEncoding, ifNoneMatch));
+    }
+
+    /**
+     * 带分类的RSS生成接口（异步）
+     */
+    @GetMapping(value = "/async/{siteId}/{category}", produces = MediaType.APPLICATION_XML_VALUE)
+    @Operation(summary = "生成RSS（带分类，异步）", description = "与生成RSS（带分类）相同，缓存未命中时异步生成")
+    public CompletableFuture<ResponseEntity<byte[]>> generateRssWithCategoryAsync(
+            @Parameter(description = "网站ID") @PathVariable String siteId,
+            @Parameter(description = "分类") @PathVariable String category,
+            @Parameter(description = "其他参数") @RequestParam(required = false) Map<String, String> params,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        log.info("收到RSS异步生成请求, siteId: {}, category: {}, params: {}", siteId, category, params);
+
+        if (params == null) {
+            params = new HashMap<>();
+        }
+        params.put("category", category);
+
+        return cacheableRssService.getFeedWithCacheAsync(siteId, params)
+                .thenApply(feed -> RssFeedResponse.of(feed, acceptEncoding, ifNoneMatch));
     }
 
     /**
@@ -90,6 +148,15 @@ public class UnifiedRssController {
         }
     }
 
+    /**
+     * 缓存统计接口
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "缓存统计", description = "获取L1（进程内）与L2（Redis）缓存的命中率")
+    public Map<String, Object> getCacheStats() {
+        return cacheStats.snapshot();
+    }
+
     /**
      * 获取支持的网站列表
      */
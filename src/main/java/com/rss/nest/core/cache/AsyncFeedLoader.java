@@ -0,0 +1,21 @@
+package com.rss.nest.core.cache;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RSS内容异步加载器
+ * 规则与{@link FeedLoader}相同，加载期间不占用调用线程
+ */
+@FunctionalInterface
+public interface AsyncFeedLoader {
+
+    /**
+     * 异步生成RSS内容
+     * 上游内容未修改时以{@link com.rss.nest.core.exception.FeedNotModifiedException}异常完成，
+     * 缓存层会直接延长previous的有效期
+     *
+     * @param previous 缓存中保留的上一版内容（可能已过期），其校验信息可用于条件抓取，不存在时为null
+     * @return RSS内容及上游校验信息，结果为null表示不缓存
+     */
+    CompletableFuture<LoadedFeed> load(CachedFeed previous);
+}
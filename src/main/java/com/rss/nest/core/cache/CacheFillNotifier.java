@@ -0,0 +1,44 @@
+package com.rss.nest.core.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存填充通知
+ * 未抢到重建锁的节点在此登记等待，锁持有者写入缓存或释放锁后（本节点直接通知，其他节点经Redis消息通知）唤醒等待者，
+ * 取代固定时长的休眠重试
+ */
+@Component
+public class CacheFillNotifier {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 登记等待
+     *
+     * @param cacheKey 缓存Key
+     * @return 缓存被填充或锁被释放时完成的Future
+     */
+    public CompletableFuture<Void> register(String cacheKey) {
+        return waiters.computeIfAbsent(cacheKey, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * 取消登记
+     */
+    public void unregister(String cacheKey, CompletableFuture<Void> waiter) {
+        waiters.remove(cacheKey, waiter);
+    }
+
+    /**
+     * 唤醒该Key上的所有等待者
+     */
+    public void notifyFilled(String cacheKey) {
+        CompletableFuture<Void> waiter = waiters.remove(cacheKey);
+        if (waiter != null) {
+            waiter.complete(null);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.rss.nest.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网站缓存代数（generation）
+ * 每个网站在Redis中维护一个递增计数器，并拼入缓存Key；
+ * 清空网站缓存只需INCR一次，旧代数的缓存不再被访问，按TTL自然过期或由{@link RssCacheSweeper}清理
+ * <p>
+ * 代数在本地缓存，变更时通过发布/订阅通知其他节点；本地缓存有较短的过期时间，消息丢失时也能自行纠正。
+ * 代数Key不设置过期时间，Redis需避免使用会淘汰无TTL Key的内存策略
+ */
+@Slf4j
+@Component
+public class CacheGenerations {
+
+    /**
+     * 代数Key前缀
+     */
+    private static final String GENERATION_PREFIX = "rssNest:gen:";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RssCacheMessagePublisher messagePublisher;
+
+    private final Cache<String, Long> localGenerations;
+
+    public CacheGenerations(@Value("${rss-nest.cache.generation.local-ttl-seconds:60}") long localTtlSeconds) {
+        this.localGenerations = Caffeine.newBuilder()
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取网站当前代数
+     * Redis不可用时返回0且不写入本地缓存
+     *
+     * @param siteId 网站ID
+     * @return 当前代数
+     */
+    public long current(String siteId) {
+        Long generation = localGenerations.get(siteId, this::load);
+        return generation != null ? generation : 0L;
+    }
+
+    /**
+     * 网站代数加一（清空网站缓存）
+     *
+     * @param siteId 网站ID
+     * @return 新代数
+     */
+    public long increment(String siteId) {
+        Long generation = redisTemplate.opsForValue().increment(GENERATION_PREFIX + siteId);
+        long value = generation != null ? generation : 0L;
+        advance(siteId, value);
+        messagePublisher.publishGenerationChanged(siteId, value);
+        return value;
+    }
+
+    /**
+     * 更新本地代数（只增不减，避免乱序消息回退）
+     *
+     * @param siteId     网站ID
+     * @param generation 新代数
+     */
+    public void advance(String siteId, long generation) {
+        localGenerations.asMap().merge(siteId, generation, Math::max);
+    }
+
+    /**
+     * 处理其他节点的代数变更消息
+     *
+     * @param payload 格式: {siteId}:{generation}
+     */
+    public void onGenerationChanged(String payload) {
+        int index = payload.lastIndexOf(':');
+        if (index <= 0) {
+            return;
+        }
+        try {
+            advance(payload.substring(0, index), Long.parseLong(payload.substring(index + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("代数变更消息格式错误: {}", payload);
+        }
+    }
+
+    private Long load(String siteId) {
+        try {
+            String value = redisTemplate.opsForValue().get(GENERATION_PREFIX + siteId);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.error("获取缓存代数失败, siteId: {}", siteId, e);
+            return null;
+        }
+    }
+}
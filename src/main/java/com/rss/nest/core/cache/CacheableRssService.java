@@ -1,19 +1,43 @@
 package com.rss.nest.core.cache;
 
-import com.rometools.rome.feed.rss.Channel;
+import com.rss.nest.core.config.CacheConfig;
+import com.rss.nest.core.exception.GenerationOverloadedException;
+import com.rss.nest.core.exception.RssException;
+import com.rss.nest.core.exception.RssGenerationException;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import com.rss.nest.core.provider.GeneratedRss;
 import com.rss.nest.core.provider.RssProviderFactory;
 import com.rss.nest.core.provider.RssProviderService;
-import com.rss.nest.models.rss.RssChannel;
+import com.rss.nest.core.provider.UpstreamValidators;
+import com.rss.nest.core.resilience.GenerationLimiter;
+import com.rss.nest.core.resilience.UpstreamBackoff;
 import com.rss.nest.utils.rss.RssUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 带缓存的RSS服务
  * 统一处理RSS生成和缓存逻辑
+ * <p>
+ * 当网站配置了软过期时间（CacheConfig.softTtl）时：
+ * 超过软过期时间的内容直接返回，同时由后台任务重新生成（stale-while-revalidate）；
+ * 读取频繁且接近过期的内容会在过期前提前刷新（refresh-ahead）
+ * <p>
+ * 上游网站处于退避期、生成过载或生成失败时，返回最近一次成功的内容（stale-if-error），没有可用内容时直接失败
+ * <p>
+ * 异步接口中，命中缓存的请求在调用线程中直接返回；未命中的请求基于Provider的异步抓取完成，等待上游期间不占用线程，
+ * XML输出交给生成线程池（rssGenerationExecutor）
  */
 @Slf4j
 @Service
@@ -25,6 +49,28 @@ public class CacheableRssService {
     @Autowired
     private RssCacheService cacheService;
 
+    @Autowired
+    private UpstreamBackoff upstreamBackoff;
+
+    @Autowired
+    private RssRequestStats requestStats;
+
+    @Autowired
+    private GenerationLimiter generationLimiter;
+
+    @Autowired
+    @Qualifier("rssRefreshExecutor")
+    private TaskExecutor refreshExecutor;
+
+    @Autowired
+    @Qualifier("rssGenerationExecutor")
+    private TaskExecutor generationExecutor;
+
+    /**
+     * 当前节点正在后台刷新的缓存（siteId + 参数）
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
     /**
      * 生成RSS（带缓存）
      *
@@ -33,36 +79,313 @@ public class CacheableRssService {
      * @return RSS XML字符串
      */
     public String generateRssWithCache(String siteId, Map<String, String> params) {
+        return getFeedWithCache(siteId, params).getXml();
+    }
+
+    /**
+     * 获取RSS缓存条目（带缓存）
+     * 返回压缩后的内容及内容哈希，调用方可按客户端支持的编码直接输出
+     *
+     * @param siteId 网站ID
+     * @param params 请求参数
+     * @return 缓存条目
+     */
+    public CachedFeed getFeedWithCache(String siteId, Map<String, String> params) {
         log.info("生成RSS, siteId: {}, params: {}", siteId, params);
+        long start = System.nanoTime();
 
         // 获取Provider
         RssProviderService provider = providerFactory.getProvider(siteId);
 
         // 获取缓存配置
-        Long ttl = null;
-        if (provider.getSiteConfig().getCacheConfig() != null) {
-            if (!provider.getSiteConfig().getCacheConfig().getEnabled()) {
-                // 缓存未启用，直接生成
-                log.debug("缓存未启用, siteId: {}", siteId);
-                return generateRssDirectly(provider, params);
+        CacheConfig cacheConfig = provider.getSiteConfig().getCacheConfig();
+        CachedFeed cached = getCached(provider, params, cacheConfig);
+        if (cached != null) {
+            requestStats.recordHit(false, System.nanoTime() - start);
+            return cached;
+        }
+        requestStats.missStarted();
+        try {
+            return loadOnMiss(provider, params, cacheConfig);
+        } finally {
+            requestStats.recordMiss(false, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 异步获取RSS缓存条目
+     * 命中缓存时在调用线程中直接完成；未命中时由生成线程池完成抓取、解析与写缓存，调用线程（Tomcat线程）立即释放
+     *
+     * @param siteId 网站ID
+     * @param params 请求参数
+     * @return 缓存条目，生成失败时以RssException异常完成
+     */
+    public CompletableFuture<CachedFeed> getFeedWithCacheAsync(String siteId, Map<String, String> params) {
+        log.info("生成RSS（异步）, siteId: {}, params: {}", siteId, params);
+        long start = System.nanoTime();
+
+        RssProviderService provider = providerFactory.getProvider(siteId);
+        CacheConfig cacheConfig = provider.getSiteConfig().getCacheConfig();
+        CachedFeed cached = getCached(provider, params, cacheConfig);
+        if (cached != null) {
+            requestStats.recordHit(true, System.nanoTime() - start);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        requestStats.missStarted();
+        CompletableFuture<CachedFeed> future = loadOnMissAsync(provider, params, cacheConfig);
+        future.whenComplete((feed, error) -> requestStats.recordMiss(true, System.nanoTime() - start));
+        return future;
+    }
+
+    /**
+     * 读取缓存（可能已软过期），并按需提交后台刷新
+     *
+     * @return 缓存条目，未启用缓存或未命中时返回null
+     */
+    private CachedFeed getCached(RssProviderService provider, Map<String, String> params, CacheConfig cacheConfig) {
+        if (cacheConfig != null && !cacheConfig.getEnabled()) {
+            return null;
+        }
+        String siteId = provider.getSiteIdentifier();
+        Long ttl = cacheConfig != null ? cacheConfig.getTtl() : null;
+        Long softTtl = cacheConfig != null ? cacheConfig.getSoftTtl() : null;
+
+        // 命中缓存（可能已软过期）
+        CachedFeed cached = cacheService.getEntry(siteId, params);
+        if (cached != null) {
+            int hits = cached.recordHit();
+            long now = System.currentTimeMillis();
+            if (upstreamBackoff.siteBackoffRemaining(siteId) > 0) {
+                log.debug("网站处于退避期，不刷新缓存, siteId: {}", siteId);
+            } else if (cached.isStale(now)) {
+                log.debug("缓存已软过期，返回旧内容并后台刷新, siteId: {}", siteId);
+                scheduleRefresh(provider, params, ttl, softTtl);
+            } else if (shouldRefreshAhead(cached, cacheConfig, hits, now)) {
+                log.debug("缓存即将过期，提前刷新, siteId: {}, hits: {}", siteId, hits);
+                scheduleRefresh(provider, params, ttl, softTtl);
             }
-            ttl = provider.getSiteConfig().getCacheConfig().getTtl();
+        }
+        return cached;
+    }
+
+    /**
+     * 缓存未命中（或未启用缓存）时生成RSS
+     */
+    private CachedFeed loadOnMiss(RssProviderService provider, Map<String, String> params, CacheConfig cacheConfig) {
+        String siteId = provider.getSiteIdentifier();
+        if (cacheConfig != null && !cacheConfig.getEnabled()) {
+            // 缓存未启用，直接生成
+            log.debug("缓存未启用, siteId: {}", siteId);
+            long now = System.currentTimeMillis();
+            return CachedFeed.of(generateRssDirectly(provider, params, null, false).getXml(), FeedEncoding.IDENTITY,
+                    now, 0L, now);
+        }
+        Long ttl = cacheConfig != null ? cacheConfig.getTtl() : null;
+        Long softTtl = cacheConfig != null ? cacheConfig.getSoftTtl() : null;
+
+        // 网站处于退避期，不再请求上游
+        long backoff = upstreamBackoff.siteBackoffRemaining(siteId);
+        if (backoff > 0) {
+            return staleOrThrow(siteId, params, upstreamBackoff.unavailable(siteId, backoff));
         }
 
         // 使用缓存
-        final Long finalTtl = ttl;
-        return cacheService.getOrSet(siteId, params, ttl, () -> {
-            log.info("缓存未命中，生成新数据, siteId: {}", siteId);
-            return generateRssDirectly(provider, params);
+        CachedFeed feed;
+        try {
+            feed = cacheService.getOrSetEntry(siteId, params, ttl, softTtl, previous -> {
+                log.info("缓存未命中，生成新数据, siteId: {}", siteId);
+                return generateRssDirectly(provider, params, validatorsOf(previous), false);
+            });
+        } catch (RssException e) {
+            return staleOrThrow(siteId, params, e);
+        }
+        if (feed == null) {
+            throw new RssGenerationException("RSS生成结果为空, siteId: " + siteId);
+        }
+        return feed;
+    }
+
+    /**
+     * 缓存未命中（或未启用缓存）时异步生成RSS，规则与{@link #loadOnMiss}相同
+     * 抓取基于Provider的异步接口，等待上游期间不占用线程
+     */
+    private CompletableFuture<CachedFeed> loadOnMissAsync(RssProviderService provider, Map<String, String> params,
+                                                          CacheConfig cacheConfig) {
+        String siteId = provider.getSiteIdentifier();
+        if (cacheConfig != null && !cacheConfig.getEnabled()) {
+            // 缓存未启用，直接生成
+            log.debug("缓存未启用, siteId: {}", siteId);
+            return generateRssDirectlyAsync(provider, params, null).thenApply(loaded -> {
+                long now = System.currentTimeMillis();
+                return CachedFeed.of(loaded.getXml(), FeedEncoding.IDENTITY, now, 0L, now);
+            });
+        }
+        Long ttl = cacheConfig != null ? cacheConfig.getTtl() : null;
+        Long softTtl = cacheConfig != null ? cacheConfig.getSoftTtl() : null;
+
+        CompletableFuture<CachedFeed> loading;
+        try {
+            // 网站处于退避期，不再请求上游
+            long backoff = upstreamBackoff.siteBackoffRemaining(siteId);
+            if (backoff > 0) {
+                return CompletableFuture.completedFuture(
+                        staleOrThrow(siteId, params, upstreamBackoff.unavailable(siteId, backoff)));
+            }
+
+            // 使用缓存
+            loading = cacheService.getOrSetEntryAsync(siteId, params, ttl, softTtl, previous -> {
+                log.info("缓存未命中，异步生成新数据, siteId: {}", siteId);
+                return generateRssDirectlyAsync(provider, params, validatorsOf(previous));
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return loading.handle((feed, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (cause instanceof RssException rssException) {
+                    return staleOrThrow(siteId, params, rssException);
+                }
+                throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+            }
+            if (feed == null) {
+                throw new RssGenerationException("RSS生成结果为空, siteId: " + siteId);
+            }
+            return feed;
         });
     }
 
+    /**
+     * 生成失败时返回最近一次成功的内容，没有则抛出原异常
+     */
+    private CachedFeed staleOrThrow(String siteId, Map<String, String> params, RssException error) {
+        CachedFeed stale = cacheService.getStaleEntry(siteId, params);
+        if (stale == null) {
+            throw error;
+        }
+        log.warn("上游不可用，返回过期内容, siteId: {}, 生成时间: {}, 原因: {}",
+                siteId, stale.getCreatedAtMillis(), error.getMessage());
+        return stale;
+    }
+
+    /**
+     * 是否需要提前刷新
+     * 条件：读取次数达到阈值，且已进入新鲜期末尾的刷新窗口
+     */
+    private boolean shouldRefreshAhead(CachedFeed cached, CacheConfig cacheConfig, int hits, long now) {
+        if (cacheConfig == null || cacheConfig.getRefreshAheadMinHits() == null
+                || cacheConfig.getRefreshAheadMinHits() <= 0 || cacheConfig.getRefreshAheadRatio() == null) {
+            return false;
+        }
+        if (hits < cacheConfig.getRefreshAheadMinHits() || cached.getCreatedAtMillis() <= 0) {
+            return false;
+        }
+        long freshUntil = cached.getFreshUntilMillis();
+        long window = (long) ((freshUntil - cached.getCreatedAtMillis()) * cacheConfig.getRefreshAheadRatio());
+        return window > 0 && now >= freshUntil - window;
+    }
+
+    /**
+     * 提交后台刷新任务
+     * 同一缓存在当前节点只会有一个刷新任务，跨节点由缓存服务的分布式锁保证只刷新一次
+     */
+    private void scheduleRefresh(RssProviderService provider, Map<String, String> params, Long ttl, Long softTtl) {
+        String siteId = provider.getSiteIdentifier();
+        Map<String, String> refreshParams = new HashMap<>(params);
+        String refreshKey = siteId + ":" + new TreeMap<>(refreshParams);
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    boolean refreshed = cacheService.refresh(siteId, refreshParams, ttl, softTtl,
+                            previous -> generateRssDirectly(provider, refreshParams, validatorsOf(previous), true));
+                    log.info("后台刷新缓存完成, siteId: {}, params: {}, 执行节点: {}",
+                            siteId, refreshParams, refreshed ? "当前节点" : "其他节点");
+                } catch (GenerationOverloadedException e) {
+                    log.debug("生成繁忙，跳过后台刷新, siteId: {}, params: {}", siteId, refreshParams);
+                } catch (Exception e) {
+                    log.error("后台刷新缓存失败, siteId: {}, params: {}", siteId, refreshParams, e);
+                } finally {
+                    refreshing.remove(refreshKey);
+                }
+            });
+        } catch (Exception e) {
+            refreshing.remove(refreshKey);
+            log.warn("提交后台刷新任务失败, siteId: {}, 错误: {}", siteId, e.getMessage());
+        }
+    }
+
     /**
      * 直接生成RSS（不使用缓存）
+     * 受全局生成并发限制，达到上限时用户请求排队等待，后台刷新直接放弃；
+     * 上游限流预算在获取生成许可之前预留，限流等待不占用许可，也不计入生成耗时
+     *
+     * @param previous   上一版内容的上游校验信息，不为null时条件抓取（上游未修改时抛出FeedNotModifiedException）
+     * @param background 是否为后台刷新
+     * @return RSS XML及本次响应的校验信息，校验信息随内容一起写入缓存
+     */
+    private LoadedFeed generateRssDirectly(RssProviderService provider, Map<String, String> params,
+                                           UpstreamValidators previous, boolean background) {
+        String siteId = provider.getSiteIdentifier();
+        provider.reserveUpstream(params);
+        try (GenerationLimiter.Permit permit = generationLimiter.acquire(siteId, !background)) {
+            return toLoadedFeed(siteId, provider.generateRss(params, previous));
+        }
+    }
+
+    /**
+     * 异步直接生成RSS（不使用缓存），规则与{@link #generateRssDirectly}相同
+     * 许可在生成完成（包括失败）时归还
+     *
+     * @param previous 上一版内容的上游校验信息，不为null时条件抓取（上游未修改时以FeedNotModifiedException异常完成）
+     * @return RSS XML及本次响应的校验信息
+     */
+    private CompletableFuture<LoadedFeed> generateRssDirectlyAsync(RssProviderService provider,
+                                                                   Map<String, String> params,
+                                                                   UpstreamValidators previous) {
+        String siteId = provider.getSiteIdentifier();
+        // 先预留上游限流预算，再在达到生成并发上限时排队等待许可，等待期间均不占用线程
+        return provider.reserveUpstreamAsync(params)
+                .thenCompose(ignored -> generationLimiter.acquireAsync(siteId))
+                .thenCompose(permit -> {
+                    CompletableFuture<GeneratedRss> generating;
+                    try {
+                        generating = provider.generateRssAsync(params, previous);
+                    } catch (RuntimeException e) {
+                        permit.close();
+                        throw e;
+                    }
+                    generating.whenComplete((generated, error) -> permit.close());
+                    return generating;
+                })
+                // XML输出在生成线程池中执行，不占用OkHttp回调线程
+                .thenApplyAsync(generated -> toLoadedFeed(siteId, generated), generationExecutor);
+    }
+
+    /**
+     * 输出RSS XML，校验信息随内容一起写入缓存
+     */
+    private static LoadedFeed toLoadedFeed(String siteId, GeneratedRss generated) {
+        String rssXml = RssUtil.rssChannelOutPutXml(generated.getChannel());
+        if (rssXml == null) {
+            throw new RssGenerationException("RSS输出XML失败, siteId: " + siteId);
+        }
+        return new LoadedFeed(rssXml, generated.getValidators());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * 缓存中上一版内容的上游校验信息
      */
-    private String generateRssDirectly(RssProviderService provider, Map<String, String> params) {
-        RssChannel rssChannel = provider.generateRss(params);
-        return RssUtil.rssChannelOutPutXml(rssChannel);
+    private static UpstreamValidators validatorsOf(CachedFeed previous) {
+        return previous != null ? previous.getValidators() : null;
     }
 
     /**
@@ -0,0 +1,308 @@
+package com.rss.nest.core.cache;
+
+import com.rss.nest.core.provider.UpstreamValidators;
+import com.rss.nest.utils.hash.ContentHashUtil;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存中的RSS条目
+ * RSS XML以压缩后的字节保存，并附带内容哈希、生成时间和软过期时间；
+ * 客户端支持对应Content-Encoding时可直接透传压缩字节，无需解压。
+ * 生成该内容时上游页面的校验信息（ETag、Last-Modified、内容哈希、配置指纹）与内容一起保存，
+ * 只有内容写入成功后校验信息才会生效，条件抓取得到304或哈希未变化时沿用的一定是与之对应的内容
+ * <p>
+ * Redis中的存储格式（二进制）:
+ * <pre>
+ * magic(2) 'R''N' | version(1) | encoding(1) | createdAt(8) | softExpireAt(8) | contentHash(8) | rawLength(4)
+ *     | flags(1) | upstreamBodyHash(8) | configFingerprint(8) | etagLength(2) | etag
+ *     | lastModifiedLength(2) | lastModified | body
+ * </pre>
+ * flags: bit0 有校验信息，bit1 有上游内容哈希，bit2 有配置指纹；字符串长度为-1表示null。
+ * 版本3（无配置指纹）与版本2（无校验信息）的数据仍可读取，读出的校验信息没有配置指纹，下次生成时不沿用。
+ * 硬过期时间由Redis TTL决定，不写入内容（Redis TTL包含stale-if-error保留时间）
+ */
+@Getter
+public class CachedFeed {
+
+    private static final byte MAGIC_0 = 'R';
+    private static final byte MAGIC_1 = 'N';
+    private static final byte VERSION = 4;
+    private static final byte VERSION_WITHOUT_FINGERPRINT = 3;
+    private static final byte VERSION_WITHOUT_VALIDATORS = 2;
+    private static final int HEADER_LENGTH = 2 + 1 + 1 + 8 + 8 + 8 + 4;
+
+    private static final int FLAG_VALIDATORS = 1;
+    private static final int FLAG_BODY_HASH = 2;
+    private static final int FLAG_CONFIG_FINGERPRINT = 4;
+
+    /**
+     * 压缩后的内容
+     */
+    private final byte[] body;
+
+    /**
+     * 压缩编码
+     */
+    private final FeedEncoding encoding;
+
+    /**
+     * 原始XML（UTF-8）的内容哈希
+     */
+    private final long contentHash;
+
+    /**
+     * 原始XML（UTF-8）字节数
+     */
+    private final int rawLength;
+
+    /**
+     * 生成时间（毫秒时间戳）
+     */
+    private final long createdAtMillis;
+
+    /**
+     * 软过期时间（毫秒时间戳），0表示未启用
+     */
+    private final long softExpireAtMillis;
+
+    /**
+     * 硬过期时间（毫秒时间戳），与Redis TTL一致
+     */
+    private final long expireAtMillis;
+
+    /**
+     * 当前节点上该条目被读取的次数（用于判断是否需要提前刷新）
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /**
+     * 是否为上游不可用时返回的过期内容
+     */
+    private final boolean staleIfError;
+
+    /**
+     * 生成该内容时上游页面的校验信息，没有时为null（不支持条件抓取的Provider或旧版本数据）
+     */
+    private final UpstreamValidators validators;
+
+    public CachedFeed(byte[] body, FeedEncoding encoding, long contentHash, int rawLength,
+                      long createdAtMillis, long softExpireAtMillis, long expireAtMillis) {
+        this(body, encoding, contentHash, rawLength, createdAtMillis, softExpireAtMillis, expireAtMillis, null, false);
+    }
+
+    private CachedFeed(byte[] body, FeedEncoding encoding, long contentHash, int rawLength,
+                       long createdAtMillis, long softExpireAtMillis, long expireAtMillis,
+                       UpstreamValidators validators, boolean staleIfError) {
+        this.staleIfError = staleIfError;
+        this.validators = validators;
+        this.body = body;
+        this.encoding = encoding;
+        this.contentHash = contentHash;
+        this.rawLength = rawLength;
+        this.createdAtMillis = createdAtMillis;
+        this.softExpireAtMillis = softExpireAtMillis;
+        this.expireAtMillis = expireAtMillis;
+    }
+
+    /**
+     * 由RSS XML创建缓存条目
+     *
+     * @param xml                RSS XML
+     * @param encoding           压缩编码
+     * @param createdAtMillis    生成时间
+     * @param softExpireAtMillis 软过期时间，0表示未启用
+     * @param expireAtMillis     硬过期时间
+     */
+    public static CachedFeed of(String xml, FeedEncoding encoding, long createdAtMillis,
+                                long softExpireAtMillis, long expireAtMillis) {
+        return of(xml, encoding, createdAtMillis, softExpireAtMillis, expireAtMillis, null);
+    }
+
+    /**
+     * 由RSS XML及生成时的上游校验信息创建缓存条目
+     *
+     * @param validators 上游校验信息，可以为null
+     */
+    public static CachedFeed of(String xml, FeedEncoding encoding, long createdAtMillis,
+                                long softExpireAtMillis, long expireAtMillis, UpstreamValidators validators) {
+        byte[] raw = xml.getBytes(StandardCharsets.UTF_8);
+        return new CachedFeed(encoding.compress(raw), encoding, ContentHashUtil.hash64(raw), raw.length,
+                createdAtMillis, softExpireAtMillis, expireAtMillis,
+                validators != null && !validators.isEmpty() ? validators : null, false);
+    }
+
+    /**
+     * 解压后的原始字节（UTF-8）
+     */
+    public byte[] getRawBytes() {
+        return encoding.decompress(body, rawLength);
+    }
+
+    /**
+     * 解压后的RSS XML
+     */
+    public String getXml() {
+        return new String(getRawBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 基于内容哈希的强ETag
+     */
+    public String getETag() {
+        return "\"" + ContentHashUtil.toHex(contentHash) + "\"";
+    }
+
+    /**
+     * 是否已过软过期时间（内容可用但需要后台重新生成）
+     */
+    public boolean isStale(long nowMillis) {
+        return softExpireAtMillis > 0 && nowMillis >= softExpireAtMillis;
+    }
+
+    /**
+     * 新鲜期结束时间：启用软过期时为软过期时间，否则为硬过期时间
+     */
+    public long getFreshUntilMillis() {
+        return softExpireAtMillis > 0 ? softExpireAtMillis : expireAtMillis;
+    }
+
+    /**
+     * 沿用相同内容与校验信息，更新生成时间与过期时间（上游内容未修改时使用）
+     */
+    public CachedFeed renew(long createdAtMillis, long softExpireAtMillis, long expireAtMillis) {
+        return new CachedFeed(body, encoding, contentHash, rawLength, createdAtMillis, softExpireAtMillis,
+                expireAtMillis, validators, false);
+    }
+
+    /**
+     * 标记为上游不可用时返回的过期内容
+     */
+    public CachedFeed asStaleIfError() {
+        return new CachedFeed(body, encoding, contentHash, rawLength,
+                createdAtMillis, softExpireAtMillis, expireAtMillis, validators, true);
+    }
+
+    /**
+     * 记录一次读取
+     *
+     * @return 累计读取次数
+     */
+    public int recordHit() {
+        return hits.incrementAndGet();
+    }
+
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 编码为Redis存储内容
+     */
+    public byte[] encode() {
+        byte[] etag = validators != null ? encodeString(validators.getEtag()) : null;
+        byte[] lastModified = validators != null ? encodeString(validators.getLastModified()) : null;
+        int validatorsLength = 1 + 8 + 8 + 2 + (etag != null ? etag.length : 0) + 2
+                + (lastModified != null ? lastModified.length : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + validatorsLength + body.length);
+        buffer.put(MAGIC_0).put(MAGIC_1).put(VERSION).put((byte) encoding.getId());
+        buffer.putLong(createdAtMillis);
+        buffer.putLong(softExpireAtMillis);
+        buffer.putLong(contentHash);
+        buffer.putInt(rawLength);
+        int flags = 0;
+        if (validators != null) {
+            flags |= FLAG_VALIDATORS;
+            if (validators.getBodyHash() != null) {
+                flags |= FLAG_BODY_HASH;
+            }
+            if (validators.getConfigFingerprint() != null) {
+                flags |= FLAG_CONFIG_FINGERPRINT;
+            }
+        }
+        buffer.put((byte) flags);
+        buffer.putLong(validators != null && validators.getBodyHash() != null ? validators.getBodyHash() : 0L);
+        buffer.putLong(validators != null && validators.getConfigFingerprint() != null
+                ? validators.getConfigFingerprint() : 0L);
+        putString(buffer, etag);
+        putString(buffer, lastModified);
+        buffer.put(body);
+        return buffer.array();
+    }
+
+    /**
+     * 字符串的UTF-8字节，超过长度字段上限时不保存
+     */
+    private static byte[] encodeString(String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        return bytes != null && bytes.length <= Short.MAX_VALUE ? bytes : null;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) (value != null ? value.length : -1));
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 从Redis存储内容解码
+     *
+     * @param raw            Redis中的内容
+     * @param expireAtMillis 硬过期时间
+     * @return 缓存条目，raw为null或格式不识别（旧版本数据）时返回null
+     */
+    public static CachedFeed decode(byte[] raw, long expireAtMillis) {
+        if (raw == null || raw.length < HEADER_LENGTH
+                || raw[0] != MAGIC_0 || raw[1] != MAGIC_1 || raw[2] < VERSION_WITHOUT_VALIDATORS || raw[2] > VERSION) {
+            return null;
+        }
+        FeedEncoding encoding = FeedEncoding.fromId(raw[3]);
+        if (encoding == null || !encoding.isAvailable()) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(raw, 4, raw.length - 4);
+        long createdAt = buffer.getLong();
+        long softExpireAt = buffer.getLong();
+        long contentHash = buffer.getLong();
+        int rawLength = buffer.getInt();
+        UpstreamValidators validators = null;
+        if (raw[2] >= VERSION_WITHOUT_FINGERPRINT) {
+            try {
+                int flags = buffer.get();
+                long upstreamBodyHash = buffer.getLong();
+                long configFingerprint = raw[2] == VERSION ? buffer.getLong() : 0L;
+                String etag = getString(buffer);
+                String lastModified = getString(buffer);
+                if ((flags & FLAG_VALIDATORS) != 0) {
+                    validators = new UpstreamValidators(etag, lastModified,
+                            (flags & FLAG_BODY_HASH) != 0 ? upstreamBodyHash : null,
+                            (flags & FLAG_CONFIG_FINGERPRINT) != 0 ? configFingerprint : null);
+                }
+            } catch (BufferUnderflowException e) {
+                return null;
+            }
+        }
+        byte[] body = new byte[buffer.remaining()];
+        buffer.get(body);
+        return new CachedFeed(body, encoding, contentHash, rawLength, createdAt, softExpireAt, expireAtMillis,
+                validators, false);
+    }
+}
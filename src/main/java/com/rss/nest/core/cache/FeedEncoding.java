@@ -0,0 +1,215 @@
+package com.rss.nest.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 缓存内容的压缩编码
+ * name与HTTP Content-Encoding一致，客户端支持时可直接透传压缩后的字节
+ */
+@Slf4j
+public enum FeedEncoding {
+
+    /**
+     * 不压缩
+     */
+    IDENTITY(0, "identity") {
+        @Override
+        public byte[] compress(byte[] raw) {
+            return raw;
+        }
+
+        @Override
+        public byte[] decompress(byte[] compressed, int rawLength) {
+            return compressed;
+        }
+    },
+
+    /**
+     * gzip（JDK自带）
+     */
+    GZIP(1, "gzip") {
+        @Override
+        public byte[] compress(byte[] raw) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(raw);
+            } catch (IOException e) {
+                throw new UncheckedIOException("gzip压缩失败", e);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public byte[] decompress(byte[] compressed, int rawLength) {
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, rawLength));
+                gzip.transferTo(out);
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException("gzip解压失败", e);
+            }
+        }
+    },
+
+    /**
+     * zstd（需要classpath中存在zstd-jni，否则不可用）
+     */
+    ZSTD(2, "zstd") {
+        @Override
+        public byte[] compress(byte[] raw) {
+            return ZstdSupport.compress(raw);
+        }
+
+        @Override
+        public byte[] decompress(byte[] compressed, int rawLength) {
+            return ZstdSupport.decompress(compressed, rawLength);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return ZstdSupport.AVAILABLE;
+        }
+    };
+
+    /**
+     * 存储用的编码ID
+     */
+    private final int id;
+
+    /**
+     * HTTP Content-Encoding名称
+     */
+    private final String coding;
+
+    FeedEncoding(int id, String coding) {
+        this.id = id;
+        this.coding = coding;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCoding() {
+        return coding;
+    }
+
+    /**
+     * 压缩
+     */
+    public abstract byte[] compress(byte[] raw);
+
+    /**
+     * 解压
+     *
+     * @param compressed 压缩后的内容
+     * @param rawLength  原始长度
+     */
+    public abstract byte[] decompress(byte[] compressed, int rawLength);
+
+    /**
+     * 当前运行环境是否支持该编码
+     */
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * 根据ID获取编码
+     *
+     * @return 编码，未知ID返回null
+     */
+    public static FeedEncoding fromId(int id) {
+        for (FeedEncoding encoding : values()) {
+            if (encoding.id == id) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据配置名称获取编码，不可用时回退为gzip
+     *
+     * @param name 配置名称（none/gzip/zstd）
+     */
+    public static FeedEncoding resolve(String name) {
+        if (name == null || "none".equalsIgnoreCase(name) || "identity".equalsIgnoreCase(name)) {
+            return IDENTITY;
+        }
+        for (FeedEncoding encoding : values()) {
+            if (encoding.coding.equalsIgnoreCase(name)) {
+                if (encoding.isAvailable()) {
+                    return encoding;
+                }
+                log.warn("压缩编码 {} 不可用，回退为gzip", name);
+                return GZIP;
+            }
+        }
+        log.warn("未知的压缩编码 {}，使用gzip", name);
+        return GZIP;
+    }
+
+    /**
+     * zstd-jni反射调用，避免强依赖
+     */
+    private static final class ZstdSupport {
+
+        private static final int LEVEL = 3;
+
+        private static final MethodHandle COMPRESS;
+        private static final MethodHandle DECOMPRESS;
+        static final boolean AVAILABLE;
+
+        static {
+            MethodHandle compress = null;
+            MethodHandle decompress = null;
+            try {
+                Class<?> zstd = Class.forName("com.github.luben.zstd.Zstd");
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                compress = lookup.findStatic(zstd, "compress",
+                        MethodType.methodType(byte[].class, byte[].class, int.class));
+                decompress = lookup.findStatic(zstd, "decompress",
+                        MethodType.methodType(byte[].class, byte[].class, int.class));
+            } catch (ReflectiveOperationException | LinkageError e) {
+                compress = null;
+                decompress = null;
+            }
+            COMPRESS = compress;
+            DECOMPRESS = decompress;
+            AVAILABLE = compress != null && decompress != null;
+        }
+
+        static byte[] compress(byte[] raw) {
+            if (!AVAILABLE) {
+                throw new IllegalStateException("zstd不可用");
+            }
+            try {
+                return (byte[]) COMPRESS.invokeExact(raw, LEVEL);
+            } catch (Throwable e) {
+                throw new IllegalStateException("zstd压缩失败", e);
+            }
+        }
+
+        static byte[] decompress(byte[] compressed, int rawLength) {
+            if (!AVAILABLE) {
+                throw new IllegalStateException("zstd不可用");
+            }
+            try {
+                return (byte[]) DECOMPRESS.invokeExact(compressed, rawLength);
+            } catch (Throwable e) {
+                throw new IllegalStateException("zstd解压失败", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.rss.nest.core.cache;
+
+/**
+ * RSS内容加载器
+ * 缓存未命中或刷新时调用，可根据上一版内容决定是否进行条件抓取
+ */
+@FunctionalInterface
+public interface FeedLoader {
+
+    /**
+     * 生成RSS内容
+     * 上游内容未修改时可抛出{@link com.rss.nest.core.exception.FeedNotModifiedException}，
+     * 缓存层会直接延长previous的有效期
+     *
+     * @param previous 缓存中保留的上一版内容（可能已过期），其校验信息可用于条件抓取，不存在时为null
+     * @return RSS内容及上游校验信息，返回null表示不缓存
+     */
+    LoadedFeed load(CachedFeed previous);
+}
@@ -0,0 +1,31 @@
+package com.rss.nest.core.cache;
+
+import com.rss.nest.core.provider.UpstreamValidators;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 加载器生成的RSS内容
+ * 包含RSS XML与抓取时上游页面的校验信息，两者随同一个缓存条目写入
+ */
+@Getter
+@AllArgsConstructor
+public class LoadedFeed {
+
+    /**
+     * RSS XML
+     */
+    private final String xml;
+
+    /**
+     * 上游校验信息，没有时为null
+     */
+    private final UpstreamValidators validators;
+
+    /**
+     * 没有上游校验信息的内容
+     */
+    public static LoadedFeed of(String xml) {
+        return xml != null ? new LoadedFeed(xml, null) : null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.rss.nest.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内L1缓存
+ * 位于Redis之前，按字节大小加权淘汰，过期时间不超过Redis中的剩余TTL
+ */
+@Slf4j
+@Component
+public class LocalRssCache {
+
+    /**
+     * 每个条目的固定开销估算（字节）
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final boolean enabled;
+
+    private final long maxTtlMillis;
+
+    private final Cache<String, CachedFeed> cache;
+
+    public LocalRssCache(@Value("${rss-nest.cache.l1.enabled:true}") boolean enabled,
+                         @Value("${rss-nest.cache.l1.max-bytes:67108864}") long maxBytes,
+                         @Value("${rss-nest.cache.l1.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.enabled = enabled;
+        this.maxTtlMillis = TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedFeed feed) -> weigh(key, feed))
+                .expireAfter(new Expiry<String, CachedFeed>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedFeed feed, long currentTime) {
+                        return remainingNanos(feed);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedFeed feed, long currentTime, long currentDuration) {
+                        return remainingNanos(feed);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedFeed feed, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("L1缓存初始化完成, enabled: {}, maxBytes: {}, maxTtl: {}秒", enabled, maxBytes, maxTtlSeconds);
+    }
+
+    /**
+     * 获取缓存条目
+     *
+     * @param key 缓存Key
+     * @return 缓存条目，不存在或已过期返回null
+     */
+    public CachedFeed get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 写入缓存条目
+     * L1过期时间取max-ttl-seconds与条目硬过期时间（Redis TTL）中较早者
+     *
+     * @param key  缓存Key
+     * @param feed 缓存条目
+     */
+    public void put(String key, CachedFeed feed) {
+        if (!enabled || feed == null) {
+            return;
+        }
+        cache.put(key, feed);
+    }
+
+    /**
+     * 失效单个Key
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 失效指定前缀的所有Key
+     *
+     * @param keyPrefix Key前缀
+     */
+    public void invalidatePrefix(String keyPrefix) {
+        cache.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * 当前条目数
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 当前占用的加权字节数
+     */
+    public long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * 执行挂起的淘汰和过期清理
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private long remainingNanos(CachedFeed feed) {
+        long remaining = Math.min(feed.getExpireAtMillis() - System.currentTimeMillis(), maxTtlMillis);
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remaining));
+    }
+
+    /**
+     * 估算条目占用的字节数（Key按每字符2字节计算，内容按压缩后大小计算）
+     */
+    private static int weigh(String key, CachedFeed feed) {
+        long bytes = ENTRY_OVERHEAD + 2L * key.length() + feed.getBody().length;
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
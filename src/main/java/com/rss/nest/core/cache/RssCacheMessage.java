@@ -0,0 +1,82 @@
+package com.rss.nest.core.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 跨节点缓存消息
+ * 通过Redis发布/订阅传播，用于保持各节点L1缓存一致
+ * 格式: {type}|{nodeId}|{payload}
+ */
+@Getter
+@AllArgsConstructor
+public class RssCacheMessage {
+
+    /**
+     * 发布/订阅频道
+     */
+    public static final String CHANNEL = "rssNest:cache:events";
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 消息类型
+     */
+    private final Type type;
+
+    /**
+     * 发送节点ID
+     */
+    private final String nodeId;
+
+    /**
+     * 消息内容（缓存Key，或网站ID与代数）
+     */
+    private final String payload;
+
+    /**
+     * 编码为字符串
+     */
+    public String encode() {
+        return type.name() + SEPARATOR + nodeId + SEPARATOR + payload;
+    }
+
+    /**
+     * 从字符串解码
+     *
+     * @param raw 原始消息
+     * @return 消息对象，格式不正确返回null
+     */
+    public static RssCacheMessage decode(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new RssCacheMessage(Type.valueOf(parts[0]), parts[1], parts[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 消息类型
+     */
+    public enum Type {
+        /**
+         * 失效单个Key
+         */
+        INVALIDATE_KEY,
+        /**
+         * 网站缓存代数变更（清空网站缓存），内容为 {siteId}:{generation}
+         */
+        GENERATION_CHANGED,
+        /**
+         * 重建锁已释放但未写入缓存（生成失败），唤醒等待者重新竞争
+         */
+        LOCK_RELEASED
+    }
+}
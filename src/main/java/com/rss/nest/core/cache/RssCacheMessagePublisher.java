@@ -0,0 +1,69 @@
+package com.rss.nest.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 跨节点缓存消息发布器
+ */
+@Slf4j
+@Component
+public class RssCacheMessagePublisher {
+
+    /**
+     * 当前节点ID，用于忽略本节点发出的消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 判断消息是否由当前节点发出
+     */
+    public boolean isLocal(RssCacheMessage message) {
+        return nodeId.equals(message.getNodeId());
+    }
+
+    /**
+     * 通知其他节点失效单个Key
+     */
+    public void publishInvalidateKey(String key) {
+        publish(new RssCacheMessage(RssCacheMessage.Type.INVALIDATE_KEY, nodeId, key));
+    }
+
+    /**
+     * 通知其他节点网站缓存代数已变更
+     *
+     * @param siteId     网站ID
+     * @param generation 新代数
+     */
+    public void publishGenerationChanged(String siteId, long generation) {
+        publish(new RssCacheMessage(RssCacheMessage.Type.GENERATION_CHANGED, nodeId, siteId + ":" + generation));
+    }
+
+    /**
+     * 通知其他节点重建锁已释放
+     *
+     * @param key 缓存Key
+     */
+    public void publishLockReleased(String key) {
+        publish(new RssCacheMessage(RssCacheMessage.Type.LOCK_RELEASED, nodeId, key));
+    }
+
+    private void publish(RssCacheMessage message) {
+        try {
+            redisTemplate.convertAndSend(RssCacheMessage.CHANNEL, message.encode());
+        } catch (Exception e) {
+            log.error("发布缓存消息失败, type: {}, payload: {}", message.getType(), message.getPayload(), e);
+        }
+    }
+}
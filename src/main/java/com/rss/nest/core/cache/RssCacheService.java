@@ -1,8 +1,7 @@
 package com.rss.nest.core.cache;
 
-import com.rss.nest.models.rss.RssChannel;
-
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -19,6 +18,25 @@ public interface RssCacheService {
      */
     String get(String siteId, Map<String, String> params);
 
+    /**
+     * 获取缓存条目（包含生成时间、软过期时间等元数据）
+     *
+     * @param siteId 网站ID
+     * @param params 参数
+     * @return 缓存条目，不存在返回null
+     */
+    CachedFeed getEntry(String siteId, Map<String, String> params);
+
+    /**
+     * 获取已过期但仍保留的最近一次成功内容（stale-if-error）
+     * 用于上游不可用时兜底返回
+     *
+     * @param siteId 网站ID
+     * @param params 参数
+     * @return 缓存条目（已标记为stale-if-error），不存在返回null
+     */
+    CachedFeed getStaleEntry(String siteId, Map<String, String> params);
+
     /**
      * 设置RSS缓存
      *
@@ -29,6 +47,18 @@ public interface RssCacheService {
      */
     void set(String siteId, Map<String, String> params, String rssXml, Long ttlSeconds);
 
+    /**
+     * 设置RSS缓存（带软过期时间）
+     * 超过软过期时间后内容仍可读取，但会被视为过期并触发后台刷新
+     *
+     * @param siteId         网站ID
+     * @param params         参数
+     * @param rssXml         RSS XML内容
+     * @param ttlSeconds     缓存时长（秒），即硬过期时间
+     * @param softTtlSeconds 软过期时长（秒），为null表示不启用
+     */
+    void set(String siteId, Map<String, String> params, String rssXml, Long ttlSeconds, Long softTtlSeconds);
+
     /**
      * 删除缓存
      *
@@ -55,4 +85,61 @@ public interface RssCacheService {
      * @return RSS XML内容
      */
     String getOrSet(String siteId, Map<String, String> params, Long ttlSeconds, Supplier<String> supplier);
+
+    /**
+     * 获取或设置缓存（防击穿，带软过期时间）
+     *
+     * @param siteId         网站ID
+     * @param params         参数
+     * @param ttlSeconds     缓存时长（秒）
+     * @param softTtlSeconds 软过期时长（秒），为null表示不启用
+     * @param supplier       数据提供者
+     * @return RSS XML内容
+     */
+    String getOrSet(String siteId, Map<String, String> params, Long ttlSeconds, Long softTtlSeconds,
+                    Supplier<String> supplier);
+
+    /**
+     * 获取或设置缓存条目（防击穿，带软过期时间）
+     * 与getOrSet相同，但返回压缩后的缓存条目，便于直接透传给客户端；
+     * loader抛出FeedNotModifiedException时延长上一版内容的有效期
+     *
+     * @param siteId         网站ID
+     * @param params         参数
+     * @param ttlSeconds     缓存时长（秒）
+     * @param softTtlSeconds 软过期时长（秒），为null表示不启用
+     * @param loader         数据加载器
+     * @return 缓存条目，loader返回null时为null
+     */
+    CachedFeed getOrSetEntry(String siteId, Map<String, String> params, Long ttlSeconds, Long softTtlSeconds,
+                             FeedLoader loader);
+
+    /**
+     * 异步获取或设置缓存条目（防击穿，带软过期时间）
+     * 规则与getOrSetEntry相同；未命中时加载、等待其他节点生成都不占用调用线程
+     *
+     * @param siteId         网站ID
+     * @param params         参数
+     * @param ttlSeconds     缓存时长（秒）
+     * @param softTtlSeconds 软过期时长（秒），为null表示不启用
+     * @param loader         异步数据加载器
+     * @return 缓存条目，loader结果为null时为null
+     */
+    CompletableFuture<CachedFeed> getOrSetEntryAsync(String siteId, Map<String, String> params, Long ttlSeconds,
+                                                     Long softTtlSeconds, AsyncFeedLoader loader);
+
+    /**
+     * 重新生成并覆盖缓存
+     * 集群内同一时间只有一个节点执行，其他节点直接返回false；
+     * loader抛出FeedNotModifiedException时只延长已有内容的有效期
+     *
+     * @param siteId         网站ID
+     * @param params         参数
+     * @param ttlSeconds     缓存时长（秒）
+     * @param softTtlSeconds 软过期时长（秒），为null表示不启用
+     * @param loader         数据加载器
+     * @return 是否由当前节点完成了刷新
+     */
+    boolean refresh(String siteId, Map<String, String> params, Long ttlSeconds, Long softTtlSeconds,
+                    FeedLoader loader);
 }
@@ -1,19 +1,36 @@
 package com.rss.nest.core.cache;
 
+import com.rss.nest.core.lock.LockLease;
+import com.rss.nest.core.lock.RedisLockService;
+import com.rss.nest.core.exception.FeedNotModifiedException;
+import com.rss.nest.core.exception.RssGenerationException;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 /**
- * RSS缓存服务实现（Redis）
+ * RSS缓存服务实现（L1进程内缓存 + L2 Redis）
+ * 读取时优先命中L1，未命中再访问Redis并回填L1；
+ * 写入、删除、清空时通过Redis发布/订阅通知其他节点失效L1。
+ * 内容以压缩后的字节（默认gzip）连同内容哈希一起存储。
+ * 缓存Key包含网站代数，清空网站缓存通过代数加一完成，不再遍历Key
  */
 @Slf4j
 @Service
@@ -22,10 +39,57 @@ public class RssCacheServiceImpl implements RssCacheService {
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    @Qualifier("bytesRedisTemplate")
+    private RedisTemplate<String, byte[]> bytesRedisTemplate;
+
+    @Autowired
+    private LocalRssCache localCache;
+
+    @Autowired
+    private RssCacheStats cacheStats;
+
+    @Autowired
+    private RssCacheMessagePublisher messagePublisher;
+
+    @Autowired
+    private CacheFillNotifier fillNotifier;
+
+    @Autowired
+    private CacheGenerations generations;
+
+    @Autowired
+    private RedisLockService lockService;
+
+    /**
+     * 未抢到重建锁时等待其他节点生成的最长时间（毫秒）
+     */
+    @Value("${rss-nest.cache.single-flight.max-wait-ms:5000}")
+    private long maxWaitMillis;
+
+    /**
+     * 缓存内容压缩编码（none/gzip/zstd）
+     */
+    @Value("${rss-nest.cache.compression:gzip}")
+    private String compression;
+
+    private FeedEncoding feedEncoding;
+
+    /**
+     * 硬过期后在Redis中继续保留的时间（秒），用于上游不可用时返回最近一次成功内容
+     */
+    @Value("${rss-nest.cache.stale-if-error-seconds:86400}")
+    private long staleIfErrorSeconds;
+
+    /**
+     * 进程内请求合并
+     */
+    private final SingleFlight<CachedFeed> singleFlight = new SingleFlight<>();
+
     /**
      * 缓存key前缀
      */
-    private static final String CACHE_PREFIX = "rssNest:cache:";
+    static final String CACHE_PREFIX = "rssNest:cache:";
 
     /**
      * 分布式锁前缀
@@ -33,35 +97,171 @@ public class RssCacheServiceImpl implements RssCacheService {
     private static final String LOCK_PREFIX = "rssNest:lock:";
 
     /**
-     * 锁超时时间（秒）
+     * 默认缓存时长（秒）
      */
-    private static final long LOCK_TIMEOUT = 30L;
+    private static final long DEFAULT_TTL = 10800L;
+
+    @PostConstruct
+    public void init() {
+        this.feedEncoding = FeedEncoding.resolve(compression);
+        log.info("RSS缓存压缩编码: {}", feedEncoding.getCoding());
+    }
 
     @Override
     public String get(String siteId, Map<String, String> params) {
-        String key = buildCacheKey(siteId, params);
+        CachedFeed feed = getEntry(siteId, params);
+        return feed != null ? feed.getXml() : null;
+    }
+
+    @Override
+    public CachedFeed getEntry(String siteId, Map<String, String> params) {
+        CachedFeed feed = readEntry(buildCacheKey(siteId, params));
+        return feed != null && !isExpired(feed) ? feed : null;
+    }
+
+    /**
+     * 依次读取L1、L2
+     *
+     * @return 缓存条目，可能已硬过期（stale-if-error保留期内），不存在返回null
+     */
+    private CachedFeed readEntry(String key) {
+        // 1. L1
+        CachedFeed local = localCache.get(key);
+        if (local != null) {
+            cacheStats.recordL1Hit();
+            return local;
+        }
+        cacheStats.recordL1Miss();
+
+        // 2. L2
         try {
-            return redisTemplate.opsForValue().get(key);
+            CachedFeed feed = readRedis(key);
+            if (feed == null || isExpired(feed)) {
+                cacheStats.recordL2Miss();
+                return feed;
+            }
+            cacheStats.recordL2Hit();
+            localCache.put(key, feed);
+            return feed;
         } catch (Exception e) {
             log.error("获取缓存失败, key: {}", key, e);
             return null;
         }
     }
 
+    private static boolean isExpired(CachedFeed feed) {
+        return feed.getExpireAtMillis() <= System.currentTimeMillis();
+    }
+
     @Override
-    public void set(String siteId, Map<String, String> params, String rssXml, Long ttlSeconds) {
+    public CachedFeed getStaleEntry(String siteId, Map<String, String> params) {
         String key = buildCacheKey(siteId, params);
         try {
-            if (ttlSeconds != null && ttlSeconds > 0) {
-                redisTemplate.opsForValue().set(key, rssXml, Duration.ofSeconds(ttlSeconds));
-            } else {
-                // 默认3小时
-                redisTemplate.opsForValue().set(key, rssXml, Duration.ofHours(3));
-            }
-            log.debug("设置缓存成功, key: {}, ttl: {}秒", key, ttlSeconds);
+            CachedFeed feed = readRedis(key);
+            return feed != null ? feed.asStaleIfError() : null;
+        } catch (Exception e) {
+            log.error("获取过期缓存失败, key: {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 从Redis读取缓存条目，同时取回剩余TTL，保证L1不会比Redis活得更久
+     * Redis TTL中包含stale-if-error保留时间，条目的硬过期时间需扣除
+     *
+     * @return 缓存条目（可能已硬过期），不存在或格式不识别返回null
+     */
+    private CachedFeed readRedis(String key) {
+        List<Object> results = bytesRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+            connection.stringCommands().get(rawKey);
+            connection.keyCommands().pTtl(rawKey);
+            return null;
+        });
+        Long pttl = (Long) results.get(1);
+        long expireAt = pttl != null && pttl > 0
+                ? System.currentTimeMillis() + pttl - TimeUnit.SECONDS.toMillis(staleIfErrorSeconds)
+                : Long.MAX_VALUE;
+        // 旧格式数据无法识别，视为未命中，重新生成后覆盖
+        return CachedFeed.decode((byte[]) results.get(0), expireAt);
+    }
+
+    @Override
+    public void set(String siteId, Map<String, String> params, String rssXml, Long ttlSeconds) {
+        set(siteId, params, rssXml, ttlSeconds, null);
+    }
+
+    @Override
+    public void set(String siteId, Map<String, String> params, String rssXml, Long ttlSeconds, Long softTtlSeconds) {
+        store(siteId, params, rssXml, ttlSeconds, softTtlSeconds);
+    }
+
+    /**
+     * 压缩并写入缓存
+     *
+     * @return 写入的缓存条目
+     */
+    private CachedFeed store(String siteId, Map<String, String> params, String rssXml,
+                             Long ttlSeconds, Long softTtlSeconds) {
+        return write(buildCacheKey(siteId, params), newFeed(LoadedFeed.of(rssXml), ttlSeconds, softTtlSeconds),
+                resolveTtl(ttlSeconds));
+    }
+
+    /**
+     * 压缩生成新的缓存条目，上游校验信息随内容一起保存
+     */
+    private CachedFeed newFeed(LoadedFeed loaded, Long ttlSeconds, Long softTtlSeconds) {
+        long ttl = resolveTtl(ttlSeconds);
+        long now = System.currentTimeMillis();
+        return CachedFeed.of(loaded.getXml(), feedEncoding, now, softExpireAt(now, ttl, softTtlSeconds),
+                now + TimeUnit.SECONDS.toMillis(ttl), loaded.getValidators());
+    }
+
+    /**
+     * 上游内容未修改：沿用上一版内容（不重新压缩），重新计算软过期与硬过期时间
+     *
+     * @return 写入的缓存条目
+     */
+    private CachedFeed rearm(String key, CachedFeed previous, Long ttlSeconds, Long softTtlSeconds) {
+        long ttl = resolveTtl(ttlSeconds);
+        long now = System.currentTimeMillis();
+        CachedFeed feed = previous.renew(now, softExpireAt(now, ttl, softTtlSeconds),
+                now + TimeUnit.SECONDS.toMillis(ttl));
+        log.debug("上游内容未修改，延长缓存有效期, key: {}, ttl: {}秒", key, ttl);
+        return write(key, feed, ttl);
+    }
+
+    /**
+     * 写入Redis与L1，通知其他节点并唤醒等待者
+     */
+    private CachedFeed write(String key, CachedFeed feed, long ttl) {
+        try {
+            bytesRedisTemplate.opsForValue().set(key, feed.encode(), Duration.ofSeconds(ttl + staleIfErrorSeconds));
+            localCache.put(key, feed);
+            messagePublisher.publishInvalidateKey(key);
+            log.debug("设置缓存成功, key: {}, ttl: {}秒, 原始: {}字节, 压缩后: {}字节",
+                    key, ttl, feed.getRawLength(), feed.getBody().length);
         } catch (Exception e) {
             log.error("设置缓存失败, key: {}", key, e);
         }
+        fillNotifier.notifyFilled(key);
+        return feed;
+    }
+
+    /**
+     * 缓存时长，默认3小时
+     */
+    private static long resolveTtl(Long ttlSeconds) {
+        return ttlSeconds != null && ttlSeconds > 0 ? ttlSeconds : DEFAULT_TTL;
+    }
+
+    /**
+     * 软过期时间，未启用时为0
+     */
+    private static long softExpireAt(long now, long ttl, Long softTtlSeconds) {
+        return softTtlSeconds != null && softTtlSeconds > 0 && softTtlSeconds < ttl
+                ? now + TimeUnit.SECONDS.toMillis(softTtlSeconds)
+                : 0L;
     }
 
     @Override
@@ -69,6 +269,8 @@ public class RssCacheServiceImpl implements RssCacheService {
         String key = buildCacheKey(siteId, params);
         try {
             redisTemplate.delete(key);
+            localCache.invalidate(key);
+            messagePublisher.publishInvalidateKey(key);
             log.debug("删除缓存成功, key: {}", key);
         } catch (Exception e) {
             log.error("删除缓存失败, key: {}", key, e);
@@ -77,93 +279,358 @@ public class RssCacheServiceImpl implements RssCacheService {
 
     @Override
     public void clearSite(String siteId) {
+        String keyPrefix = CACHE_PREFIX + siteId + ":";
         try {
-            String pattern = CACHE_PREFIX + siteId + ":*";
-            var keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.info("清空网站缓存成功, siteId: {}, 数量: {}", siteId, keys.size());
-            }
+            long generation = generations.increment(siteId);
+            log.info("清空网站缓存成功, siteId: {}, 新代数: {}", siteId, generation);
         } catch (Exception e) {
             log.error("清空网站缓存失败, siteId: {}", siteId, e);
+        } finally {
+            // 旧代数的L1条目已不可达，这里只是尽早释放内存
+            localCache.invalidatePrefix(keyPrefix);
         }
     }
 
     @Override
     public String getOrSet(String siteId, Map<String, String> params, Long ttlSeconds, Supplier<String> supplier) {
+        return getOrSet(siteId, params, ttlSeconds, null, supplier);
+    }
+
+    @Override
+    public String getOrSet(String siteId, Map<String, String> params, Long ttlSeconds, Long softTtlSeconds,
+                           Supplier<String> supplier) {
+        CachedFeed feed = getOrSetEntry(siteId, params, ttlSeconds, softTtlSeconds,
+                previous -> LoadedFeed.of(supplier.get()));
+        return feed != null ? feed.getXml() : null;
+    }
+
+    @Override
+    public CachedFeed getOrSetEntry(String siteId, Map<String, String> params, Long ttlSeconds, Long softTtlSeconds,
+                                    FeedLoader loader) {
         String cacheKey = buildCacheKey(siteId, params);
 
         // 1. 尝试从缓存获取
-        String cached = get(siteId, params);
+        CachedFeed cached = getEntry(siteId, params);
         if (cached != null) {
             log.debug("缓存命中, key: {}", cacheKey);
             return cached;
         }
 
-        // 2. 缓存未命中，使用分布式锁防止缓存击穿
+        // 2. 缓存未命中，进程内同一Key的并发请求共享一次加载
+        return singleFlight.execute(cacheKey,
+                () -> loadWithLock(siteId, params, cacheKey, ttlSeconds, softTtlSeconds, loader));
+    }
+
+    /**
+     * 在分布式锁保护下加载数据
+     * 未抢到锁时登记等待，由锁持有者写入缓存或释放锁后的通知唤醒，最长等待maxWaitMillis后降级为直接执行
+     */
+    private CachedFeed loadWithLock(String siteId, Map<String, String> params, String cacheKey,
+                                    Long ttlSeconds, Long softTtlSeconds, FeedLoader loader) {
         String lockKey = buildLockKey(siteId, params);
-        boolean locked = false;
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
 
-        try {
-            // 尝试获取锁
-            locked = tryLock(lockKey);
+        while (true) {
+            CompletableFuture<Void> filled = fillNotifier.register(cacheKey);
+            try {
+                LockLease lease;
+                try {
+                    lease = lockService.tryLock(lockKey);
+                } catch (Exception e) {
+                    // Redis不可用，仅依赖进程内合并
+                    log.warn("获取锁失败，直接执行, key: {}, 错误: {}", cacheKey, e.getMessage());
+                    return uncached(loader.load(null));
+                }
 
-            if (locked) {
-                // 获取锁成功，双重检查缓存
-                cached = get(siteId, params);
+                if (lease != null) {
+                    return loadAndSet(cacheKey, lease, ttlSeconds, softTtlSeconds, loader);
+                }
+
+                // 未获取到锁，其他节点正在生成：检查缓存后等待通知
+                CachedFeed cached = getEntry(siteId, params);
                 if (cached != null) {
-                    log.debug("双重检查缓存命中, key: {}", cacheKey);
                     return cached;
                 }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                log.debug("未获取到锁，等待其他节点生成, key: {}, 最长等待: {}ms", cacheKey, remaining);
+                long waitStart = System.nanoTime();
+                try {
+                    filled.get(remaining, TimeUnit.MILLISECONDS);
+                } finally {
+                    lockService.recordWait(System.nanoTime() - waitStart);
+                }
+            } catch (TimeoutException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("等待缓存时被中断, key: {}", cacheKey, e);
+                break;
+            } catch (ExecutionException e) {
+                // 通知Future不会异常完成
+                break;
+            } finally {
+                fillNotifier.unregister(cacheKey, filled);
+            }
+        }
 
-                // 执行数据获取
-                log.debug("执行数据获取, key: {}", cacheKey);
-                String data = supplier.get();
+        CachedFeed cached = getEntry(siteId, params);
+        if (cached != null) {
+            return cached;
+        }
+        // 等待超时仍获取不到，直接执行（降级策略）
+        log.warn("等待缓存超时，直接执行, key: {}", cacheKey);
+        return uncached(loader.load(null));
+    }
 
-                // 设置缓存
-                if (data != null) {
-                    set(siteId, params, data, ttlSeconds);
-                }
+    @Override
+    public CompletableFuture<CachedFeed> getOrSetEntryAsync(String siteId, Map<String, String> params,
+                                                            Long ttlSeconds, Long softTtlSeconds,
+                                                            AsyncFeedLoader loader) {
+        String cacheKey = buildCacheKey(siteId, params);
 
-                return data;
+        // 1. 尝试从缓存获取
+        CachedFeed cached = getEntry(siteId, params);
+        if (cached != null) {
+            log.debug("缓存命中, key: {}", cacheKey);
+            return CompletableFuture.completedFuture(cached);
+        }
 
-            } else {
-                // 未获取到锁，等待并重试获取缓存
-                log.debug("未获取到锁，等待重试, key: {}", cacheKey);
-                Thread.sleep(100);
+        // 2. 缓存未命中，与同步调用共享进程内的同一次加载
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        return singleFlight.executeAsync(cacheKey,
+                () -> loadWithLockAsync(siteId, params, cacheKey, ttlSeconds, softTtlSeconds, loader, deadline));
+    }
 
-                cached = get(siteId, params);
-                if (cached != null) {
-                    return cached;
-                }
+    /**
+     * 在分布式锁保护下异步加载数据，规则与{@link #loadWithLock}相同
+     * 未抢到锁时不阻塞线程：等待通知或超时后在完成通知的线程中重试
+     */
+    private CompletableFuture<CachedFeed> loadWithLockAsync(String siteId, Map<String, String> params,
+                                                            String cacheKey, Long ttlSeconds, Long softTtlSeconds,
+                                                            AsyncFeedLoader loader, long deadline) {
+        String lockKey = buildLockKey(siteId, params);
+        CompletableFuture<Void> filled = fillNotifier.register(cacheKey);
+        LockLease lease;
+        try {
+            lease = lockService.tryLock(lockKey);
+        } catch (Exception e) {
+            // Redis不可用，仅依赖进程内合并
+            fillNotifier.unregister(cacheKey, filled);
+            log.warn("获取锁失败，直接执行, key: {}, 错误: {}", cacheKey, e.getMessage());
+            return loadUncached(loader);
+        }
+
+        if (lease != null) {
+            fillNotifier.unregister(cacheKey, filled);
+            return loadAndSetAsync(cacheKey, lease, ttlSeconds, softTtlSeconds, loader);
+        }
 
-                // 如果还是获取不到，直接执行（降级策略）
-                log.warn("缓存获取失败，直接执行, key: {}", cacheKey);
-                return supplier.get();
+        // 未获取到锁，其他节点正在生成：检查缓存后等待通知
+        CachedFeed cached = getEntry(siteId, params);
+        long remaining = deadline - System.currentTimeMillis();
+        if (cached != null || remaining <= 0) {
+            fillNotifier.unregister(cacheKey, filled);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
             }
+            // 等待超时仍获取不到，直接执行（降级策略）
+            log.warn("等待缓存超时，直接执行, key: {}", cacheKey);
+            return loadUncached(loader);
+        }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("等待缓存时被中断, key: {}", cacheKey, e);
-            return supplier.get();
-        } catch (Exception e) {
-            log.error("获取或设置缓存失败, key: {}", cacheKey, e);
-            return supplier.get();
+        log.debug("未获取到锁，等待其他节点生成（异步）, key: {}, 最长等待: {}ms", cacheKey, remaining);
+        long waitStart = System.nanoTime();
+        // 通知Future由同一Key的所有等待者共享，超时只作用于副本
+        return filled.copy()
+                .completeOnTimeout(null, remaining, TimeUnit.MILLISECONDS)
+                .thenCompose(ignored -> {
+                    fillNotifier.unregister(cacheKey, filled);
+                    lockService.recordWait(System.nanoTime() - waitStart);
+                    return loadWithLockAsync(siteId, params, cacheKey, ttlSeconds, softTtlSeconds, loader, deadline);
+                });
+    }
+
+    /**
+     * 不经过缓存直接异步加载（降级执行时使用）
+     */
+    private CompletableFuture<CachedFeed> loadUncached(AsyncFeedLoader loader) {
+        try {
+            return loader.load(null).thenApply(this::uncached);
+        } catch (RuntimeException | Error e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * 未写入缓存的结果（降级执行时使用）
+     */
+    private CachedFeed uncached(LoadedFeed loaded) {
+        if (loaded == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        return CachedFeed.of(loaded.getXml(), FeedEncoding.IDENTITY, now, 0L, now);
+    }
+
+    /**
+     * 持有锁时执行：双重检查缓存、生成数据并写入缓存
+     * 上游内容未修改时延长上一版内容的有效期
+     */
+    private CachedFeed loadAndSet(String cacheKey, LockLease lease,
+                                  Long ttlSeconds, Long softTtlSeconds, FeedLoader loader) {
+        boolean stored = false;
+        try {
+            // 获取锁成功，双重检查缓存
+            CachedFeed previous = readEntry(cacheKey);
+            if (previous != null && !isExpired(previous)) {
+                log.debug("双重检查缓存命中, key: {}", cacheKey);
+                return previous;
+            }
+
+            // 执行数据获取
+            log.debug("执行数据获取, key: {}", cacheKey);
+            LoadedFeed data;
+            try {
+                data = loader.load(previous);
+            } catch (FeedNotModifiedException e) {
+                stored = previous != null;
+                return rearmOrThrow(cacheKey, previous, ttlSeconds, softTtlSeconds, e);
+            }
+
+            stored = data != null;
+            return storeLoaded(cacheKey, lease, data, ttlSeconds, softTtlSeconds);
         } finally {
-            if (locked) {
-                releaseLock(lockKey);
+            releaseLease(cacheKey, lease, stored);
+        }
+    }
+
+    /**
+     * 持有锁时异步执行，规则与{@link #loadAndSet}相同，锁在加载完成后释放
+     */
+    private CompletableFuture<CachedFeed> loadAndSetAsync(String cacheKey, LockLease lease,
+                                                          Long ttlSeconds, Long softTtlSeconds, AsyncFeedLoader loader) {
+        CachedFeed previous;
+        CompletableFuture<LoadedFeed> loading;
+        try {
+            // 获取锁成功，双重检查缓存
+            previous = readEntry(cacheKey);
+            if (previous != null && !isExpired(previous)) {
+                log.debug("双重检查缓存命中, key: {}", cacheKey);
+                releaseLease(cacheKey, lease, false);
+                return CompletableFuture.completedFuture(previous);
+            }
+            log.debug("执行数据获取（异步）, key: {}", cacheKey);
+            loading = loader.load(previous);
+        } catch (RuntimeException | Error e) {
+            releaseLease(cacheKey, lease, false);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return loading.handle((data, error) -> {
+            boolean stored = false;
+            try {
+                if (error != null) {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof FeedNotModifiedException notModified) {
+                        stored = previous != null;
+                        return rearmOrThrow(cacheKey, previous, ttlSeconds, softTtlSeconds, notModified);
+                    }
+                    throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                }
+                stored = data != null;
+                return storeLoaded(cacheKey, lease, data, ttlSeconds, softTtlSeconds);
+            } finally {
+                releaseLease(cacheKey, lease, stored);
             }
+        });
+    }
+
+    /**
+     * 上游内容未修改时延长上一版内容的有效期，没有上一版时按生成失败处理
+     */
+    private CachedFeed rearmOrThrow(String cacheKey, CachedFeed previous, Long ttlSeconds, Long softTtlSeconds,
+                                    FeedNotModifiedException e) {
+        if (previous == null) {
+            throw new RssGenerationException("上游内容未修改但缓存已不存在, key: " + cacheKey, e);
+        }
+        return rearm(cacheKey, previous, ttlSeconds, softTtlSeconds);
+    }
+
+    /**
+     * 写入加载结果（写入时会唤醒等待者），结果为null时不缓存
+     */
+    private CachedFeed storeLoaded(String cacheKey, LockLease lease, LoadedFeed data,
+                                   Long ttlSeconds, Long softTtlSeconds) {
+        if (data == null) {
+            return null;
+        }
+        if (!lease.isHeld()) {
+            // 生成耗时过长导致锁丢失，其他节点可能已写入更新的内容
+            log.warn("重建锁已丢失，仍写入本次结果, key: {}", cacheKey);
+        }
+        return write(cacheKey, newFeed(data, ttlSeconds, softTtlSeconds), resolveTtl(ttlSeconds));
+    }
+
+    /**
+     * 释放重建锁，未写入缓存时主动唤醒本节点和其他节点的等待者
+     */
+    private void releaseLease(String cacheKey, LockLease lease, boolean stored) {
+        lease.close();
+        if (!stored) {
+            fillNotifier.notifyFilled(cacheKey);
+            messagePublisher.publishLockReleased(cacheKey);
+        }
+    }
+
+    @Override
+    public boolean refresh(String siteId, Map<String, String> params, Long ttlSeconds, Long softTtlSeconds,
+                           FeedLoader loader) {
+        String cacheKey = buildCacheKey(siteId, params);
+        String lockKey = buildLockKey(siteId, params);
+        LockLease lease;
+        try {
+            lease = lockService.tryLock(lockKey);
+        } catch (Exception e) {
+            log.error("获取锁失败, lockKey: {}", lockKey, e);
+            return false;
+        }
+        if (lease == null) {
+            log.debug("其他节点正在刷新缓存, lockKey: {}", lockKey);
+            return false;
+        }
+
+        try (lease) {
+            CachedFeed previous = readEntry(cacheKey);
+            try {
+                LoadedFeed data = loader.load(previous);
+                if (data != null) {
+                    write(cacheKey, newFeed(data, ttlSeconds, softTtlSeconds), resolveTtl(ttlSeconds));
+                }
+            } catch (FeedNotModifiedException e) {
+                if (previous == null) {
+                    throw new RssGenerationException("上游内容未修改但缓存已不存在, key: " + cacheKey, e);
+                }
+                rearm(cacheKey, previous, ttlSeconds, softTtlSeconds);
+            }
+            return true;
         }
     }
 
     /**
      * 构建缓存Key
-     * 格式: rssNest:cache:{siteId}:{paramsHash}
+     * 格式: rssNest:cache:{siteId}:g{generation}:{paramsHash}
      */
     private String buildCacheKey(String siteId, Map<String, String> params) {
         String paramsStr = buildParamsString(params);
         String hash = DigestUtils.md5DigestAsHex(paramsStr.getBytes(StandardCharsets.UTF_8));
-        return CACHE_PREFIX + siteId + ":" + hash;
+        return CACHE_PREFIX + siteId + ":g" + generations.current(siteId) + ":" + hash;
     }
 
     /**
@@ -188,29 +655,4 @@ public class RssCacheServiceImpl implements RssCacheService {
                 .reduce((a, b) -> a + "&" + b)
                 .orElse("");
     }
-
-    /**
-     * 尝试获取锁
-     */
-    private boolean tryLock(String lockKey) {
-        try {
-            Boolean result = redisTemplate.opsForValue()
-                    .setIfAbsent(lockKey, "1", LOCK_TIMEOUT, TimeUnit.SECONDS);
-            return result != null && result;
-        } catch (Exception e) {
-            log.error("获取锁失败, lockKey: {}", lockKey, e);
-            return false;
-        }
-    }
-
-    /**
-     * 释放锁
-     */
-    private void releaseLock(String lockKey) {
-        try {
-            redisTemplate.delete(lockKey);
-        } catch (Exception e) {
-            log.error("释放锁失败, lockKey: {}", lockKey, e);
-        }
-    }
 }
@@ -0,0 +1,108 @@
+package com.rss.nest.core.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RSS缓存命中统计
+ * 分别统计L1（进程内）与L2（Redis）的命中率，并通过Micrometer导出
+ */
+@Component
+public class RssCacheStats {
+
+    private static final String METRIC_GETS = "rss.cache.gets";
+
+    private static final String METRIC_HIT_RATIO = "rss.cache.hit.ratio";
+
+    private final LocalRssCache localCache;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public RssCacheStats(MeterRegistry meterRegistry, LocalRssCache localCache) {
+        this.localCache = localCache;
+        this.l1Hits = counter(meterRegistry, "l1", "hit");
+        this.l1Misses = counter(meterRegistry, "l1", "miss");
+        this.l2Hits = counter(meterRegistry, "l2", "hit");
+        this.l2Misses = counter(meterRegistry, "l2", "miss");
+
+        Gauge.builder(METRIC_HIT_RATIO, this, RssCacheStats::l1HitRatio)
+                .tag("level", "l1")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_HIT_RATIO, this, RssCacheStats::l2HitRatio)
+                .tag("level", "l2")
+                .register(meterRegistry);
+        Gauge.builder("rss.cache.l1.size", localCache, LocalRssCache::size)
+                .register(meterRegistry);
+        Gauge.builder("rss.cache.l1.weight", localCache, LocalRssCache::weightedSize)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void recordL1Hit() {
+        l1Hits.increment();
+    }
+
+    public void recordL1Miss() {
+        l1Misses.increment();
+    }
+
+    public void recordL2Hit() {
+        l2Hits.increment();
+    }
+
+    public void recordL2Miss() {
+        l2Misses.increment();
+    }
+
+    /**
+     * L1命中率（L1命中次数 / 总读取次数）
+     */
+    public double l1HitRatio() {
+        return ratio(l1Hits.count(), l1Misses.count());
+    }
+
+    /**
+     * L2命中率（L2命中次数 / L1未命中后访问Redis的次数）
+     */
+    public double l2HitRatio() {
+        return ratio(l2Hits.count(), l2Misses.count());
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @return 统计数据
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("l1Hits", (long) l1Hits.count());
+        stats.put("l1Misses", (long) l1Misses.count());
+        stats.put("l1HitRatio", l1HitRatio());
+        stats.put("l1Size", localCache.size());
+        stats.put("l1WeightBytes", localCache.weightedSize());
+        stats.put("l2Hits", (long) l2Hits.count());
+        stats.put("l2Misses", (long) l2Misses.count());
+        stats.put("l2HitRatio", l2HitRatio());
+        return stats;
+    }
+
+    private static double ratio(double hits, double misses) {
+        double total = hits + misses;
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder(METRIC_GETS)
+                .tag("level", level)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.rss.nest.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 过期代数缓存清理
+ * 使用SCAN分批遍历缓存Key，删除代数低于网站当前代数的条目及旧格式条目；
+ * 这些条目已不会被读取，清理只是提前释放Redis内存
+ */
+@Slf4j
+@Component
+public class RssCacheSweeper {
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private CacheGenerations generations;
+
+    @Value("${rss-nest.cache.sweeper.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 每批SCAN/删除的Key数量
+     */
+    @Value("${rss-nest.cache.sweeper.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${rss-nest.cache.sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${rss-nest.cache.sweeper.interval-ms:600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int scanned = 0;
+        int deleted = 0;
+        Map<String, Long> currentGenerations = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RssCacheServiceImpl.CACHE_PREFIX + "*")
+                .count(batchSize)
+                .build();
+
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                scanned++;
+                if (isOrphan(key, siteId -> currentGenerations.computeIfAbsent(siteId, generations::current))) {
+                    batch.add(key);
+                }
+                if (batch.size() >= batchSize) {
+                    deleted += unlink(batch);
+                }
+            }
+            deleted += unlink(batch);
+        } catch (Exception e) {
+            log.error("清理过期代数缓存失败, 已扫描: {}, 已删除: {}", scanned, deleted, e);
+            return;
+        }
+
+        if (deleted > 0) {
+            log.info("清理过期代数缓存完成, 扫描: {}, 删除: {}, 耗时: {}ms",
+                    scanned, deleted, System.currentTimeMillis() - start);
+        }
+    }
+
+    private int unlink(List<String> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Long count = redisTemplate.unlink(batch);
+        batch.clear();
+        return count != null ? count.intValue() : 0;
+    }
+
+    /**
+     * 判断缓存Key是否已失效
+     * Key格式: rssNest:cache:{siteId}:g{generation}:{paramsHash}，不含代数的旧格式Key视为失效
+     *
+     * @param key               缓存Key
+     * @param currentGeneration 网站当前代数
+     */
+    static boolean isOrphan(String key, ToLongFunction<String> currentGeneration) {
+        if (!key.startsWith(RssCacheServiceImpl.CACHE_PREFIX)) {
+            return false;
+        }
+        String rest = key.substring(RssCacheServiceImpl.CACHE_PREFIX.length());
+        int hashIndex = rest.lastIndexOf(':');
+        if (hashIndex <= 0) {
+            return true;
+        }
+        int generationIndex = rest.lastIndexOf(':', hashIndex - 1);
+        if (generationIndex <= 0 || rest.charAt(generationIndex + 1) != 'g') {
+            return true;
+        }
+        long generation;
+        try {
+            generation = Long.parseLong(rest.substring(generationIndex + 2, hashIndex));
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        return generation < currentGeneration.applyAsLong(rest.substring(0, generationIndex));
+    }
+}
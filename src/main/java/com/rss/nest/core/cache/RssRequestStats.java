@@ -0,0 +1,86 @@
+package com.rss.nest.core.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RSS请求分道统计
+ * 按命中（hit）与未命中（miss）分别统计请求耗时，导出为 rss.request{lane, mode}，mode区分同步与异步接口；
+ * 同时导出生成线程池的活跃线程数、队列长度以及进行中的未命中请求数，
+ * 用于观察未命中请求激增时命中请求的耗时是否受影响
+ */
+@Component
+public class RssRequestStats {
+
+    private static final String METRIC_REQUEST = "rss.request";
+
+    private final Timer syncHits;
+    private final Timer syncMisses;
+    private final Timer asyncHits;
+    private final Timer asyncMisses;
+
+    /**
+     * 进行中的未命中请求数
+     */
+    private final AtomicInteger missesInFlight = new AtomicInteger();
+
+    public RssRequestStats(MeterRegistry meterRegistry,
+                           @Qualifier("rssGenerationExecutor") ThreadPoolTaskExecutor generationExecutor) {
+        this.syncHits = timer(meterRegistry, "hit", "sync");
+        this.syncMisses = timer(meterRegistry, "miss", "sync");
+        this.asyncHits = timer(meterRegistry, "hit", "async");
+        this.asyncMisses = timer(meterRegistry, "miss", "async");
+
+        Gauge.builder("rss.request.inflight", missesInFlight, AtomicInteger::get)
+                .tag("lane", "miss")
+                .register(meterRegistry);
+        Gauge.builder("rss.generation.executor.active", generationExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("rss.generation.executor.queued", generationExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录命中请求
+     *
+     * @param async        是否为异步接口
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void recordHit(boolean async, long elapsedNanos) {
+        (async ? asyncHits : syncHits).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 开始处理未命中请求
+     */
+    public void missStarted() {
+        missesInFlight.incrementAndGet();
+    }
+
+    /**
+     * 记录未命中请求（包括生成失败）
+     *
+     * @param async        是否为异步接口
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void recordMiss(boolean async, long elapsedNanos) {
+        missesInFlight.decrementAndGet();
+        (async ? asyncMisses : syncMisses).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String lane, String mode) {
+        return Timer.builder(METRIC_REQUEST)
+                .tag("lane", lane)
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.rss.nest.core.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进程内请求合并（single-flight）
+ * 同一Key的并发调用只有第一个会真正执行，其余调用共享同一个进行中的结果（包括异常）
+ *
+ * @param <T> 结果类型
+ */
+public class SingleFlight<T> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 被合并（未实际执行）的调用次数
+     */
+    private final LongAdder sharedCount = new LongAdder();
+
+    /**
+     * 执行或加入进行中的调用
+     *
+     * @param key      合并Key
+     * @param supplier 实际执行的逻辑
+     * @return 执行结果
+     */
+    public T execute(String key, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            sharedCount.increment();
+            return await(existing);
+        }
+
+        try {
+            T value = supplier.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 异步执行或加入进行中的调用，等待期间不占用线程
+     * 与{@link #execute(String, Supplier)}共享进行中的调用；返回的Future是独立副本，取消它不影响其他调用方
+     *
+     * @param key      合并Key
+     * @param supplier 启动实际执行的逻辑
+     * @return 执行结果
+     */
+    public CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            sharedCount.increment();
+            return existing.copy();
+        }
+
+        CompletableFuture<T> started;
+        try {
+            started = supplier.get();
+        } catch (RuntimeException | Error e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, future);
+            if (error != null) {
+                future.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future.copy();
+    }
+
+    /**
+     * 当前进行中的调用数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 被合并的调用总数
+     */
+    public long sharedCount() {
+        return sharedCount.sum();
+    }
+
+    private T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
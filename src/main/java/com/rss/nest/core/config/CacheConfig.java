@@ -13,6 +13,23 @@ public class CacheConfig {
      */
     private Long ttl = 10800L; // 默认3小时
 
+    /**
+     * 软过期时长（秒）
+     * 超过后仍返回旧内容，同时由后台任务重新生成（stale-while-revalidate）
+     * 为null或不小于ttl时不启用
+     */
+    private Long softTtl;
+
+    /**
+     * 提前刷新窗口占新鲜期的比例（如0.1表示在新鲜期最后10%内触发）
+     */
+    private Double refreshAheadRatio = 0.1;
+
+    /**
+     * 触发提前刷新所需的最少读取次数（当前节点），为0表示不启用提前刷新
+     */
+    private Integer refreshAheadMinHits = 10;
+
     /**
      * 是否启用缓存
      */
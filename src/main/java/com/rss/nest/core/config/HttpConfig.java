@@ -0,0 +1,69 @@
+package com.rss.nest.core.config;
+
+import lombok.Data;
+
+/**
+ * HTTP客户端配置类
+ * 每个网站使用独立的OkHttpClient（共享基础客户端的线程池），连接池与超时互不影响
+ */
+@Data
+public class HttpConfig {
+
+    /**
+     * 连接超时时间（毫秒）
+     */
+    private Long connectTimeoutMs = 10000L;
+
+    /**
+     * 读取超时时间（毫秒）
+     */
+    private Long readTimeoutMs = 30000L;
+
+    /**
+     * 对该网站的最大连接数
+     * 同时作为连接池的最大空闲连接数与异步请求的单Host并发上限；同步请求的并发由舱壁限制
+     */
+    private Integer maxConnectionsPerHost = 5;
+
+    /**
+     * 空闲连接保持时间（秒）
+     */
+    private Long keepAliveSeconds = 300L;
+
+    /**
+     * 是否优先使用HTTP/2（需上游支持ALPN，否则自动回退HTTP/1.1）
+     */
+    private Boolean preferHttp2 = true;
+
+    /**
+     * 启动时是否预先建立到baseUrl的连接（完成DNS解析与TLS握手）
+     */
+    private Boolean prewarm = true;
+
+    /**
+     * 最大重试次数（仅GET；网络错误、5xx、429时重试），默认为0即不重试
+     * 重试会放大上游负载，只对确认需要的网站单独开启
+     */
+    private Integer maxRetries = 0;
+
+    /**
+     * 首次重试前的等待时间（毫秒），之后按2的幂增长，带±50%抖动
+     */
+    private Long retryBackoffMs = 200L;
+
+    /**
+     * 是否启用对冲请求：超过该网站近期P95耗时仍未返回时再发一个相同请求，取先返回的结果
+     */
+    private Boolean hedge = false;
+
+    /**
+     * 对冲请求的最小等待时间（毫秒）
+     */
+    private Long hedgeMinDelayMs = 1000L;
+
+    /**
+     * 重试预算比例（0~1）：重试与对冲的总次数不超过原始请求数的该比例，保证上游负载最多翻倍
+     * 仅在开启重试或对冲时生效
+     */
+    private Double retryBudgetRatio = 0.5;
+}
@@ -85,4 +85,11 @@ public class ParseConfig {
      * URL前缀（用于拼接相对路径）
      */
     private String urlPrefix;
+
+    /**
+     * 是否流式解析：边下载边提取，达到RssConfig.itemsPerPage条后停止读取
+     * 开启后不调用extractArticles，子类自定义的提取逻辑不生效；
+     * 内容哈希按提取出的文章计算，上游不支持条件请求时未变化的页面仍要解析提取（非流式解析在解析前按响应体哈希跳过解析）
+     */
+    private Boolean streaming = false;
 }
@@ -0,0 +1,31 @@
+package com.rss.nest.core.config;
+
+import lombok.Data;
+
+/**
+ * 上游限流配置类
+ * 集群内所有节点共享同一预算（Redis令牌桶），速率为null或不大于0时不限制
+ */
+@Data
+public class RateLimitConfig {
+
+    /**
+     * 网站级速率（每秒请求数）
+     */
+    private Double siteRatePerSecond;
+
+    /**
+     * 网站级突发容量（令牌桶大小），为null时取速率向上取整
+     */
+    private Integer siteBurst;
+
+    /**
+     * Host级速率（每秒请求数），同一Host的预算由所有访问它的网站共享
+     */
+    private Double hostRatePerSecond;
+
+    /**
+     * Host级突发容量（令牌桶大小），为null时取速率向上取整
+     */
+    private Integer hostBurst;
+}
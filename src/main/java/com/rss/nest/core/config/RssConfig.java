@@ -50,6 +50,8 @@ public class RssConfig {
 
     /**
      * 是否包含图片（默认true）
+     * <p>
+     * RSS条目当前不输出图片，该配置不影响输出，解析时也不提取图片
      */
     private Boolean includeImage = true;
 }
@@ -30,6 +30,16 @@ public class SiteConfig {
      */
     private Map<String, String> headers;
 
+    /**
+     * HTTP客户端配置（超时、连接数、HTTP/2），为null时使用默认值
+     */
+    private HttpConfig httpConfig;
+
+    /**
+     * 上游限流配置（集群内按网站、按Host的请求速率），为null时不限流
+     */
+    private RateLimitConfig rateLimitConfig;
+
     /**
      * HTML解析配置
      */
@@ -0,0 +1,18 @@
+package com.rss.nest.core.exception;
+
+/**
+ * 上游内容未修改
+ * 条件抓取返回304时由Provider抛出，缓存层捕获后直接延长已有缓存的有效期，不再解析和生成XML。
+ * 属于正常流程，不记录堆栈
+ */
+public class FeedNotModifiedException extends RssException {
+
+    public FeedNotModifiedException(String message) {
+        super("UPSTREAM_NOT_MODIFIED", message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
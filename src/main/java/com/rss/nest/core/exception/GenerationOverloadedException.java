@@ -0,0 +1,28 @@
+package com.rss.nest.core.exception;
+
+/**
+ * RSS生成过载异常
+ * 同时进行的生成任务达到并发上限且等待队列已满（或等待超时）时抛出，调用方可返回过期内容或直接返回503。
+ * 属于正常的限流结果，不记录堆栈
+ */
+public class GenerationOverloadedException extends RssException {
+
+    /**
+     * 建议客户端重试的等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public GenerationOverloadedException(String message, long retryAfterSeconds) {
+        super("GENERATION_OVERLOADED", message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
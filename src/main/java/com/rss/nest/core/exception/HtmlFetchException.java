@@ -12,4 +12,8 @@ public class HtmlFetchException extends RssException {
     public HtmlFetchException(String message, Throwable cause) {
         super("HTML_FETCH_FAILED", message, cause);
     }
+
+    protected HtmlFetchException(String errorCode, String message, Throwable cause) {
+        super(errorCode, message, cause);
+    }
 }
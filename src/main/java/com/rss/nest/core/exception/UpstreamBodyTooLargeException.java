@@ -0,0 +1,21 @@
+package com.rss.nest.core.exception;
+
+/**
+ * 上游响应体超过允许的最大字节数
+ */
+public class UpstreamBodyTooLargeException extends HtmlFetchException {
+
+    /**
+     * 允许的最大字节数
+     */
+    private final long maxBytes;
+
+    public UpstreamBodyTooLargeException(String message, long maxBytes, Throwable cause) {
+        super("UPSTREAM_BODY_TOO_LARGE", message, cause);
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
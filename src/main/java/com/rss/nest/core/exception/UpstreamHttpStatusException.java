@@ -0,0 +1,21 @@
+package com.rss.nest.core.exception;
+
+/**
+ * 上游返回非2xx（且非304）响应
+ */
+public class UpstreamHttpStatusException extends HtmlFetchException {
+
+    /**
+     * 上游HTTP状态码
+     */
+    private final int statusCode;
+
+    public UpstreamHttpStatusException(String message, int statusCode, Throwable cause) {
+        super("UPSTREAM_HTTP_STATUS", message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,22 @@
+package com.rss.nest.core.exception;
+
+/**
+ * 上游网站暂不可用异常
+ * 网站或URL近期连续失败、处于退避期内时直接抛出，不再发起请求
+ */
+public class UpstreamUnavailableException extends RssException {
+
+    /**
+     * 建议客户端重试的等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super("UPSTREAM_UNAVAILABLE", message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -3,6 +3,7 @@ package com.rss.nest.core.handler;
 import com.rss.nest.core.exception.*;
 import com.rss.nest.core.response.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -57,6 +58,48 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(error);
     }
 
+    /**
+     * 处理上游退避异常
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(
+            UpstreamUnavailableException ex, WebRequest request) {
+        log.warn("上游暂不可用: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                ex.getErrorCode(),
+                "目标网站暂不可用",
+                ex.getMessage()
+        );
+        error.setPath(getRequestPath(request));
+        error.setTimestamp(LocalDateTime.now());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * 处理生成过载异常
+     */
+    @ExceptionHandler(GenerationOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleGenerationOverloaded(
+            GenerationOverloadedException ex, WebRequest request) {
+        log.warn("RSS生成过载: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                ex.getErrorCode(),
+                "服务繁忙，请稍后重试",
+                ex.getMessage()
+        );
+        error.setPath(getRequestPath(request));
+        error.setTimestamp(LocalDateTime.now());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     /**
      * 处理HTML解析异常
      */
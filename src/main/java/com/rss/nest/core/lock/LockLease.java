@@ -0,0 +1,83 @@
+package com.rss.nest.core.lock;
+
+import lombok.Getter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 已获取的分布式锁
+ * 持有期间由看门狗定期续期，使用try-with-resources或{@link #close()}释放
+ */
+public class LockLease implements AutoCloseable {
+
+    /**
+     * 锁Key
+     */
+    @Getter
+    private final String key;
+
+    /**
+     * 持有者令牌，释放和续期时用于校验所有权
+     */
+    @Getter
+    private final String token;
+
+    /**
+     * 获取时间（纳秒）
+     */
+    @Getter
+    private final long acquiredAtNanos;
+
+    private final RedisLockService lockService;
+
+    private final AtomicBoolean lost = new AtomicBoolean();
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private volatile ScheduledFuture<?> renewal;
+
+    LockLease(String key, String token, RedisLockService lockService) {
+        this.key = key;
+        this.token = token;
+        this.lockService = lockService;
+        this.acquiredAtNanos = System.nanoTime();
+    }
+
+    /**
+     * 是否仍持有锁（续期失败后返回false，此时其他节点可能已获取该锁）
+     */
+    public boolean isHeld() {
+        return !lost.get() && !released.get();
+    }
+
+    void setRenewal(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+
+    void cancelRenewal() {
+        ScheduledFuture<?> future = renewal;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 标记锁已丢失
+     *
+     * @return 是否首次标记
+     */
+    boolean markLost() {
+        return lost.compareAndSet(false, true);
+    }
+
+    /**
+     * 释放锁（只删除自己持有的锁，可重复调用）
+     */
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            lockService.release(this);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.rss.nest.core.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的分布式锁
+ * 每次加锁使用唯一令牌，释放与续期都通过Lua脚本校验令牌，不会误删其他节点的锁；
+ * 持有期间由看门狗按租期的1/3定期续期，超过最长持有时间后停止续期，由租期兜底释放
+ * <p>
+ * 指标:
+ * <ul>
+ *     <li>rss.lock.acquire{result=acquired|busy} 加锁结果</li>
+ *     <li>rss.lock.lost 续期或释放时发现锁已不属于自己</li>
+ *     <li>rss.lock.held 锁持有时长</li>
+ *     <li>rss.lock.wait 未抢到锁时等待其他节点的时长</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RedisLockService {
+
+    /**
+     * 令牌一致时删除
+     */
+    private static final String UNLOCK_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    /**
+     * 令牌一致时续期
+     */
+    private static final String RENEW_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final DefaultRedisScript<Long> unlockScript = new DefaultRedisScript<>(UNLOCK_SCRIPT, Long.class);
+
+    private final DefaultRedisScript<Long> renewScript = new DefaultRedisScript<>(RENEW_SCRIPT, Long.class);
+
+    private final ScheduledExecutorService watchdog;
+
+    private final long leaseMillis;
+
+    private final long maxHoldMillis;
+
+    private final Counter acquired;
+    private final Counter busy;
+    private final Counter lost;
+    private final Timer held;
+    private final Timer waited;
+
+    public RedisLockService(@Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${rss-nest.lock.lease-seconds:30}") long leaseSeconds,
+                            @Value("${rss-nest.lock.max-hold-seconds:300}") long maxHoldSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.leaseMillis = TimeUnit.SECONDS.toMillis(leaseSeconds);
+        this.maxHoldMillis = TimeUnit.SECONDS.toMillis(maxHoldSeconds);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rss-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.acquired = Counter.builder("rss.lock.acquire").tag("result", "acquired").register(meterRegistry);
+        this.busy = Counter.builder("rss.lock.acquire").tag("result", "busy").register(meterRegistry);
+        this.lost = Counter.builder("rss.lock.lost").register(meterRegistry);
+        this.held = Timer.builder("rss.lock.held").register(meterRegistry);
+        this.waited = Timer.builder("rss.lock.wait").register(meterRegistry);
+    }
+
+    /**
+     * 尝试获取锁（不等待）
+     *
+     * @param key 锁Key
+     * @return 获取成功返回锁，已被其他持有者占用返回null；Redis不可用时抛出异常
+     */
+    public LockLease tryLock(String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean result = redisTemplate.opsForValue().setIfAbsent(key, token, leaseMillis, TimeUnit.MILLISECONDS);
+        if (!Boolean.TRUE.equals(result)) {
+            busy.increment();
+            return null;
+        }
+        acquired.increment();
+
+        LockLease lease = new LockLease(key, token, this);
+        long period = Math.max(leaseMillis / 3, 1L);
+        lease.setRenewal(watchdog.scheduleAtFixedRate(() -> renew(lease), period, period, TimeUnit.MILLISECONDS));
+        return lease;
+    }
+
+    /**
+     * 记录未抢到锁时等待其他节点的时长
+     *
+     * @param nanos 等待时长（纳秒）
+     */
+    public void recordWait(long nanos) {
+        waited.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 看门狗续期
+     */
+    private void renew(LockLease lease) {
+        if (!lease.isHeld()) {
+            lease.cancelRenewal();
+            return;
+        }
+        if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lease.getAcquiredAtNanos()) > maxHoldMillis) {
+            log.warn("锁持有时间超过上限，停止续期, key: {}", lease.getKey());
+            lease.cancelRenewal();
+            return;
+        }
+        try {
+            Long result = redisTemplate.execute(renewScript, Collections.singletonList(lease.getKey()),
+                    lease.getToken(), String.valueOf(leaseMillis));
+            if (result == null || result == 0L) {
+                onLost(lease, "续期");
+            }
+        } catch (Exception e) {
+            // 续期失败时保留任务，租期内仍有机会重试
+            log.warn("锁续期失败, key: {}, 错误: {}", lease.getKey(), e.getMessage());
+        }
+    }
+
+    /**
+     * 释放锁
+     */
+    void release(LockLease lease) {
+        lease.cancelRenewal();
+        held.record(System.nanoTime() - lease.getAcquiredAtNanos(), TimeUnit.NANOSECONDS);
+        try {
+            Long result = redisTemplate.execute(unlockScript, Collections.singletonList(lease.getKey()), lease.getToken());
+            if (result == null || result == 0L) {
+                onLost(lease, "释放");
+            }
+        } catch (Exception e) {
+            log.error("释放锁失败, key: {}", lease.getKey(), e);
+        }
+    }
+
+    private void onLost(LockLease lease, String action) {
+        lease.cancelRenewal();
+        if (lease.markLost()) {
+            lost.increment();
+            log.warn("{}时发现锁已不属于当前持有者, key: {}", action, lease.getKey());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+}
@@ -1,5 +1,7 @@
 package com.rss.nest.core.parser;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.rss.nest.core.config.ParseConfig;
 import com.rss.nest.core.exception.HtmlParseException;
 import com.rss.nest.models.webhtml.WebDataArticleDTO;
@@ -7,10 +9,14 @@ import com.rss.nest.utils.date.DateParseUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -18,18 +24,36 @@ import java.util.List;
 /**
  * 可配置的HTML解析器
  * 基于CSS选择器配置进行HTML解析
+ * <p>
+ * 每个ParseConfig首次使用时编译为{@link SelectorPlan}并缓存（按配置对象弱引用），
+ * 配置内容被修改后下次解析时重新编译；每个列表项的全部字段在一次子树遍历中完成匹配。
+ * 输出不需要的字段（{@link OutputFields}）不匹配、不计算
  */
 @Slf4j
 @Component
 public class ConfigurableHtmlParser implements HtmlParser {
 
+    /**
+     * key: 解析配置（按对象标识），value: 编译后的选择器计划
+     */
+    private final Cache<ParseConfig, SelectorPlan> plans = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
     @Override
     public List<WebDataArticleDTO> parse(Document document, ParseConfig config) {
+        return parse(document, config, OutputFields.ALL);
+    }
+
+    @Override
+    public List<WebDataArticleDTO> parse(Document document, ParseConfig config, OutputFields outputFields) {
         List<WebDataArticleDTO> articles = new ArrayList<>();
 
         try {
+            SelectorPlan plan = getPlan(config).project(outputFields);
+
             // 1. 选择列表容器
-            Elements elements = document.select(config.getListSelector());
+            Elements elements = document.select(plan.getList());
             if (elements.isEmpty()) {
                 log.warn("未找到匹配的元素, 选择器: {}", config.getListSelector());
                 return articles;
@@ -38,9 +62,55 @@ public class ConfigurableHtmlParser implements HtmlParser {
             log.debug("找到 {} 个元素", elements.size());
 
             // 2. 遍历每个元素
-            for (Element element : elements) {
+            try {
+                for (Element element : elements) {
+                    try {
+                        WebDataArticleDTO article = parseElement(element, plan);
+                        if (article != null && isValidArticle(article)) {
+                            articles.add(article);
+                        }
+                    } catch (Exception e) {
+                        log.warn("解析单个元素失败: {}", e.getMessage());
+                        // 继续处理下一个元素
+                    }
+                }
+            } finally {
+                plan.release();
+            }
+
+            log.info("成功解析 {} 条数据", articles.size());
+            return articles;
+
+        } catch (Exception e) {
+            log.error("HTML解析失败", e);
+            throw new HtmlParseException("HTML解析失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 流式解析：列表项在闭合标签读到后立即提取并从文档树中移除，得到maxItems条后停止读取，
+     * 内存占用与页面大小无关，剩余内容不再解析（由调用方决定是否继续下载）
+     */
+    @Override
+    public List<WebDataArticleDTO> parseStream(Reader reader, String baseUri, ParseConfig config, int maxItems,
+                                               OutputFields outputFields) throws IOException {
+        List<WebDataArticleDTO> articles = new ArrayList<>();
+        SelectorPlan plan;
+        try {
+            plan = getPlan(config).project(outputFields);
+        } catch (Exception e) {
+            log.error("HTML解析失败", e);
+            throw new HtmlParseException("HTML解析失败: " + e.getMessage(), e);
+        }
+
+        int matched = 0;
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(reader, baseUri)) {
+            Element element;
+            while ((maxItems <= 0 || articles.size() < maxItems)
+                    && (element = streamer.selectNext(plan.getList())) != null) {
+                matched++;
                 try {
-                    WebDataArticleDTO article = parseElement(element, config);
+                    WebDataArticleDTO article = parseElement(element, plan);
                     if (article != null && isValidArticle(article)) {
                         articles.add(article);
                     }
@@ -48,25 +118,46 @@ public class ConfigurableHtmlParser implements HtmlParser {
                     log.warn("解析单个元素失败: {}", e.getMessage());
                     // 继续处理下一个元素
                 }
+                // 已提取的列表项不再需要
+                element.remove();
+            }
+            if (maxItems > 0 && articles.size() >= maxItems) {
+                streamer.stop();
             }
+        } finally {
+            plan.release();
+        }
 
-            log.info("成功解析 {} 条数据", articles.size());
-            return articles;
+        if (matched == 0) {
+            log.warn("未找到匹配的元素, 选择器: {}", config.getListSelector());
+        }
+        log.info("流式解析 {} 条数据, 上限: {}", articles.size(), maxItems);
+        return articles;
+    }
 
-        } catch (Exception e) {
-            log.error("HTML解析失败", e);
-            throw new HtmlParseException("HTML解析失败: " + e.getMessage(), e);
+    /**
+     * 获取配置对应的选择器计划，未编译或配置已修改时重新编译
+     */
+    SelectorPlan getPlan(ParseConfig config) {
+        SelectorPlan plan = plans.getIfPresent(config);
+        if (plan == null || !plan.isCompiledFrom(config)) {
+            plan = SelectorPlan.compile(config);
+            plans.put(config, plan);
+            log.debug("已编译选择器计划, 列表选择器: {}", config.getListSelector());
         }
+        return plan;
     }
 
     /**
      * 解析单个元素
+     * 所有字段在一次子树遍历中匹配（见{@link SelectorPlan#matchFields}）
      */
-    private WebDataArticleDTO parseElement(Element element, ParseConfig config) {
+    private WebDataArticleDTO parseElement(Element element, SelectorPlan plan) {
         WebDataArticleDTO article = new WebDataArticleDTO();
+        Element[] matches = plan.matchFields(element);
 
         // 提取标题（必填）
-        String title = extractText(element, config.getTitleSelector());
+        String title = text(matches[SelectorPlan.TITLE]);
         if (!StringUtils.hasText(title)) {
             log.debug("标题为空，跳过该元素");
             return null;
@@ -74,145 +165,83 @@ public class ConfigurableHtmlParser implements HtmlParser {
         article.setTitle(title.trim());
 
         // 提取链接（必填）
-        String url = extractAttribute(element, config.getLinkSelector(), config.getLinkAttribute());
+        String url = attr(matches[SelectorPlan.LINK], plan.getLinkAttribute());
         if (!StringUtils.hasText(url)) {
             log.debug("链接为空，跳过该元素");
             return null;
         }
         // 处理相对路径
-        if (config.getNeedFullUrl() && !url.startsWith("http")) {
-            url = buildFullUrl(url, config.getUrlPrefix());
+        if (plan.isNeedFullUrl() && !url.startsWith("http")) {
+            url = buildFullUrl(url, plan.getUrlPrefix());
         }
         article.setUrl(url);
 
-        // 提取内容（可选）
-        if (StringUtils.hasText(config.getContentSelector())) {
-            String content = extractContent(element, config);
-            article.setContent(content);
+        // 提取内容（可选，支持HTML或纯文本；输出不包含内容时计划中没有该字段）
+        if (plan.getContent() != null) {
+            Element content = matches[SelectorPlan.CONTENT];
+            article.setContent(content == null ? null : plan.isContentHtml() ? content.html() : content.text());
         }
 
         // 提取日期（可选）
-        if (StringUtils.hasText(config.getDateSelector())) {
-            Date publishTime = extractDate(element, config);
+        if (plan.getDate() != null) {
+            Date publishTime = extractDate(text(matches[SelectorPlan.DATE]), plan);
             article.setPublishTime(publishTime);
         }
 
-        // 提取图片（可选）
-        if (StringUtils.hasText(config.getImageSelector())) {
-            String imageUrl = extractAttribute(element, config.getImageSelector(), config.getImageAttribute());
-            if (StringUtils.hasText(imageUrl) && config.getNeedFullUrl() && !imageUrl.startsWith("http")) {
-                imageUrl = buildFullUrl(imageUrl, config.getUrlPrefix());
+        // 提取图片（可选，输出不包含图片时计划中没有该字段）
+        if (plan.getImage() != null) {
+            String imageUrl = attr(matches[SelectorPlan.IMAGE], plan.getImageAttribute());
+            if (StringUtils.hasText(imageUrl) && plan.isNeedFullUrl() && !imageUrl.startsWith("http")) {
+                imageUrl = buildFullUrl(imageUrl, plan.getUrlPrefix());
             }
             article.setImageUrl(imageUrl);
         }
 
-        // 提取作者（可选）
-        if (StringUtils.hasText(config.getAuthorSelector())) {
-            String author = extractText(element, config.getAuthorSelector());
-            article.setAuthor(author);
+        // 提取作者（可选，以下字段只在需要元数据时在计划中）
+        if (plan.getAuthor() != null) {
+            article.setAuthor(text(matches[SelectorPlan.AUTHOR]));
         }
 
         // 提取分类（可选）
-        if (StringUtils.hasText(config.getCategorySelector())) {
-            String category = extractText(element, config.getCategorySelector());
-            article.setCategory(category);
+        if (plan.getCategory() != null) {
+            article.setCategory(text(matches[SelectorPlan.CATEGORY]));
         }
 
         // 提取自定义字段（可选）
-        if (config.getCustomSelectors() != null && !config.getCustomSelectors().isEmpty()) {
-            config.getCustomSelectors().forEach((key, selector) -> {
-                String value = extractText(element, selector);
-                article.addCustomField(key, value);
-            });
+        int index = SelectorPlan.CUSTOM_START;
+        for (String key : plan.getCustomFields().keySet()) {
+            article.addCustomField(key, text(matches[index++]));
         }
 
         return article;
     }
 
-    /**
-     * 提取文本内容
-     */
-    private String extractText(Element element, String selector) {
-        if (!StringUtils.hasText(selector)) {
-            return null;
-        }
-
-        try {
-            Elements selected = element.select(selector);
-            if (selected.isEmpty()) {
-                return null;
-            }
-            return selected.first().text();
-        } catch (Exception e) {
-            log.debug("提取文本失败, 选择器: {}, 错误: {}", selector, e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * 提取属性值
-     */
-    private String extractAttribute(Element element, String selector, String attribute) {
-        if (!StringUtils.hasText(selector)) {
-            return null;
-        }
-
-        try {
-            Elements selected = element.select(selector);
-            if (selected.isEmpty()) {
-                return null;
-            }
-            return selected.first().attr(attribute);
-        } catch (Exception e) {
-            log.debug("提取属性失败, 选择器: {}, 属性: {}, 错误: {}", selector, attribute, e.getMessage());
-            return null;
-        }
+    private static String text(Element element) {
+        return element != null ? element.text() : null;
     }
 
-    /**
-     * 提取内容（支持HTML或纯文本）
-     */
-    private String extractContent(Element element, ParseConfig config) {
-        if (!StringUtils.hasText(config.getContentSelector())) {
-            return null;
-        }
-
-        try {
-            Elements selected = element.select(config.getContentSelector());
-            if (selected.isEmpty()) {
-                return null;
-            }
-
-            if ("html".equalsIgnoreCase(config.getContentMode())) {
-                return selected.first().html();
-            } else {
-                return selected.first().text();
-            }
-        } catch (Exception e) {
-            log.debug("提取内容失败, 选择器: {}, 错误: {}", config.getContentSelector(), e.getMessage());
-            return null;
-        }
+    private static String attr(Element element, String attribute) {
+        return element != null ? element.attr(attribute) : null;
     }
 
     /**
-     * 提取日期
+     * 解析日期
      */
-    private Date extractDate(Element element, ParseConfig config) {
-        String dateStr = extractText(element, config.getDateSelector());
+    private Date extractDate(String dateStr, SelectorPlan plan) {
         if (!StringUtils.hasText(dateStr)) {
             return null;
         }
 
         try {
-            if (StringUtils.hasText(config.getDateFormat())) {
-                return DateParseUtil.parseDateStr(config.getDateFormat(), dateStr.trim());
+            if (StringUtils.hasText(plan.getDateFormat())) {
+                return DateParseUtil.parseDateStr(plan.getDateFormat(), dateStr.trim());
             } else {
-                // 尝试自动解析
-                return DateParseUtil.parseDate(dateStr.trim());
+                // 自动识别，按网站记住成功的格式
+                return plan.getDateParser().parse(dateStr);
             }
         } catch (Exception e) {
             log.debug("日期解析失败, 日期字符串: {}, 格式: {}, 错误: {}",
-                    dateStr, config.getDateFormat(), e.getMessage());
+                    dateStr, plan.getDateFormat(), e.getMessage());
             return null;
         }
     }
@@ -3,7 +3,11 @@ package com.rss.nest.core.parser;
 import com.rss.nest.core.config.ParseConfig;
 import com.rss.nest.models.webhtml.WebDataArticleDTO;
 import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,4 +23,49 @@ public interface HtmlParser {
      * @return 文章列表
      */
     List<WebDataArticleDTO> parse(Document document, ParseConfig parseConfig);
+
+    /**
+     * 解析HTML文档为文章列表，只提取输出需要的可选字段
+     * 默认实现忽略outputFields，提取全部字段
+     *
+     * @param document     Jsoup Document对象
+     * @param parseConfig  解析配置
+     * @param outputFields 输出需要的字段
+     * @return 文章列表
+     */
+    default List<WebDataArticleDTO> parse(Document document, ParseConfig parseConfig, OutputFields outputFields) {
+        return parse(document, parseConfig);
+    }
+
+    /**
+     * 从HTML流中解析文章列表，得到maxItems条后停止读取，提取全部字段
+     *
+     * @see #parseStream(Reader, String, ParseConfig, int, OutputFields)
+     */
+    default List<WebDataArticleDTO> parseStream(Reader reader, String baseUri, ParseConfig parseConfig, int maxItems)
+            throws IOException {
+        return parseStream(reader, baseUri, parseConfig, maxItems, OutputFields.ALL);
+    }
+
+    /**
+     * 从HTML流中解析文章列表，得到maxItems条后停止读取
+     * 默认实现先完整解析再截取，实现类可以边读边提取以减少内存与下载量
+     *
+     * @param reader       HTML内容
+     * @param baseUri      文档URL
+     * @param parseConfig  解析配置
+     * @param maxItems     最多提取的条数，不大于0表示不限制
+     * @param outputFields 输出需要的字段
+     * @return 文章列表
+     * @throws IOException 读取失败
+     */
+    default List<WebDataArticleDTO> parseStream(Reader reader, String baseUri, ParseConfig parseConfig, int maxItems,
+                                                OutputFields outputFields) throws IOException {
+        List<WebDataArticleDTO> articles = parse(Parser.htmlParser().parseInput(reader, baseUri), parseConfig,
+                outputFields);
+        if (maxItems > 0 && articles.size() > maxItems) {
+            return new ArrayList<>(articles.subList(0, maxItems));
+        }
+        return articles;
+    }
 }
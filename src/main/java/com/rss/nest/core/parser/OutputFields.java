@@ -0,0 +1,62 @@
+package com.rss.nest.core.parser;
+
+import com.rss.nest.core.config.RssConfig;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 解析时需要提取的可选字段
+ * <p>
+ * 标题、链接与发布时间总是提取；其余字段只在输出用到时匹配与计算，不需要的字段不参与匹配，
+ * 内容HTML不序列化、图片URL不拼接
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class OutputFields {
+
+    /**
+     * 全部字段（直接调用解析器、需要完整文章数据时使用）
+     */
+    public static final OutputFields ALL = new OutputFields(true, true, true);
+
+    /**
+     * 内容
+     */
+    private final boolean content;
+
+    /**
+     * 图片
+     */
+    private final boolean image;
+
+    /**
+     * 作者、分类与自定义字段
+     */
+    private final boolean metadata;
+
+    private OutputFields(boolean content, boolean image, boolean metadata) {
+        this.content = content;
+        this.image = image;
+        this.metadata = metadata;
+    }
+
+    public static OutputFields of(boolean content, boolean image, boolean metadata) {
+        return content && image && metadata ? ALL : new OutputFields(content, image, metadata);
+    }
+
+    /**
+     * 按RSS输出确定需要的字段
+     * <p>
+     * RSS条目只输出标题、链接、描述与发布时间（见HtmlDataConvertToRssUtil），描述在includeContent=false时使用标题；
+     * 图片、作者、分类与自定义字段不输出，因此从不提取，includeImage对输出与解析均无影响
+     *
+     * @param rssConfig RSS配置，可以为null
+     * @return 需要的字段
+     */
+    public static OutputFields of(RssConfig rssConfig) {
+        boolean content = rssConfig == null || !Boolean.FALSE.equals(rssConfig.getIncludeContent());
+        return of(content, false, false);
+    }
+}
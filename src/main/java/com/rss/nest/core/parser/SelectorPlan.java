@@ -0,0 +1,271 @@
+package com.rss.nest.core.parser;
+
+import com.rss.nest.core.config.ParseConfig;
+import com.rss.nest.utils.date.DateParser;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 预编译的选择器计划
+ * <p>
+ * 由ParseConfig一次性编译得到的不可变对象：各字段的CSS选择器预先解析为Jsoup Evaluator，
+ * 提取时不再为每个元素重复解析选择器字符串。
+ * 字段选择器无效时该字段视为未配置（与逐次解析时提取失败返回null一致），列表选择器无效时编译失败。
+ * 输出不需要的字段（{@link OutputFields}）使用{@link #project(OutputFields)}得到去掉对应字段的计划，遍历时不再匹配这些字段
+ */
+@Slf4j
+@Getter
+public final class SelectorPlan {
+
+    /**
+     * 字段在{@link #getFields()}中的下标，自定义字段从CUSTOM_START开始按配置顺序排列
+     */
+    public static final int TITLE = 0;
+
+    public static final int LINK = 1;
+
+    public static final int CONTENT = 2;
+
+    public static final int DATE = 3;
+
+    public static final int IMAGE = 4;
+
+    public static final int AUTHOR = 5;
+
+    public static final int CATEGORY = 6;
+
+    public static final int CUSTOM_START = 7;
+
+    /**
+     * 编译时的配置快照，用于判断配置是否已变化
+     */
+    @Getter(AccessLevel.NONE)
+    private final ParseConfig source;
+
+    private final Evaluator list;
+
+    private final Evaluator title;
+
+    private final Evaluator link;
+
+    private final String linkAttribute;
+
+    private final Evaluator content;
+
+    private final boolean contentHtml;
+
+    private final Evaluator date;
+
+    private final String dateFormat;
+
+    /**
+     * 未配置日期格式时使用的自动识别解析器，记住本网站成功的格式
+     */
+    private final DateParser dateParser;
+
+    private final Evaluator image;
+
+    private final String imageAttribute;
+
+    private final Evaluator author;
+
+    private final Evaluator category;
+
+    /**
+     * 自定义字段，保持配置中的顺序
+     */
+    private final Map<String, Evaluator> customFields;
+
+    /**
+     * 全部字段选择器（按下标排列，未配置的为null），用于单次遍历匹配
+     */
+    @Getter(AccessLevel.NONE)
+    private final Evaluator[] fields;
+
+    private final boolean needFullUrl;
+
+    private final String urlPrefix;
+
+    /**
+     * 按输出字段裁剪后的计划，下标为{@link #projectionIndex}，首次使用时创建
+     */
+    @Getter(AccessLevel.NONE)
+    private final SelectorPlan[] projections;
+
+    private SelectorPlan(ParseConfig config) {
+        this.source = copy(config);
+        this.list = QueryParser.parse(config.getListSelector());
+        this.title = compileField(config.getTitleSelector());
+        this.link = compileField(config.getLinkSelector());
+        this.linkAttribute = config.getLinkAttribute();
+        this.content = compileField(config.getContentSelector());
+        this.contentHtml = "html".equalsIgnoreCase(config.getContentMode());
+        this.date = compileField(config.getDateSelector());
+        this.dateFormat = config.getDateFormat();
+        this.dateParser = new DateParser();
+        this.image = compileField(config.getImageSelector());
+        this.imageAttribute = config.getImageAttribute();
+        this.author = compileField(config.getAuthorSelector());
+        this.category = compileField(config.getCategorySelector());
+        Map<String, Evaluator> custom = new LinkedHashMap<>();
+        if (config.getCustomSelectors() != null) {
+            config.getCustomSelectors().forEach((key, selector) -> custom.put(key, compileField(selector)));
+        }
+        this.customFields = Collections.unmodifiableMap(custom);
+        this.fields = new Evaluator[CUSTOM_START + custom.size()];
+        fields[TITLE] = title;
+        fields[LINK] = link;
+        fields[CONTENT] = content;
+        fields[DATE] = date;
+        fields[IMAGE] = image;
+        fields[AUTHOR] = author;
+        fields[CATEGORY] = category;
+        int index = CUSTOM_START;
+        for (Evaluator evaluator : custom.values()) {
+            fields[index++] = evaluator;
+        }
+        this.needFullUrl = Boolean.TRUE.equals(config.getNeedFullUrl());
+        this.urlPrefix = config.getUrlPrefix();
+        this.projections = new SelectorPlan[8];
+        projections[projectionIndex(OutputFields.ALL)] = this;
+    }
+
+    /**
+     * 裁剪计划：与原计划共享选择器与日期解析器，不需要的字段置为null
+     */
+    private SelectorPlan(SelectorPlan base, OutputFields outputFields) {
+        this.source = base.source;
+        this.list = base.list;
+        this.title = base.title;
+        this.link = base.link;
+        this.linkAttribute = base.linkAttribute;
+        this.content = outputFields.isContent() ? base.content : null;
+        this.contentHtml = base.contentHtml;
+        this.date = base.date;
+        this.dateFormat = base.dateFormat;
+        this.dateParser = base.dateParser;
+        this.image = outputFields.isImage() ? base.image : null;
+        this.imageAttribute = base.imageAttribute;
+        this.author = outputFields.isMetadata() ? base.author : null;
+        this.category = outputFields.isMetadata() ? base.category : null;
+        this.customFields = outputFields.isMetadata() ? base.customFields : Collections.emptyMap();
+        this.fields = outputFields.isMetadata()
+                ? base.fields.clone() : Arrays.copyOf(base.fields, CUSTOM_START);
+        fields[CONTENT] = content;
+        fields[IMAGE] = image;
+        fields[AUTHOR] = author;
+        fields[CATEGORY] = category;
+        this.needFullUrl = base.needFullUrl;
+        this.urlPrefix = base.urlPrefix;
+        this.projections = base.projections;
+    }
+
+    /**
+     * 编译解析配置
+     *
+     * @param config 解析配置
+     * @return 选择器计划
+     * @throws Selector.SelectorParseException 列表选择器无效
+     */
+    public static SelectorPlan compile(ParseConfig config) {
+        return new SelectorPlan(config);
+    }
+
+    /**
+     * 按输出需要的字段裁剪计划，结果在各裁剪计划之间共享缓存
+     *
+     * @param outputFields 输出需要的字段
+     * @return 裁剪后的计划，需要全部字段时返回原计划
+     */
+    public SelectorPlan project(OutputFields outputFields) {
+        int index = projectionIndex(outputFields);
+        SelectorPlan projection = projections[index];
+        if (projection == null) {
+            // 并发时可能重复创建，结果相同，不加锁
+            projection = new SelectorPlan(this, outputFields);
+            projections[index] = projection;
+        }
+        return projection;
+    }
+
+    private static int projectionIndex(OutputFields outputFields) {
+        return (outputFields.isContent() ? 1 : 0) | (outputFields.isImage() ? 2 : 0)
+                | (outputFields.isMetadata() ? 4 : 0);
+    }
+
+    /**
+     * 全部字段选择器的副本，下标见{@link #TITLE}等常量
+     */
+    public Evaluator[] getFields() {
+        return fields.clone();
+    }
+
+    /**
+     * 在列表项中单次遍历匹配全部字段
+     *
+     * @param item 列表项元素
+     * @return 与字段下标对应的第一个匹配元素，未匹配为null
+     */
+    public Element[] matchFields(Element item) {
+        return SinglePassExtractor.matchFirst(item, fields);
+    }
+
+    /**
+     * 一批列表项匹配结束后清理选择器的匹配缓存
+     */
+    public void release() {
+        SinglePassExtractor.reset(fields);
+    }
+
+    /**
+     * 是否由与当前内容相同的配置编译而来（配置被修改后需要重新编译）
+     */
+    public boolean isCompiledFrom(ParseConfig config) {
+        return source.equals(config);
+    }
+
+    private static Evaluator compileField(String selector) {
+        if (!StringUtils.hasText(selector)) {
+            return null;
+        }
+        try {
+            return QueryParser.parse(selector);
+        } catch (Selector.SelectorParseException e) {
+            log.warn("选择器无效，忽略该字段, 选择器: {}, 错误: {}", selector, e.getMessage());
+            return null;
+        }
+    }
+
+    private static ParseConfig copy(ParseConfig config) {
+        ParseConfig copy = new ParseConfig();
+        copy.setListSelector(config.getListSelector());
+        copy.setTitleSelector(config.getTitleSelector());
+        copy.setLinkSelector(config.getLinkSelector());
+        copy.setLinkAttribute(config.getLinkAttribute());
+        copy.setContentSelector(config.getContentSelector());
+        copy.setDateSelector(config.getDateSelector());
+        copy.setDateFormat(config.getDateFormat());
+        copy.setImageSelector(config.getImageSelector());
+        copy.setImageAttribute(config.getImageAttribute());
+        copy.setAuthorSelector(config.getAuthorSelector());
+        copy.setCategorySelector(config.getCategorySelector());
+        copy.setCustomSelectors(config.getCustomSelectors() != null
+                ? new LinkedHashMap<>(config.getCustomSelectors()) : null);
+        copy.setContentMode(config.getContentMode());
+        copy.setNeedFullUrl(config.getNeedFullUrl());
+        copy.setUrlPrefix(config.getUrlPrefix());
+        copy.setStreaming(config.getStreaming());
+        return copy;
+    }
+}
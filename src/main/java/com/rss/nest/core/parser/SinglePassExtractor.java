@@ -0,0 +1,83 @@
+package com.rss.nest.core.parser;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Collector;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+/**
+ * 单次遍历的多字段匹配
+ * <p>
+ * 对列表项子树做一次深度优先遍历，同时判断所有字段的选择器，每个字段记录文档顺序中的第一个匹配
+ * （与element.selectFirst的结果一致）；所有字段都已匹配时立即停止遍历。
+ * 字段数为N时，每个列表项只遍历一次子树，而不是N次
+ */
+final class SinglePassExtractor {
+
+    /**
+     * 用于清理选择器匹配缓存的空元素
+     */
+    private static final Element RESET_ROOT = new Element("div");
+
+    private SinglePassExtractor() {
+    }
+
+    /**
+     * 在root子树（含root本身）中查找每个选择器的第一个匹配
+     *
+     * @param root       列表项元素
+     * @param evaluators 字段选择器，为null的字段不匹配
+     * @return 与evaluators下标对应的匹配元素，未匹配为null
+     */
+    static Element[] matchFirst(Element root, Evaluator[] evaluators) {
+        Element[] matches = new Element[evaluators.length];
+        int pending = 0;
+        for (Evaluator evaluator : evaluators) {
+            if (evaluator != null) {
+                pending++;
+            }
+        }
+        if (pending == 0) {
+            return matches;
+        }
+
+        int[] remaining = {pending};
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (!(node instanceof Element)) {
+                    return FilterResult.CONTINUE;
+                }
+                Element element = (Element) node;
+                for (int i = 0; i < evaluators.length; i++) {
+                    if (matches[i] == null && evaluators[i] != null && evaluators[i].matches(root, element)) {
+                        matches[i] = element;
+                        remaining[0]--;
+                    }
+                }
+                return remaining[0] == 0 ? FilterResult.STOP : FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+        }, root);
+        return matches;
+    }
+
+    /**
+     * 清理选择器的匹配缓存
+     * Jsoup的结构选择器（后代、子元素等）按线程缓存中间匹配结果，通常在每次select前清理；
+     * 直接调用matches时需要在一批匹配结束后手动清理，避免缓存持有已解析完的文档
+     */
+    static void reset(Evaluator[] evaluators) {
+        for (Evaluator evaluator : evaluators) {
+            if (evaluator != null) {
+                Collector.findFirst(evaluator, RESET_ROOT);
+            }
+        }
+    }
+}
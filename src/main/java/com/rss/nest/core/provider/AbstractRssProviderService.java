@@ -1,23 +1,47 @@
 package com.rss.nest.core.provider;
 
 import com.rss.nest.core.config.SiteConfig;
+import com.rss.nest.core.exception.FeedNotModifiedException;
 import com.rss.nest.core.exception.HtmlFetchException;
 import com.rss.nest.core.exception.HtmlParseException;
 import com.rss.nest.core.exception.RssGenerationException;
+import com.rss.nest.core.exception.UpstreamBodyTooLargeException;
+import com.rss.nest.core.exception.UpstreamHttpStatusException;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
 import com.rss.nest.core.parser.HtmlParser;
+import com.rss.nest.core.parser.OutputFields;
+import com.rss.nest.core.resilience.UpstreamBackoff;
+import com.rss.nest.core.resilience.UpstreamGuard;
+import com.rss.nest.core.resilience.UpstreamRateLimiter;
 import com.rss.nest.models.rss.RssChannel;
 import com.rss.nest.models.webhtml.WebDataArticleDTO;
 import com.rss.nest.models.webhtml.WebHtmlDataDTO;
+import com.rss.nest.utils.hash.ContentHashUtil;
+import com.rss.nest.utils.http.BodyTooLargeException;
+import com.rss.nest.utils.http.HttpDocumentResult;
+import com.rss.nest.utils.http.HttpStatusException;
+import com.rss.nest.utils.http.HttpStreamResult;
 import com.rss.nest.utils.http.OkHttpClientUtil;
 import com.rss.nest.utils.web.HtmlDataConvertToRssUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Headers;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 /**
  * RSS提供者服务抽象基类
@@ -26,60 +50,248 @@ import java.util.Map;
 @Slf4j
 public abstract class AbstractRssProviderService implements RssProviderService {
 
+    /**
+     * 输出格式版本：提取或转换逻辑的修改会改变同一页面生成的RSS时加1，使已缓存内容的校验信息失效
+     */
+    protected static final int OUTPUT_FORMAT_VERSION = 1;
+
+    /**
+     * 程序版本（jar清单中的Implementation-Version，从源码运行时为null）
+     */
+    private static final String APPLICATION_VERSION =
+            AbstractRssProviderService.class.getPackage().getImplementationVersion();
+
     @Autowired
     protected OkHttpClientUtil okHttpClientUtil;
 
+    @Autowired
+    protected SiteHttpClients siteHttpClients;
+
     @Autowired
     protected HtmlParser htmlParser;
 
+    @Autowired
+    protected UpstreamBackoff upstreamBackoff;
+
+    @Autowired
+    protected UpstreamGuard upstreamGuard;
+
+    @Autowired
+    protected UpstreamRateLimiter rateLimiter;
+
+    @Autowired
+    protected UpstreamChangeStats changeStats;
+
+    @Autowired
+    @Qualifier("rssParseExecutor")
+    protected Executor parseExecutor;
+
+    /**
+     * 异步抓取的单次调用超时时间（毫秒）
+     */
+    @Value("${rss-nest.upstream.call-timeout-ms:30000}")
+    protected long callTimeoutMillis;
+
+    /**
+     * 上游响应体最大字节数，超过时中止读取并抛出UpstreamBodyTooLargeException
+     */
+    @Value("${rss-nest.upstream.max-body-bytes:10485760}")
+    protected long maxBodyBytes;
+
     /**
      * 网站配置（子类需要初始化）
      */
     protected SiteConfig siteConfig;
 
+    @Override
+    public RssChannel generateRss(Map<String, String> params) {
+        return generateRss(params, (UpstreamValidators) null).getChannel();
+    }
+
     /**
      * 模板方法：生成RSS的完整流程
      */
     @Override
-    public RssChannel generateRss(Map<String, String> params) {
+    public GeneratedRss generateRss(Map<String, String> params, UpstreamValidators previous) {
         try {
             log.info("开始生成RSS, 网站: {}, 参数: {}", getSiteIdentifier(), params);
 
-            // 1. 参数验证
-            if (!validateParams(params)) {
-                throw new IllegalArgumentException("参数验证失败: " + params);
+            // 1-2. 参数验证、构建URL
+            String url = prepareUrl(params);
+            UpstreamValidators reusable = reusable(previous);
+
+            if (isStreaming()) {
+                // 3-5. 边下载边提取，达到条数上限后停止读取
+                Fetched<List<WebDataArticleDTO>> articles = fetchArticles(url, reusable);
+                return new GeneratedRss(buildRss(articles.getValue(), params), articles.getValidators());
             }
 
-            // 2. 构建URL
-            String url = buildUrl(params);
-            log.debug("请求URL: {}", url);
+            // 3-4. 抓取并解析HTML（上游返回304或内容哈希未变化时抛出FeedNotModifiedException，不解析，跳过后续步骤）
+            Fetched<Document> document = fetchDocument(url, reusable);
 
-            // 3. 抓取HTML
-            String html = fetchHtml(url);
+            // 5-7. 提取、转换
+            return new GeneratedRss(buildRss(document.getValue(), params), document.getValidators());
+        } catch (Exception e) {
+            throw translateError(e);
+        }
+    }
 
-            // 4. 解析HTML为Document
-            Document document = parseHtmlToDocument(html);
+    /**
+     * 异步生成RSS
+     * 抓取通过OkHttp异步执行，等待网络期间不占用调用线程；HTML在OkHttp回调线程中读取并解析（内容哈希未变化时不解析），
+     * 提取与转换在rssParseExecutor中执行（流式解析时提取也在回调线程中完成）。
+     * 取消返回的Future会取消正在进行的HTTP请求
+     */
+    @Override
+    public CompletableFuture<GeneratedRss> generateRssAsync(Map<String, String> params, UpstreamValidators previous) {
+        String url;
+        UpstreamValidators reusable;
+        try {
+            log.info("开始异步生成RSS, 网站: {}, 参数: {}", getSiteIdentifier(), params);
+            url = prepareUrl(params);
+            reusable = reusable(previous);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(translateError(e));
+        }
 
-            // 5. 提取数据
-            List<WebDataArticleDTO> articles = extractArticles(document, params);
-            log.info("提取到 {} 条数据", articles.size());
+        CompletableFuture<?> fetch;
+        CompletableFuture<GeneratedRss> built;
+        if (isStreaming()) {
+            CompletableFuture<Fetched<List<WebDataArticleDTO>>> articles = fetchArticlesAsync(url, reusable);
+            fetch = articles;
+            built = articles.thenApplyAsync(fetched -> new GeneratedRss(buildRss(fetched.getValue(), params),
+                    fetched.getValidators()), parseExecutor);
+        } else {
+            CompletableFuture<Fetched<Document>> document = fetchDocumentAsync(url, reusable);
+            fetch = document;
+            built = document.thenApplyAsync(fetched -> new GeneratedRss(buildRss(fetched.getValue(), params),
+                    fetched.getValidators()), parseExecutor);
+        }
+        CompletableFuture<GeneratedRss> result = built
+                .handle((generated, error) -> {
+                    if (error == null) {
+                        return generated;
+                    }
+                    throw translateError(unwrap(error));
+                });
+        result.whenComplete((generated, error) -> {
+            if (result.isCancelled()) {
+                fetch.cancel(true);
+            }
+        });
+        return result;
+    }
 
-            // 6. 转换为通用数据格式
-            WebHtmlDataDTO webHtmlData = buildWebHtmlData(articles, params);
+    /**
+     * 按本次请求的URL预留网站与Host的限流预算，随后抓取同一URL时直接使用
+     * 参数无效时不预留，由生成流程报告错误
+     */
+    @Override
+    public void reserveUpstream(Map<String, String> params) {
+        String url = reserveUrl(params);
+        if (url != null) {
+            rateLimiter.reserve(getSiteIdentifier(), url, siteConfig.getRateLimitConfig());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> reserveUpstreamAsync(Map<String, String> params) {
+        String url = reserveUrl(params);
+        if (url == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return rateLimiter.reserveAsync(getSiteIdentifier(), url, siteConfig.getRateLimitConfig());
+    }
+
+    private String reserveUrl(Map<String, String> params) {
+        if (siteConfig.getRateLimitConfig() == null) {
+            return null;
+        }
+        try {
+            return validateParams(params) ? buildUrl(params) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 参数验证并构建URL
+     */
+    private String prepareUrl(Map<String, String> params) {
+        // 1. 参数验证
+        if (!validateParams(params)) {
+            throw new IllegalArgumentException("参数验证失败: " + params);
+        }
+
+        // 2. 构建URL
+        String url = buildUrl(params);
+        log.debug("请求URL: {}", url);
+        return url;
+    }
+
+    /**
+     * 上一版内容由相同配置生成时才能沿用：配置指纹不同（或没有记录）时不发送条件请求、不比较内容哈希，按无上一版抓取
+     */
+    private UpstreamValidators reusable(UpstreamValidators previous) {
+        if (previous == null) {
+            return null;
+        }
+        Long fingerprint = previous.getConfigFingerprint();
+        if (fingerprint == null || fingerprint != getConfigFingerprint()) {
+            log.info("生成配置已变化，不沿用上一版内容, 网站: {}", getSiteIdentifier());
+            return null;
+        }
+        return previous;
+    }
 
-            // 7. 转换为RSS
-            RssChannel rssChannel = convertToRss(webHtmlData);
+    /**
+     * 由Document生成RSS：提取、截取、转换
+     * 与流式解析一致，只保留前{@link #getMaxItems()}条
+     */
+    private RssChannel buildRss(Document document, Map<String, String> params) {
+        // 5. 提取数据
+        List<WebDataArticleDTO> articles = extractArticles(document, params);
+        log.info("提取到 {} 条数据", articles.size());
+        int maxItems = getMaxItems();
+        if (maxItems > 0 && articles.size() > maxItems) {
+            articles = articles.subList(0, maxItems);
+        }
+        return buildRss(articles, params);
+    }
 
-            log.info("RSS生成成功, 网站: {}, 条目数: {}", getSiteIdentifier(), articles.size());
-            return rssChannel;
+    /**
+     * 由文章列表生成RSS：转换
+     */
+    private RssChannel buildRss(List<WebDataArticleDTO> articles, Map<String, String> params) {
+        // 6. 转换为通用数据格式
+        WebHtmlDataDTO webHtmlData = buildWebHtmlData(articles, params);
 
-        } catch (HtmlFetchException | HtmlParseException | RssGenerationException e) {
+        // 7. 转换为RSS
+        RssChannel rssChannel = convertToRss(webHtmlData);
+
+        log.info("RSS生成成功, 网站: {}, 条目数: {}", getSiteIdentifier(), articles.size());
+        return rssChannel;
+    }
+
+    /**
+     * 统一异常处理：已知异常直接抛出，其他异常包装为RssGenerationException
+     */
+    private RuntimeException translateError(Throwable e) {
+        if (e instanceof FeedNotModifiedException) {
+            log.info("上游内容未修改, 网站: {}, {}", getSiteIdentifier(), e.getMessage());
+            return (FeedNotModifiedException) e;
+        }
+        if (e instanceof HtmlFetchException || e instanceof HtmlParseException
+                || e instanceof RssGenerationException || e instanceof UpstreamUnavailableException) {
             log.error("RSS生成失败, 网站: {}, 错误: {}", getSiteIdentifier(), e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("RSS生成异常, 网站: {}", getSiteIdentifier(), e);
-            throw new RssGenerationException("RSS生成失败: " + e.getMessage(), e);
+            return (RuntimeException) e;
         }
+        log.error("RSS生成异常, 网站: {}", getSiteIdentifier(), e);
+        return new RssGenerationException("RSS生成失败: " + e.getMessage(), e);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     /**
@@ -103,7 +315,7 @@ public abstract class AbstractRssProviderService implements RssProviderService {
     protected List<WebDataArticleDTO> extractArticles(Document document, Map<String, String> params) {
         if (siteConfig.getParseConfig() != null) {
             // 使用配置化解析器
-            return htmlParser.parse(document, siteConfig.getParseConfig());
+            return htmlParser.parse(document, siteConfig.getParseConfig(), getOutputFields());
         } else {
             // 子类必须重写此方法或提供parseConfig
             throw new UnsupportedOperationException(
@@ -113,34 +325,297 @@ public abstract class AbstractRssProviderService implements RssProviderService {
     }
 
     /**
-     * 抓取HTML内容
+     * 抓取HTML并解析为Document，不生成完整的HTML字符串
+     * 响应体先以字节读入并计算内容哈希，哈希与上一版相同时不解析；
+     * 网站或URL近期连续失败时处于退避期，直接抛出UpstreamUnavailableException；
+     * 请求前按网站与Host的集群限流预算获取许可，等待超时抛出UpstreamUnavailableException；
+     * 请求在网站的熔断器和舱壁保护下执行，熔断或并发已满时同样抛出UpstreamUnavailableException。
+     * previous不为null时携带其中的ETag/Last-Modified，上游返回304或内容哈希与previous相同时抛出FeedNotModifiedException；
+     * 响应体超过maxBodyBytes时抛出UpstreamBodyTooLargeException，上游返回非2xx时抛出UpstreamHttpStatusException
      *
-     * @param url 目标URL
-     * @return HTML内容
+     * @param url      目标URL
+     * @param previous 上一版内容的上游校验信息，为null时无条件抓取
+     * @return 解析后的文档及本次响应的校验信息
      */
-    protected String fetchHtml(String url) {
+    protected Fetched<Document> fetchDocument(String url, UpstreamValidators previous) {
+        String siteId = getSiteIdentifier();
+        upstreamBackoff.checkAvailable(siteId, url);
+        rateLimiter.acquire(siteId, url, siteConfig.getRateLimitConfig());
+        HttpDocumentResult result;
         try {
-            Map<String, String> headers = getRequestHeaders();
-            return okHttpClientUtil.doGet(url, Headers.of(headers));
+            Headers headers = buildFetchHeaders(previous);
+            result = upstreamGuard.execute(siteId,
+                    () -> httpClient().fetchDocument(url, headers, maxBodyBytes, hash -> isUnchanged(previous, hash)));
         } catch (Exception e) {
-            log.error("HTML抓取失败, URL: {}", url, e);
-            throw new HtmlFetchException("无法访问网站: " + url, e);
+            throw fetchFailed(siteId, url, e);
+        }
+        upstreamBackoff.recordSuccess(siteId, url);
+        return handleDocumentResult(siteId, url, previous, result);
+    }
+
+    /**
+     * 异步抓取并解析HTML，规则与{@link #fetchDocument(String, UpstreamValidators)}相同
+     * 取消返回的Future会取消底层HTTP请求
+     *
+     * @param url      目标URL
+     * @param previous 上一版内容的上游校验信息，为null时无条件抓取
+     * @return 解析后的文档及本次响应的校验信息
+     */
+    protected CompletableFuture<Fetched<Document>> fetchDocumentAsync(String url, UpstreamValidators previous) {
+        String siteId = getSiteIdentifier();
+        try {
+            upstreamBackoff.checkAvailable(siteId, url);
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Headers headers = buildFetchHeaders(previous);
+
+        AtomicReference<CompletableFuture<HttpDocumentResult>> call = new AtomicReference<>();
+        CompletableFuture<Fetched<Document>> document = rateLimiter
+                .acquireAsync(siteId, url, siteConfig.getRateLimitConfig())
+                .thenCompose(ignored -> upstreamGuard.<HttpDocumentResult>executeAsync(siteId, () -> {
+                    CompletableFuture<HttpDocumentResult> future = httpClient()
+                            .fetchDocumentAsync(url, headers, Duration.ofMillis(callTimeoutMillis), maxBodyBytes,
+                                    hash -> isUnchanged(previous, hash));
+                    call.set(future);
+                    return future;
+                }))
+                .handle((result, error) -> {
+                    if (error != null) {
+                        throw fetchFailed(siteId, url, unwrap(error));
+                    }
+                    upstreamBackoff.recordSuccess(siteId, url);
+                    return handleDocumentResult(siteId, url, previous, result);
+                });
+        document.whenComplete((result, error) -> {
+            CompletableFuture<HttpDocumentResult> future = call.get();
+            if (document.isCancelled() && future != null) {
+                future.cancel(true);
+            }
+        });
+        return document;
+    }
+
+    /**
+     * 是否流式解析（配置了parseConfig且开启streaming）
+     */
+    protected boolean isStreaming() {
+        return siteConfig.getParseConfig() != null && Boolean.TRUE.equals(siteConfig.getParseConfig().getStreaming());
+    }
+
+    /**
+     * 生成配置的指纹，随生成的内容一起保存在校验信息中，与上一版不同时上一版内容不能沿用（见{@link #reusable}）
+     * 包括解析配置、RSS配置、Provider类、程序版本与{@link #OUTPUT_FORMAT_VERSION}；
+     * 子类的提取或转换依赖其他配置时需要重写并把这些配置加入指纹
+     */
+    protected long getConfigFingerprint() {
+        return ContentHashUtil.hash64(OUTPUT_FORMAT_VERSION + "\n" + APPLICATION_VERSION + "\n" + getClass().getName()
+                + "\n" + siteConfig.getParseConfig() + "\n" + siteConfig.getRssConfig());
+    }
+
+    /**
+     * 输出的条数上限（RssConfig.itemsPerPage），不大于0表示不限制
+     * 流式解析达到上限后停止读取；非流式解析提取后截取前若干条
+     */
+    protected int getMaxItems() {
+        if (siteConfig.getRssConfig() == null || siteConfig.getRssConfig().getItemsPerPage() == null) {
+            return 0;
         }
+        return siteConfig.getRssConfig().getItemsPerPage();
     }
 
     /**
-     * 解析HTML为Document对象
+     * 解析时需要提取的可选字段，默认按RSS输出确定（只有includeContent决定是否提取内容，其余可选字段不提取）；
+     * 重写{@link #buildRss}用到图片、作者等字段的子类需要同时重写本方法
+     */
+    protected OutputFields getOutputFields() {
+        return OutputFields.of(siteConfig.getRssConfig());
+    }
+
+    /**
+     * 抓取HTML并边下载边提取文章，达到{@link #getMaxItems()}条后停止读取并关闭连接，剩余内容不再下载
+     * 规则与{@link #fetchDocument(String, UpstreamValidators)}相同；因为不读取完整响应体，内容是否变化按提取出的文章计算哈希。
+     * 因此上游返回304之外，内容未变化时仍要下载、解析并提取前若干条，只省去RSS转换；
+     * 非流式解析在解析之前按响应体哈希判断，未变化时不解析。上游不支持条件请求且页面不大的网站不宜开启流式解析
      *
-     * @param html HTML字符串
-     * @return Jsoup Document
+     * @param url      目标URL
+     * @param previous 上一版内容的上游校验信息，为null时无条件抓取
+     * @return 文章列表及本次响应的校验信息
      */
-    protected Document parseHtmlToDocument(String html) {
+    protected Fetched<List<WebDataArticleDTO>> fetchArticles(String url, UpstreamValidators previous) {
+        String siteId = getSiteIdentifier();
+        upstreamBackoff.checkAvailable(siteId, url);
+        rateLimiter.acquire(siteId, url, siteConfig.getRateLimitConfig());
+        HttpStreamResult<List<WebDataArticleDTO>> result;
         try {
-            return Jsoup.parse(html);
+            Headers headers = buildFetchHeaders(previous);
+            result = upstreamGuard.execute(siteId,
+                    () -> httpClient().fetchStream(url, headers, maxBodyBytes, this::parseStream));
         } catch (Exception e) {
-            log.error("HTML解析失败", e);
-            throw new HtmlParseException("HTML解析失败", e);
+            throw fetchFailed(siteId, url, e);
         }
+        upstreamBackoff.recordSuccess(siteId, url);
+        return handleStreamResult(siteId, url, previous, result);
+    }
+
+    /**
+     * 异步抓取并边下载边提取文章，规则与{@link #fetchArticles(String, UpstreamValidators)}相同
+     * 取消返回的Future会取消底层HTTP请求
+     */
+    protected CompletableFuture<Fetched<List<WebDataArticleDTO>>> fetchArticlesAsync(String url,
+                                                                                   UpstreamValidators previous) {
+        String siteId = getSiteIdentifier();
+        try {
+            upstreamBackoff.checkAvailable(siteId, url);
+        } catch (UpstreamUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Headers headers = buildFetchHeaders(previous);
+
+        AtomicReference<CompletableFuture<HttpStreamResult<List<WebDataArticleDTO>>>> call = new AtomicReference<>();
+        CompletableFuture<Fetched<List<WebDataArticleDTO>>> articles = rateLimiter
+                .acquireAsync(siteId, url, siteConfig.getRateLimitConfig())
+                .thenCompose(ignored -> upstreamGuard.<HttpStreamResult<List<WebDataArticleDTO>>>executeAsync(siteId,
+                        () -> {
+                            CompletableFuture<HttpStreamResult<List<WebDataArticleDTO>>> future = httpClient()
+                                    .fetchStreamAsync(url, headers, Duration.ofMillis(callTimeoutMillis), maxBodyBytes,
+                                            this::parseStream);
+                            call.set(future);
+                            return future;
+                        }))
+                .handle((result, error) -> {
+                    if (error != null) {
+                        throw fetchFailed(siteId, url, unwrap(error));
+                    }
+                    upstreamBackoff.recordSuccess(siteId, url);
+                    return handleStreamResult(siteId, url, previous, result);
+                });
+        articles.whenComplete((result, error) -> {
+            CompletableFuture<HttpStreamResult<List<WebDataArticleDTO>>> future = call.get();
+            if (articles.isCancelled() && future != null) {
+                future.cancel(true);
+            }
+        });
+        return articles;
+    }
+
+    /**
+     * 从响应流中提取文章
+     */
+    private List<WebDataArticleDTO> parseStream(Reader body, String baseUri) throws IOException {
+        return htmlParser.parseStream(body, baseUri, siteConfig.getParseConfig(), getMaxItems(), getOutputFields());
+    }
+
+    /**
+     * 当前网站的HTTP客户端（连接池、超时按SiteConfig.httpConfig配置）
+     */
+    protected OkHttpClientUtil httpClient() {
+        return siteHttpClients.get(siteConfig);
+    }
+
+    /**
+     * 抓取失败：熔断/舱壁/退避拒绝直接抛出，其他异常计入退避并包装为HtmlFetchException
+     */
+    private RuntimeException fetchFailed(String siteId, String url, Throwable e) {
+        if (e instanceof UpstreamUnavailableException) {
+            return (UpstreamUnavailableException) e;
+        }
+        if (e instanceof HtmlParseException) {
+            // 流式解析时解析配置错误不是上游故障
+            return (HtmlParseException) e;
+        }
+        upstreamBackoff.recordFailure(siteId, url, e);
+        log.error("HTML抓取失败, URL: {}", url, e);
+        if (e instanceof BodyTooLargeException) {
+            return new UpstreamBodyTooLargeException("响应内容过大: " + url + ", " + e.getMessage(),
+                    ((BodyTooLargeException) e).getMaxBytes(), e);
+        }
+        if (e instanceof HttpStatusException) {
+            int statusCode = ((HttpStatusException) e).getStatusCode();
+            return new UpstreamHttpStatusException("网站返回HTTP " + statusCode + ": " + url, statusCode, e);
+        }
+        return new HtmlFetchException("无法访问网站: " + url, e);
+    }
+
+    /**
+     * 判断上游内容是否变化：304或内容哈希与上一版相同时抛出FeedNotModifiedException
+     * 上一版的校验信息保存在缓存条目中，只有内容写入缓存成功后才会更新，这里不保存任何状态
+     */
+    private void checkModified(String siteId, String url, UpstreamValidators previous, boolean notModified,
+                               LongSupplier bodyHash) {
+        if (notModified) {
+            changeStats.recordNotModified(siteId);
+            throw new FeedNotModifiedException("HTTP 304, URL: " + url);
+        }
+        // 上游不支持条件请求时，通过内容哈希判断是否变化
+        if (isUnchanged(previous, bodyHash.getAsLong())) {
+            changeStats.recordHashUnchanged(siteId);
+            throw new FeedNotModifiedException("内容哈希未变化, URL: " + url);
+        }
+        changeStats.recordChanged(siteId);
+    }
+
+    /**
+     * 内容哈希与上一版相同
+     */
+    private static boolean isUnchanged(UpstreamValidators previous, long bodyHash) {
+        return previous != null && previous.getBodyHash() != null && previous.getBodyHash() == bodyHash;
+    }
+
+    /**
+     * 处理抓取结果：内容哈希在解析之前按响应体计算，与上一版相同时没有解析（Document为null），这里抛出FeedNotModifiedException
+     */
+    private Fetched<Document> handleDocumentResult(String siteId, String url, UpstreamValidators previous,
+                                                   HttpDocumentResult result) {
+        checkModified(siteId, url, previous, result.isNotModified(), result::getBodyHash);
+        log.debug("解析完成, URL: {}, 响应体: {}字节", url, result.getBodyBytes());
+        return new Fetched<>(result.getDocument(),
+                new UpstreamValidators(result.getEtag(), result.getLastModified(), result.getBodyHash(),
+                        getConfigFingerprint()));
+    }
+
+    /**
+     * 处理流式提取结果，内容哈希按提取出的文章计算
+     */
+    private Fetched<List<WebDataArticleDTO>> handleStreamResult(String siteId, String url, UpstreamValidators previous,
+                                                                HttpStreamResult<List<WebDataArticleDTO>> result) {
+        List<WebDataArticleDTO> articles = result.getValue();
+        long articlesHash = result.isNotModified() ? 0L : hashArticles(articles);
+        checkModified(siteId, url, previous, result.isNotModified(), () -> articlesHash);
+        log.info("流式提取 {} 条数据, URL: {}, 读取: {}字节", articles.size(), url, result.getBytesRead());
+        return new Fetched<>(articles, new UpstreamValidators(result.getEtag(), result.getLastModified(), articlesHash,
+                getConfigFingerprint()));
+    }
+
+    /**
+     * 文章列表的内容哈希（标题、链接、发布时间、内容、图片）
+     */
+    private static long hashArticles(List<WebDataArticleDTO> articles) {
+        StringBuilder builder = new StringBuilder(articles.size() * 64);
+        for (WebDataArticleDTO article : articles) {
+            builder.append(article.getTitle()).append('\n')
+                    .append(article.getUrl()).append('\n')
+                    .append(article.getPublishTime() != null ? article.getPublishTime().getTime() : 0L).append('\n')
+                    .append(article.getContent()).append('\n')
+                    .append(article.getImageUrl()).append('\n');
+        }
+        return ContentHashUtil.hash64(builder.toString());
+    }
+
+    /**
+     * 构建抓取请求头，有上一版的校验信息时追加If-None-Match/If-Modified-Since
+     */
+    private Headers buildFetchHeaders(UpstreamValidators validators) {
+        Headers.Builder builder = Headers.of(getRequestHeaders()).newBuilder();
+        if (validators != null) {
+            if (validators.getEtag() != null) {
+                builder.set("If-None-Match", validators.getEtag());
+            }
+            if (validators.getLastModified() != null) {
+                builder.set("If-Modified-Since", validators.getLastModified());
+            }
+        }
+        return builder.build();
     }
 
     /**
@@ -221,4 +696,16 @@ public abstract class AbstractRssProviderService implements RssProviderService {
     public SiteConfig getSiteConfig() {
         return siteConfig;
     }
+
+    /**
+     * 抓取结果及本次响应的上游校验信息（ETag、Last-Modified、内容哈希）
+     */
+    @Getter
+    @AllArgsConstructor
+    protected static final class Fetched<T> {
+
+        private final T value;
+
+        private final UpstreamValidators validators;
+    }
 }
@@ -0,0 +1,21 @@
+package com.rss.nest.core.provider;
+
+import com.rss.nest.models.rss.RssChannel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Provider生成的RSS及本次抓取的上游校验信息
+ * 校验信息由缓存层随生成的内容一起保存，下次生成时原样传回用于条件抓取
+ */
+@Getter
+@AllArgsConstructor
+public class GeneratedRss {
+
+    private final RssChannel channel;
+
+    /**
+     * 本次抓取的上游校验信息，不支持条件抓取时为null
+     */
+    private final UpstreamValidators validators;
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -23,6 +24,12 @@ public class RssProviderFactory {
      */
     private final Map<String, RssProviderService> providers = new ConcurrentHashMap<>();
 
+    /**
+     * 保留的网站ID：与UnifiedRssController中/api/rss下的固定路径（如/async/{siteId}、/sites、/cache/stats）相同，
+     * 用作网站ID时会被固定路径抢先匹配，注册时直接拒绝
+     */
+    static final Set<String> RESERVED_SITE_IDS = Set.of("async", "cache", "sites", "health");
+
     /**
      * 构造函数自动注册所有Provider
      * Spring会自动注入所有RssProviderService的实现类
@@ -35,6 +42,10 @@ public class RssProviderFactory {
 
         for (RssProviderService provider : providerList) {
             String siteId = provider.getSiteIdentifier();
+            if (RESERVED_SITE_IDS.contains(siteId)) {
+                throw new IllegalStateException("网站ID与接口路径冲突，不能使用: " + siteId
+                        + " (" + provider.getClass().getSimpleName() + ")");
+            }
             providers.put(siteId, provider);
             log.info("注册RSS Provider: {} - {}", siteId, provider.getClass().getSimpleName());
         }
@@ -77,6 +88,15 @@ public class RssProviderFactory {
         return providers.keySet().stream().sorted().toList();
     }
 
+    /**
+     * 获取所有Provider
+     *
+     * @return Provider列表
+     */
+    public List<RssProviderService> getAllProviders() {
+        return List.copyOf(providers.values());
+    }
+
     /**
      * 获取所有Provider的详细信息
      *
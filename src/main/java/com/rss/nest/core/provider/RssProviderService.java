@@ -4,6 +4,7 @@ import com.rss.nest.core.config.SiteConfig;
 import com.rss.nest.models.rss.RssChannel;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * RSS提供者服务接口
@@ -19,6 +20,61 @@ public interface RssProviderService {
      */
     RssChannel generateRss(Map<String, String> params);
 
+    /**
+     * 生成RSS（可条件抓取）
+     * previous为缓存中上一版内容生成时的上游校验信息，Provider可以据此发送条件请求或比对内容哈希，
+     * 上游内容未修改时抛出FeedNotModifiedException，由缓存层延长上一版内容的有效期
+     *
+     * @param params   请求参数
+     * @param previous 上一版内容的上游校验信息，为null时无条件抓取
+     * @return RSS及本次抓取的上游校验信息
+     */
+    default GeneratedRss generateRss(Map<String, String> params, UpstreamValidators previous) {
+        return new GeneratedRss(generateRss(params), null);
+    }
+
+    /**
+     * 异步生成RSS，规则与{@link #generateRss(Map, UpstreamValidators)}相同
+     * 默认在调用线程上同步执行，支持异步抓取的Provider应重写此方法
+     *
+     * @param params   请求参数
+     * @param previous 上一版内容的上游校验信息，为null时无条件抓取
+     * @return RSS及本次抓取的上游校验信息，失败时以对应异常完成
+     */
+    default CompletableFuture<GeneratedRss> generateRssAsync(Map<String, String> params, UpstreamValidators previous) {
+        try {
+            return CompletableFuture.completedFuture(generateRss(params, previous));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 预留上游请求预算（限流）
+     * 由调用方在占用生成许可之前调用，限流等待不占用生成许可、不计入生成耗时；随后的生成直接使用预留的预算。
+     * 默认不限流
+     *
+     * @param params 请求参数
+     * @throws com.rss.nest.core.exception.UpstreamUnavailableException 等待超过上限
+     */
+    default void reserveUpstream(Map<String, String> params) {
+    }
+
+    /**
+     * 异步预留上游请求预算，规则与{@link #reserveUpstream(Map)}相同，等待期间不占用线程
+     *
+     * @param params 请求参数
+     * @return 预留成功时完成，等待超过上限时以UpstreamUnavailableException异常完成
+     */
+    default CompletableFuture<Void> reserveUpstreamAsync(Map<String, String> params) {
+        try {
+            reserveUpstream(params);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * 获取网站标识符
      *
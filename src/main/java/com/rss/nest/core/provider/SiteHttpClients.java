@@ -0,0 +1,168 @@
+package com.rss.nest.core.provider;
+
+import com.rss.nest.core.config.HttpConfig;
+import com.rss.nest.core.config.SiteConfig;
+import com.rss.nest.core.resilience.UpstreamRateLimiter;
+import com.rss.nest.utils.http.OkHttpClientUtil;
+import com.rss.nest.utils.http.OkHttpMetricsEventListener;
+import com.rss.nest.utils.http.RetryPolicy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按网站划分的HTTP客户端
+ * <p>
+ * 每个网站从共享的基础OkHttpClient派生独立客户端：线程池共享，连接池、Dispatcher（单Host并发）、
+ * 超时、协议与重试/对冲策略按SiteConfig.httpConfig配置，单个慢网站不会占满其他网站的连接；
+ * 请求阶段耗时指标按网站ID打标签。
+ * 应用启动完成后异步请求各网站的baseUrl，预先建立连接（DNS、TCP与TLS握手），预热请求同样消耗上游限流预算
+ */
+@Slf4j
+@Component
+public class SiteHttpClients {
+
+    private static final List<Protocol> HTTP2_PROTOCOLS = List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+
+    private static final List<Protocol> HTTP1_PROTOCOLS = List.of(Protocol.HTTP_1_1);
+
+    private final OkHttpClient baseClient;
+
+    private final ObjectProvider<RssProviderFactory> providerFactory;
+
+    private final UpstreamRateLimiter rateLimiter;
+
+    /**
+     * key: siteId
+     */
+    private final Map<String, OkHttpClientUtil> clients = new ConcurrentHashMap<>();
+
+    public SiteHttpClients(OkHttpClient baseClient, ObjectProvider<RssProviderFactory> providerFactory,
+                           UpstreamRateLimiter rateLimiter) {
+        this.baseClient = baseClient;
+        this.providerFactory = providerFactory;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * 获取网站的HTTP客户端，首次调用时按网站配置创建
+     *
+     * @param siteConfig 网站配置
+     * @return HTTP客户端
+     */
+    public OkHttpClientUtil get(SiteConfig siteConfig) {
+        return clients.computeIfAbsent(siteConfig.getSiteId(),
+                siteId -> new OkHttpClientUtil(build(siteConfig), retryPolicy(siteConfig)));
+    }
+
+    /**
+     * 网站的重试与对冲策略
+     */
+    static RetryPolicy retryPolicy(SiteConfig siteConfig) {
+        HttpConfig config = siteConfig.getHttpConfig() != null ? siteConfig.getHttpConfig() : new HttpConfig();
+        return new RetryPolicy(
+                config.getMaxRetries() != null ? Math.max(config.getMaxRetries(), 0) : 0,
+                config.getRetryBackoffMs() != null ? config.getRetryBackoffMs() : 0L,
+                Boolean.TRUE.equals(config.getHedge()),
+                config.getHedgeMinDelayMs() != null ? config.getHedgeMinDelayMs() : 0L,
+                config.getRetryBudgetRatio() != null ? Math.min(config.getRetryBudgetRatio(), 1.0) : 0.0);
+    }
+
+    /**
+     * 从基础客户端派生网站客户端
+     */
+    OkHttpClient build(SiteConfig siteConfig) {
+        HttpConfig config = siteConfig.getHttpConfig() != null ? siteConfig.getHttpConfig() : new HttpConfig();
+        int maxConnections = Math.max(config.getMaxConnectionsPerHost(), 1);
+
+        // 共享基础客户端的线程池（含虚拟线程配置），排队与并发上限按网站独立
+        Dispatcher dispatcher = new Dispatcher(baseClient.dispatcher().executorService());
+        dispatcher.setMaxRequests(baseClient.dispatcher().getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+
+        OkHttpClient.Builder builder = baseClient.newBuilder();
+        if (baseClient.eventListenerFactory() instanceof OkHttpMetricsEventListener.Factory) {
+            builder.eventListenerFactory(((OkHttpMetricsEventListener.Factory) baseClient.eventListenerFactory())
+                    .forSite(siteConfig.getSiteId()));
+        }
+        OkHttpClient client = builder
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxConnections, config.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .connectTimeout(config.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                .protocols(Boolean.TRUE.equals(config.getPreferHttp2()) ? HTTP2_PROTOCOLS : HTTP1_PROTOCOLS)
+                .build();
+        log.info("创建网站HTTP客户端, siteId: {}, 最大连接数: {}, 连接超时: {}ms, 读取超时: {}ms, HTTP/2: {}",
+                siteConfig.getSiteId(), maxConnections, config.getConnectTimeoutMs(), config.getReadTimeoutMs(),
+                config.getPreferHttp2());
+        return client;
+    }
+
+    /**
+     * 启动完成后预热各网站连接
+     * 使用HEAD请求，先取得网站与Host的限流许可（预算不足时放弃预热），失败只记录日志，不计入上游退避
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        RssProviderFactory factory = providerFactory.getIfAvailable();
+        if (factory == null) {
+            return;
+        }
+        for (RssProviderService provider : factory.getAllProviders()) {
+            SiteConfig siteConfig = provider.getSiteConfig();
+            if (siteConfig == null || siteConfig.getBaseUrl() == null || Boolean.FALSE.equals(siteConfig.getEnabled())) {
+                continue;
+            }
+            HttpConfig config = siteConfig.getHttpConfig();
+            if (config != null && !Boolean.TRUE.equals(config.getPrewarm())) {
+                continue;
+            }
+            prewarm(siteConfig);
+        }
+    }
+
+    void prewarm(SiteConfig siteConfig) {
+        String siteId = siteConfig.getSiteId();
+        rateLimiter.acquireAsync(siteId, siteConfig.getBaseUrl(), siteConfig.getRateLimitConfig())
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.info("限流预算不足，跳过预热, siteId: {}", siteId);
+                        return;
+                    }
+                    send(siteConfig);
+                });
+    }
+
+    private void send(SiteConfig siteConfig) {
+        String siteId = siteConfig.getSiteId();
+        Request.Builder request = new Request.Builder().url(siteConfig.getBaseUrl()).head();
+        if (siteConfig.getHeaders() != null) {
+            siteConfig.getHeaders().forEach(request::header);
+        }
+        long start = System.nanoTime();
+        OkHttpClient client = get(siteConfig).getClient();
+        client.newCall(request.build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                log.warn("预热连接失败, siteId: {}, 错误: {}", siteId, e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    log.info("预热连接完成, siteId: {}, 协议: {}, 状态码: {}, 耗时: {}ms", siteId, response.protocol(),
+                            response.code(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            }
+        });
+    }
+}
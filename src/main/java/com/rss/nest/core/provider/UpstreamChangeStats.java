@@ -0,0 +1,41 @@
+package com.rss.nest.core.provider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 上游内容变化统计
+ * 按网站统计重新生成时上游内容的变化情况，导出为 rss.upstream.fetch{site, result}：
+ * changed（内容已变化）、not_modified（上游返回304）、hash_unchanged（内容哈希未变化）
+ */
+@Component
+public class UpstreamChangeStats {
+
+    private static final String METRIC_FETCH = "rss.upstream.fetch";
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamChangeStats(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordChanged(String siteId) {
+        counter(siteId, "changed").increment();
+    }
+
+    public void recordNotModified(String siteId) {
+        counter(siteId, "not_modified").increment();
+    }
+
+    public void recordHashUnchanged(String siteId) {
+        counter(siteId, "hash_unchanged").increment();
+    }
+
+    private Counter counter(String siteId, String result) {
+        return Counter.builder(METRIC_FETCH)
+                .tag("site", siteId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.rss.nest.core.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 上游页面的缓存校验信息
+ * 包含上次响应的ETag、Last-Modified及响应内容哈希（上游不支持条件请求时用于判断内容是否变化），
+ * 以及生成该内容时的配置指纹（配置或程序变化后上一版内容不能沿用）
+ */
+@Getter
+@AllArgsConstructor
+public class UpstreamValidators {
+
+    /**
+     * 上次响应的ETag
+     */
+    private final String etag;
+
+    /**
+     * 上次响应的Last-Modified
+     */
+    private final String lastModified;
+
+    /**
+     * 上次响应内容的哈希（MurmurHash3）
+     */
+    private final Long bodyHash;
+
+    /**
+     * 生成内容时的配置指纹，见AbstractRssProviderService#getConfigFingerprint，null表示未记录
+     */
+    private final Long configFingerprint;
+
+    public UpstreamValidators(String etag, String lastModified, Long bodyHash) {
+        this(etag, lastModified, bodyHash, null);
+    }
+
+    /**
+     * 没有可用于条件抓取的信息（只有配置指纹不能判断上游是否变化）
+     */
+    public boolean isEmpty() {
+        return etag == null && lastModified == null && bodyHash == null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.rss.nest.core.resilience;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 连续失败记录
+ */
+@Getter
+@AllArgsConstructor
+class FailureState {
+
+    /**
+     * 连续失败次数
+     */
+    private final int failures;
+
+    /**
+     * 退避结束时间（毫秒时间戳），0表示未进入退避
+     */
+    private final long openUntilMillis;
+
+    /**
+     * 最近一次错误信息
+     */
+    private final String lastError;
+}
@@ -0,0 +1,383 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.exception.GenerationOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RSS生成全局并发限制（准入控制）
+ * <p>
+ * 限制当前节点同时进行的生成任务（抓取 + 解析）数量，避免冷启动或Redis清空后所有请求同时抓取上游：
+ * <ul>
+ *     <li>并发上限按AIMD自适应：生成耗时低于阈值且并发接近上限时缓慢增加（每个上限周期+1），超过阈值时乘以0.9</li>
+ *     <li>超过上限的请求进入有界等待队列，队列按网站分组，放行时在网站之间轮转，单个网站的积压不会挤占其他网站</li>
+ *     <li>队列已满、网站排队数达到上限或等待超时时抛出GenerationOverloadedException，由调用方返回过期内容或503</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class GenerationLimiter {
+
+    private static final String METRIC_REJECTED = "rss.generation.rejected";
+
+    /**
+     * 耗时超过阈值时上限的缩减比例
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private static final Permit NOOP_PERMIT = new Permit(null, 0L);
+
+    private final boolean enabled;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final int queueCapacity;
+
+    private final int queuePerSite;
+
+    private final long maxWaitMillis;
+
+    private final long latencyThresholdNanos;
+
+    private final long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 当前并发上限（小数部分用于累计加性增长）
+     */
+    private double limit;
+
+    private int inFlight;
+
+    /**
+     * 按网站分组的等待队列，迭代顺序即轮转顺序
+     */
+    private final Map<String, ArrayDeque<CompletableFuture<Permit>>> waiting = new LinkedHashMap<>();
+
+    private int queued;
+
+    private final MeterRegistry meterRegistry;
+
+    public GenerationLimiter(@Value("${rss-nest.generation.limiter.enabled:true}") boolean enabled,
+                             @Value("${rss-nest.generation.limiter.initial-limit:32}") int initialLimit,
+                             @Value("${rss-nest.generation.limiter.min-limit:4}") int minLimit,
+                             @Value("${rss-nest.generation.limiter.max-limit:128}") int maxLimit,
+                             @Value("${rss-nest.generation.limiter.queue-capacity:256}") int queueCapacity,
+                             @Value("${rss-nest.generation.limiter.queue-per-site:32}") int queuePerSite,
+                             @Value("${rss-nest.generation.limiter.max-wait-ms:3000}") long maxWaitMillis,
+                             @Value("${rss-nest.generation.limiter.latency-threshold-ms:10000}") long latencyThresholdMillis,
+                             @Value("${rss-nest.generation.limiter.retry-after-seconds:5}") long retryAfterSeconds,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.queueCapacity = Math.max(queueCapacity, 0);
+        this.queuePerSite = Math.max(queuePerSite, 0);
+        this.maxWaitMillis = maxWaitMillis;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.retryAfterSeconds = Math.max(retryAfterSeconds, 1);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("rss.generation.limit", this, GenerationLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("rss.generation.inflight", this, GenerationLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("rss.generation.queued", this, GenerationLimiter::getQueued)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取生成许可
+     *
+     * @param siteId 网站ID
+     * @param wait   达到上限时是否排队等待（后台刷新不等待，优先保证用户请求）
+     * @return 许可，生成结束后必须关闭
+     * @throws GenerationOverloadedException 达到上限且无法排队或等待超时
+     */
+    public Permit acquire(String siteId, boolean wait) {
+        if (!enabled) {
+            return NOOP_PERMIT;
+        }
+
+        CompletableFuture<Permit> waiter = enqueue(siteId, wait);
+        if (waiter.isDone()) {
+            return waiter.join();
+        }
+        try {
+            return waiter.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return cancelWait(siteId, waiter, "timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return cancelWait(siteId, waiter, "interrupted");
+        } catch (ExecutionException e) {
+            // 等待Future只会正常完成
+            return cancelWait(siteId, waiter, "timeout");
+        }
+    }
+
+    /**
+     * 异步获取生成许可（排队等待），规则与{@link #acquire(String, boolean)}相同，排队期间不占用线程
+     * 取消返回的Future会放弃排队，已获得的许可自动归还
+     *
+     * @param siteId 网站ID
+     * @return 许可，生成结束后必须关闭；无法排队或等待超时时以GenerationOverloadedException异常完成
+     */
+    public CompletableFuture<Permit> acquireAsync(String siteId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(NOOP_PERMIT);
+        }
+
+        CompletableFuture<Permit> waiter;
+        try {
+            waiter = enqueue(siteId, true);
+        } catch (GenerationOverloadedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waiter.isDone()) {
+            return waiter;
+        }
+
+        CompletableFuture<Permit> result = new CompletableFuture<>();
+        waiter.thenAccept(permit -> {
+            if (!result.complete(permit)) {
+                // 调用方已取消
+                permit.close();
+            }
+        });
+        CompletableFuture.delayedExecutor(maxWaitMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (!result.isDone()) {
+                abandonWait(siteId, waiter, result, "timeout");
+            }
+        });
+        result.whenComplete((permit, error) -> {
+            if (result.isCancelled()) {
+                abandonWait(siteId, waiter, result, "cancelled");
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 立即获得许可（返回已完成的Future）或进入等待队列
+     *
+     * @throws GenerationOverloadedException 达到上限且无法排队
+     */
+    private CompletableFuture<Permit> enqueue(String siteId, boolean wait) {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(this, System.nanoTime()));
+            }
+            if (!wait) {
+                throw reject(siteId, "no_wait");
+            }
+            if (queued >= queueCapacity) {
+                throw reject(siteId, "queue_full");
+            }
+            ArrayDeque<CompletableFuture<Permit>> siteQueue = waiting.get(siteId);
+            if ((siteQueue != null ? siteQueue.size() : 0) >= queuePerSite) {
+                throw reject(siteId, "site_queue_full");
+            }
+            if (siteQueue == null) {
+                siteQueue = new ArrayDeque<>();
+                waiting.put(siteId, siteQueue);
+            }
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            siteQueue.addLast(waiter);
+            queued++;
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 放弃等待；如果在放弃前已获得许可则直接使用
+     */
+    private Permit cancelWait(String siteId, CompletableFuture<Permit> waiter, String reason) {
+        lock.lock();
+        try {
+            if (removeWaiter(siteId, waiter)) {
+                throw reject(siteId, reason);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // 已被放行，许可在释放锁后交付
+        return waiter.join();
+    }
+
+    /**
+     * 异步等待超时或被取消时离开队列；已被放行时什么都不做，许可由waiter交付（result已完成时归还）
+     */
+    private void abandonWait(String siteId, CompletableFuture<Permit> waiter, CompletableFuture<Permit> result,
+                             String reason) {
+        GenerationOverloadedException rejected;
+        lock.lock();
+        try {
+            if (!removeWaiter(siteId, waiter)) {
+                return;
+            }
+            rejected = reject(siteId, reason);
+        } finally {
+            lock.unlock();
+        }
+        result.completeExceptionally(rejected);
+    }
+
+    /**
+     * 从等待队列中移除（需持有锁）
+     *
+     * @return 是否仍在队列中（false表示已被放行）
+     */
+    private boolean removeWaiter(String siteId, CompletableFuture<Permit> waiter) {
+        ArrayDeque<CompletableFuture<Permit>> siteQueue = waiting.get(siteId);
+        if (siteQueue == null || !siteQueue.remove(waiter)) {
+            return false;
+        }
+        queued--;
+        if (siteQueue.isEmpty()) {
+            waiting.remove(siteId);
+        }
+        return true;
+    }
+
+    /**
+     * 生成结束：按耗时调整上限，并按网站轮转放行等待者
+     * 等待者在释放锁后才被唤醒，异步调用方的后续逻辑不会在锁内执行
+     */
+    void release(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        List<CompletableFuture<Permit>> granted;
+        lock.lock();
+        try {
+            inFlight--;
+            if (elapsed > latencyThresholdNanos) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                if ((int) previous != (int) limit) {
+                    log.info("生成耗时超过阈值，降低并发上限: {} -> {}, 耗时: {}ms",
+                            (int) previous, (int) limit, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                }
+            } else if (inFlight * 2 >= (int) limit) {
+                // 只有并发接近上限时才说明上限不够用
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            granted = grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+        for (CompletableFuture<Permit> waiter : granted) {
+            waiter.complete(new Permit(this, System.nanoTime()));
+        }
+    }
+
+    /**
+     * 在网站之间轮转放行等待者，直到达到上限或队列为空（需持有锁）
+     *
+     * @return 被放行的等待者，已计入并发数，由调用方在释放锁后交付许可
+     */
+    private List<CompletableFuture<Permit>> grantWaiters() {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && queued > 0) {
+            Iterator<Map.Entry<String, ArrayDeque<CompletableFuture<Permit>>>> it = waiting.entrySet().iterator();
+            Map.Entry<String, ArrayDeque<CompletableFuture<Permit>>> head = it.next();
+            it.remove();
+            ArrayDeque<CompletableFuture<Permit>> siteQueue = head.getValue();
+            CompletableFuture<Permit> waiter = siteQueue.pollFirst();
+            queued--;
+            if (!siteQueue.isEmpty()) {
+                // 移到队尾，下一次放行其他网站
+                waiting.put(head.getKey(), siteQueue);
+            }
+            inFlight++;
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private GenerationOverloadedException reject(String siteId, String reason) {
+        Counter.builder(METRIC_REJECTED)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("RSS生成过载，拒绝请求, siteId: {}, 原因: {}", siteId, reason);
+        return new GenerationOverloadedException(
+                "RSS生成繁忙（" + reason + "）, siteId: " + siteId + ", 并发上限: " + (int) limit, retryAfterSeconds);
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 生成许可，关闭时归还并记录耗时
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final GenerationLimiter limiter;
+
+        private final long startNanos;
+
+        private boolean closed;
+
+        private Permit(GenerationLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (limiter == null || closed) {
+                return;
+            }
+            closed = true;
+            limiter.release(startNanos);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.rss.nest.core.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上游失败记录与指数退避（负缓存）
+ * 分别按URL和网站记录连续失败次数：
+ * URL失败一次即进入退避；网站连续失败达到阈值后整个网站进入退避，避免个别URL失效影响整个网站。
+ * 退避时长按 base * 2^(n-1) 增长（带±20%抖动），不超过max，成功一次即清零。
+ * 退避期内的请求直接失败，不再占用线程等待超时
+ */
+@Slf4j
+@Component
+public class UpstreamBackoff {
+
+    private static final String SITE_PREFIX = "site:";
+
+    private static final String URL_PREFIX = "url:";
+
+    private final boolean enabled;
+
+    private final long baseMillis;
+
+    private final long maxMillis;
+
+    private final int siteThreshold;
+
+    private final Cache<String, FailureState> states;
+
+    public UpstreamBackoff(@Value("${rss-nest.upstream.backoff.enabled:true}") boolean enabled,
+                           @Value("${rss-nest.upstream.backoff.base-ms:2000}") long baseMillis,
+                           @Value("${rss-nest.upstream.backoff.max-ms:300000}") long maxMillis,
+                           @Value("${rss-nest.upstream.backoff.site-threshold:3}") int siteThreshold) {
+        this.enabled = enabled;
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+        this.siteThreshold = Math.max(siteThreshold, 1);
+        // URL数量不固定，按访问过期并限制条目数
+        this.states = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Math.max(maxMillis * 2, 1L), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 网站剩余退避时间
+     *
+     * @param siteId 网站ID
+     * @return 剩余毫秒数，不在退避期返回0
+     */
+    public long siteBackoffRemaining(String siteId) {
+        return remaining(SITE_PREFIX + siteId);
+    }
+
+    /**
+     * 请求前检查，网站或URL处于退避期时直接抛出异常
+     *
+     * @param siteId 网站ID
+     * @param url    请求URL
+     * @throws UpstreamUnavailableException 处于退避期
+     */
+    public void checkAvailable(String siteId, String url) {
+        long remaining = Math.max(remaining(SITE_PREFIX + siteId), remaining(URL_PREFIX + url));
+        if (remaining > 0) {
+            throw unavailable(siteId, remaining);
+        }
+    }
+
+    /**
+     * 记录请求成功，清除网站与URL的失败记录
+     */
+    public void recordSuccess(String siteId, String url) {
+        if (!enabled) {
+            return;
+        }
+        states.invalidate(SITE_PREFIX + siteId);
+        states.invalidate(URL_PREFIX + url);
+    }
+
+    /**
+     * 记录请求失败
+     */
+    public void recordFailure(String siteId, String url, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        String message = error != null ? error.getMessage() : null;
+        FailureState urlState = states.asMap().compute(URL_PREFIX + url, (key, state) -> fail(state, 1, message));
+        FailureState siteState = states.asMap().compute(SITE_PREFIX + siteId, (key, state) -> fail(state, siteThreshold, message));
+        log.warn("上游请求失败, siteId: {}, URL: {}, URL连续失败: {}, 网站连续失败: {}, 网站退避: {}ms",
+                siteId, url, urlState.getFailures(), siteState.getFailures(),
+                Math.max(siteState.getOpenUntilMillis() - System.currentTimeMillis(), 0));
+    }
+
+    /**
+     * 构建退避异常
+     */
+    public UpstreamUnavailableException unavailable(String siteId, long remainingMillis) {
+        long retryAfter = Math.max(TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999), 1L);
+        return new UpstreamUnavailableException("网站暂不可用，退避中: " + siteId, retryAfter);
+    }
+
+    /**
+     * 处于退避期的网站及URL
+     */
+    public Map<String, Object> snapshot() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> result = new LinkedHashMap<>();
+        states.asMap().forEach((key, state) -> {
+            if (state.getOpenUntilMillis() > now) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("failures", state.getFailures());
+                item.put("remainingMs", state.getOpenUntilMillis() - now);
+                item.put("lastError", state.getLastError());
+                result.put(key, item);
+            }
+        });
+        return result;
+    }
+
+    private long remaining(String key) {
+        if (!enabled) {
+            return 0L;
+        }
+        FailureState state = states.getIfPresent(key);
+        return state != null ? Math.max(state.getOpenUntilMillis() - System.currentTimeMillis(), 0L) : 0L;
+    }
+
+    private FailureState fail(FailureState state, int threshold, String message) {
+        int failures = state != null ? state.getFailures() + 1 : 1;
+        long openUntil = 0L;
+        if (failures >= threshold) {
+            openUntil = System.currentTimeMillis() + backoffMillis(failures - threshold);
+        }
+        return new FailureState(failures, openUntil, message);
+    }
+
+    /**
+     * 第n次退避时长（n从0开始）
+     */
+    long backoffMillis(int exponent) {
+        long delay = baseMillis << Math.min(exponent, 30);
+        if (delay <= 0 || delay > maxMillis) {
+            delay = maxMillis;
+        }
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Math.min((long) (delay * jitter), maxMillis);
+    }
+}
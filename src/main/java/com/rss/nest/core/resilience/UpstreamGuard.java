@@ -0,0 +1,108 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * 上游请求保护（按网站的熔断器 + 舱壁）
+ * 熔断器按失败率与慢调用比例在关闭/打开/半开之间切换，舱壁限制单个网站的并发抓取数，
+ * 保证某个网站变慢或不可用时不会占满Tomcat线程，其他网站正常服务。
+ * <p>
+ * 熔断器与舱壁以网站ID命名，默认参数见 resilience4j.circuitbreaker.configs.default 与
+ * resilience4j.bulkhead.configs.default，可在 instances.{siteId} 下单独配置；
+ * 状态通过 /actuator/circuitbreakers、/actuator/bulkheads 及Micrometer指标查看
+ */
+@Slf4j
+@Component
+public class UpstreamGuard {
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    /**
+     * 在网站的熔断器和舱壁保护下执行请求
+     *
+     * @param siteId   网站ID
+     * @param supplier 请求
+     * @return 请求结果
+     * @throws UpstreamUnavailableException 熔断器打开或并发已满
+     * @throws Exception                    请求本身抛出的异常
+     */
+    public <T> T execute(String siteId, CheckedSupplier<T> supplier) throws Exception {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(siteId);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(siteId);
+        CheckedSupplier<T> guarded = CircuitBreaker.decorateCheckedSupplier(circuitBreaker,
+                Bulkhead.decorateCheckedSupplier(bulkhead, supplier));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw rejected(siteId, circuitBreaker, bulkhead, e);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 异步执行请求，舱壁按请求完成（而非线程）计算并发
+     *
+     * @param siteId   网站ID
+     * @param supplier 异步请求
+     * @return 请求结果，熔断或并发已满时以UpstreamUnavailableException异常完成
+     */
+    public <T> CompletableFuture<T> executeAsync(String siteId, Supplier<CompletionStage<T>> supplier) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(siteId);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(siteId);
+        Supplier<CompletionStage<T>> guarded = CircuitBreaker.decorateCompletionStage(circuitBreaker,
+                Bulkhead.decorateCompletionStage(bulkhead, supplier));
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        guarded.get().whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException) {
+                result.completeExceptionally(rejected(siteId, circuitBreaker, bulkhead, cause));
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 熔断或舱壁拒绝转换为上游不可用异常
+     */
+    private UpstreamUnavailableException rejected(String siteId, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                                                  Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            long retryAfter = Math.max(circuitBreaker.getCircuitBreakerConfig()
+                    .getWaitIntervalFunctionInOpenState().apply(1) / 1000, 1L);
+            log.debug("熔断器打开，拒绝请求, siteId: {}", siteId);
+            return new UpstreamUnavailableException("网站熔断中: " + siteId, retryAfter);
+        }
+        log.warn("网站并发抓取已满，拒绝请求, siteId: {}, 最大并发: {}",
+                siteId, bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+        return new UpstreamUnavailableException("网站并发抓取已满: " + siteId, 1L);
+    }
+}
@@ -0,0 +1,319 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.config.RateLimitConfig;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 上游请求限流（集群令牌桶）
+ * <p>
+ * 按网站和按Host分别维护Redis令牌桶（tokenBucketScript），所有节点共享预算，避免扩容后请求量成倍增加被上游封禁。
+ * 节点每次向Redis申请一批令牌缓存在本地，在短时间内用完，多数请求无需访问Redis；
+ * 本地令牌过期后作废，保证任意时刻集群的实际速率不超过预算太多。
+ * 调用方可以在占用生成许可之前{@link #reserve 预留}许可，限流等待不占用生成许可，随后的抓取直接使用预留的许可。
+ * Redis不可用时放行（只记录指标），不因限流组件故障中断抓取
+ */
+@Slf4j
+@Component
+public class UpstreamRateLimiter {
+
+    private static final String KEY_PREFIX = "rssNest:ratelimit:";
+
+    private static final String METRIC_ACQUIRE = "rss.upstream.ratelimit";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final DefaultRedisScript<Long> tokenBucketScript;
+
+    private final boolean enabled;
+
+    private final int localBatch;
+
+    private final long localLeaseMillis;
+
+    private final long maxWaitMillis;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 本地缓存的令牌，key: 令牌桶Key
+     */
+    private final Map<String, LocalTokens> localTokens = new ConcurrentHashMap<>();
+
+    /**
+     * 已预留的许可（网站与Host预算均已扣除），key: 网站ID与Host，maxWaitMillis内未使用即作废
+     */
+    private final Map<String, LocalTokens> reserved = new ConcurrentHashMap<>();
+
+    public UpstreamRateLimiter(@Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+                               @Qualifier("tokenBucketScript") DefaultRedisScript<Long> tokenBucketScript,
+                               @Value("${rss-nest.upstream.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${rss-nest.upstream.rate-limit.local-batch:5}") int localBatch,
+                               @Value("${rss-nest.upstream.rate-limit.local-lease-ms:1000}") long localLeaseMillis,
+                               @Value("${rss-nest.upstream.rate-limit.max-wait-ms:5000}") long maxWaitMillis,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.tokenBucketScript = tokenBucketScript;
+        this.enabled = enabled;
+        this.localBatch = Math.max(localBatch, 1);
+        this.localLeaseMillis = localLeaseMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取一次请求的许可，网站和Host的预算都满足时返回；预算不足时等待，最长等待maxWaitMillis
+     *
+     * @param siteId 网站ID
+     * @param url    请求URL
+     * @param config 限流配置，为null时不限流
+     * @throws UpstreamUnavailableException 等待超时
+     */
+    public void acquire(String siteId, String url, RateLimitConfig config) {
+        if (takeReserved(siteId, url, config)) {
+            return;
+        }
+        await(siteId, url, config);
+    }
+
+    /**
+     * 预留一次请求的许可，规则与{@link #acquire}相同；预留的许可在maxWaitMillis内由同一网站、Host的下一次acquire直接使用，
+     * 用于在占用生成许可之前完成限流等待。预留后未发出请求时许可作废（按消耗计，偏保守）
+     *
+     * @throws UpstreamUnavailableException 等待超时
+     */
+    public void reserve(String siteId, String url, RateLimitConfig config) {
+        await(siteId, url, config);
+        deposit(siteId, url, config);
+    }
+
+    /**
+     * 异步预留许可，规则与{@link #reserve}相同，等待期间不占用线程
+     */
+    public CompletableFuture<Void> reserveAsync(String siteId, String url, RateLimitConfig config) {
+        return acquireAsync(siteId, url, config, System.currentTimeMillis() + maxWaitMillis)
+                .thenRun(() -> deposit(siteId, url, config));
+    }
+
+    private void await(String siteId, String url, RateLimitConfig config) {
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        while (true) {
+            long waitMillis = tryAcquire(siteId, url, config);
+            if (waitMillis <= 0) {
+                return;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (waitMillis > remaining) {
+                throw limited(siteId, waitMillis);
+            }
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw limited(siteId, waitMillis);
+            }
+        }
+    }
+
+    /**
+     * 异步获取许可，规则与{@link #acquire(String, String, RateLimitConfig)}相同，等待期间不占用线程
+     *
+     * @return 获得许可时完成，等待超时时以UpstreamUnavailableException异常完成
+     */
+    public CompletableFuture<Void> acquireAsync(String siteId, String url, RateLimitConfig config) {
+        if (takeReserved(siteId, url, config)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return acquireAsync(siteId, url, config, System.currentTimeMillis() + maxWaitMillis);
+    }
+
+    private CompletableFuture<Void> acquireAsync(String siteId, String url, RateLimitConfig config, long deadline) {
+        long waitMillis = tryAcquire(siteId, url, config);
+        if (waitMillis <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (waitMillis > deadline - System.currentTimeMillis()) {
+            return CompletableFuture.failedFuture(limited(siteId, waitMillis));
+        }
+        return CompletableFuture.runAsync(() -> {
+                }, CompletableFuture.delayedExecutor(waitMillis, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> acquireAsync(siteId, url, config, deadline));
+    }
+
+    /**
+     * 尝试获取许可
+     * 网站预算已扣除但Host预算不足时，网站令牌退回本地，供下次使用
+     *
+     * @return 0表示获得许可，否则为建议等待的毫秒数
+     */
+    long tryAcquire(String siteId, String url, RateLimitConfig config) {
+        if (!enabled || config == null) {
+            return 0L;
+        }
+        String siteBucket = "site:" + siteId;
+        long wait = take(siteBucket, config.getSiteRatePerSecond(), config.getSiteBurst());
+        if (wait > 0) {
+            return wait;
+        }
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        if (httpUrl == null) {
+            return 0L;
+        }
+        wait = take("host:" + httpUrl.host(), config.getHostRatePerSecond(), config.getHostBurst());
+        if (wait > 0) {
+            LocalTokens local = localTokens.get(siteBucket);
+            if (local != null && config.getSiteRatePerSecond() != null && config.getSiteRatePerSecond() > 0) {
+                local.refund();
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * 使用预留的许可
+     */
+    private boolean takeReserved(String siteId, String url, RateLimitConfig config) {
+        if (!enabled || config == null) {
+            return false;
+        }
+        LocalTokens tokens = reserved.get(reservedKey(siteId, url));
+        return tokens != null && tokens.tryTake();
+    }
+
+    private void deposit(String siteId, String url, RateLimitConfig config) {
+        if (!enabled || config == null) {
+            return;
+        }
+        reserved.computeIfAbsent(reservedKey(siteId, url), k -> new LocalTokens())
+                .add(System.currentTimeMillis() + maxWaitMillis);
+    }
+
+    private static String reservedKey(String siteId, String url) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        return httpUrl != null ? siteId + "|" + httpUrl.host() : siteId;
+    }
+
+    /**
+     * 从令牌桶取一个令牌：优先使用本地令牌，不足时向Redis申请一批
+     *
+     * @return 0表示获得令牌，否则为建议等待的毫秒数
+     */
+    private long take(String bucket, Double ratePerSecond, Integer burst) {
+        if (ratePerSecond == null || ratePerSecond <= 0) {
+            return 0L;
+        }
+        LocalTokens local = localTokens.computeIfAbsent(bucket, k -> new LocalTokens());
+        if (local.tryTake()) {
+            record("local");
+            return 0L;
+        }
+
+        int capacity = burst != null && burst > 0 ? burst : (int) Math.ceil(ratePerSecond);
+        // 一批令牌不超过桶容量，也不超过租期内按速率可获得的数量
+        int batch = (int) Math.max(1, Math.min(localBatch,
+                Math.min(capacity, Math.floor(ratePerSecond * localLeaseMillis / 1000.0))));
+        long result;
+        try {
+            result = takeFromRedis(KEY_PREFIX + bucket, ratePerSecond, capacity, batch);
+        } catch (Exception e) {
+            log.debug("限流令牌获取失败，直接放行, bucket: {}, 错误: {}", bucket, e.getMessage());
+            record("error");
+            return 0L;
+        }
+        if (result > 0) {
+            local.refill((int) result - 1, System.currentTimeMillis() + localLeaseMillis);
+            record("redis");
+            return 0L;
+        }
+        record("limited");
+        return Math.max(-result, 1L);
+    }
+
+    /**
+     * 执行Redis令牌桶脚本
+     *
+     * @return 大于0为获得的令牌数，否则为需等待的毫秒数（负数）
+     */
+    long takeFromRedis(String key, double ratePerSecond, int capacity, int requested) {
+        Long result = redisTemplate.execute(tokenBucketScript, List.of(key),
+                String.valueOf(ratePerSecond), String.valueOf(capacity), String.valueOf(requested));
+        return result != null ? result : 1L;
+    }
+
+    private UpstreamUnavailableException limited(String siteId, long waitMillis) {
+        long retryAfter = Math.max(TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999), 1L);
+        return new UpstreamUnavailableException("上游请求超出限流预算: " + siteId, retryAfter);
+    }
+
+    private void record(String result) {
+        Counter.builder(METRIC_ACQUIRE)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 节点本地令牌，过期后作废
+     */
+    private static final class LocalTokens {
+
+        private final AtomicInteger tokens = new AtomicInteger();
+
+        private volatile long expiresAt;
+
+        boolean tryTake() {
+            if (System.currentTimeMillis() >= expiresAt) {
+                return false;
+            }
+            while (true) {
+                int current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void refill(int count, long expiresAt) {
+            tokens.set(count);
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * 退回一个未使用的令牌，已过期时作废
+         */
+        void refund() {
+            if (System.currentTimeMillis() < expiresAt) {
+                tokens.incrementAndGet();
+            }
+        }
+
+        /**
+         * 追加一个令牌并延长有效期，已过期的令牌先作废
+         */
+        synchronized void add(long expiresAt) {
+            if (System.currentTimeMillis() >= this.expiresAt) {
+                tokens.set(0);
+            }
+            tokens.incrementAndGet();
+            this.expiresAt = expiresAt;
+        }
+    }
+}
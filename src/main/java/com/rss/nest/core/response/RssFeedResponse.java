@@ -0,0 +1,122 @@
+package com.rss.nest.core.response;
+
+import com.rss.nest.core.cache.CachedFeed;
+import com.rss.nest.core.cache.FeedEncoding;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RSS订阅源响应构建
+ * 客户端支持缓存内容的压缩编码时直接透传压缩字节（Content-Encoding），否则解压后输出；
+ * 基于内容哈希输出强ETag并支持If-None-Match，压缩字节与解压后的内容是不同的表示，透传压缩字节时ETag追加编码后缀（如"1a2b3c-gzip"）；
+ * 上游不可用时返回的过期内容附带Age与Warning: 111头
+ */
+public class RssFeedResponse {
+
+    private static final MediaType XML_UTF8 = new MediaType(MediaType.APPLICATION_XML, StandardCharsets.UTF_8);
+
+    private static final String STALE_WARNING = "111 - \"Revalidation Failed\"";
+
+    /**
+     * 构建响应
+     *
+     * @param feed           缓存条目
+     * @param acceptEncoding 请求头Accept-Encoding
+     * @param ifNoneMatch    请求头If-None-Match
+     * @return HTTP响应
+     */
+    public static ResponseEntity<byte[]> of(CachedFeed feed, String acceptEncoding, String ifNoneMatch) {
+        FeedEncoding encoding = feed.getEncoding();
+        boolean passthrough = encoding != FeedEncoding.IDENTITY && acceptsEncoding(acceptEncoding, encoding.getCoding());
+        String etag = passthrough ? encodedETag(feed.getETag(), encoding) : feed.getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (feed.isStaleIfError()) {
+            long age = Math.max((System.currentTimeMillis() - feed.getCreatedAtMillis()) / 1000, 0);
+            headers.set(HttpHeaders.AGE, String.valueOf(age));
+            headers.set("Warning", STALE_WARNING);
+        }
+
+        if (matchesETag(ifNoneMatch, etag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(XML_UTF8);
+        if (passthrough) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding.getCoding());
+            return new ResponseEntity<>(feed.getBody(), headers, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(feed.getRawBytes(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * 压缩表示的ETag：在内容哈希后追加编码名
+     */
+    static String encodedETag(String etag, FeedEncoding encoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + encoding.getCoding() + "\"";
+    }
+
+    /**
+     * 判断Accept-Encoding是否接受指定编码（q=0视为不接受）
+     * 明确列出该编码时以其q值为准，否则看"*"，都没有时不接受
+     */
+    static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim();
+            if (name.equalsIgnoreCase(coding)) {
+                return !isRejected(tokens);
+            }
+            if ("*".equals(name)) {
+                wildcard = !isRejected(tokens);
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * 编码项的q值是否为0
+     */
+    private static boolean isRejected(String[] tokens) {
+        boolean rejected = false;
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    rejected = Double.parseDouble(param.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    rejected = false;
+                }
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * 判断If-None-Match是否命中当前ETag（支持弱校验和列表）
+     */
+    static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
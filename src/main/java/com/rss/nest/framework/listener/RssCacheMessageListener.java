@@ -0,0 +1,54 @@
+package com.rss.nest.framework.listener;
+
+import com.rss.nest.core.cache.CacheFillNotifier;
+import com.rss.nest.core.cache.CacheGenerations;
+import com.rss.nest.core.cache.LocalRssCache;
+import com.rss.nest.core.cache.RssCacheMessage;
+import com.rss.nest.core.cache.RssCacheMessagePublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 跨节点缓存消息监听器
+ * 收到其他节点的失效消息后清除本地L1缓存或更新网站缓存代数，并唤醒等待该缓存填充的请求
+ */
+@Slf4j
+@Service
+public class RssCacheMessageListener implements MessageListener {
+
+    @Autowired
+    private LocalRssCache localCache;
+
+    @Autowired
+    private RssCacheMessagePublisher messagePublisher;
+
+    @Autowired
+    private CacheFillNotifier fillNotifier;
+
+    @Autowired
+    private CacheGenerations generations;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        RssCacheMessage cacheMessage = RssCacheMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (cacheMessage == null || messagePublisher.isLocal(cacheMessage)) {
+            return;
+        }
+
+        log.debug("收到缓存消息, type: {}, payload: {}", cacheMessage.getType(), cacheMessage.getPayload());
+        switch (cacheMessage.getType()) {
+            case INVALIDATE_KEY -> {
+                localCache.invalidate(cacheMessage.getPayload());
+                fillNotifier.notifyFilled(cacheMessage.getPayload());
+            }
+            case GENERATION_CHANGED -> generations.onGenerationChanged(cacheMessage.getPayload());
+            case LOCK_RELEASED -> fillNotifier.notifyFilled(cacheMessage.getPayload());
+            default -> log.warn("未知的缓存消息类型: {}", cacheMessage.getType());
+        }
+    }
+}
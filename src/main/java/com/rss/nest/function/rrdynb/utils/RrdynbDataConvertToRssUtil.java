@@ -43,7 +43,7 @@ public class RrdynbDataConvertToRssUtil {
             String imageUrl = item.getImageUrl();
 
             //时间
-            Date createAtDate = DateParseUtil.parseDateStr(DateParseUtil.SDF_V1_YYYY_MM_DD, videoDateStr);
+            Date createAtDate = DateParseUtil.parseDateStr(DateParseUtil.FORMAT_V1_YYYY_MM_DD, videoDateStr);
             if (createAtDate == null) {
                 createAtDate = new Date();
             }
@@ -41,7 +41,7 @@ public class ZsxcoolDataConvertToRssUtil {
             String imageUrl = item.getDataBg();
 
             //时间,2024/6/29
-            Date createAtDate = DateParseUtil.parseDateStr(DateParseUtil.SDF_V2_YYYY_MM_DD, itemDateStr);
+            Date createAtDate = DateParseUtil.parseDateStr(DateParseUtil.FORMAT_V2_YYYY_MM_DD, itemDateStr);
             if (createAtDate == null) {
                 createAtDate = new Date();
             }
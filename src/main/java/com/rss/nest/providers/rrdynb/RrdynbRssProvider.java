@@ -102,6 +102,12 @@ public class RrdynbRssProvider extends AbstractRssProviderService {
         headers.put("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8");
         config.setHeaders(headers);
 
+        // 设置HTTP客户端配置
+        config.setHttpConfig(buildHttpConfig());
+
+        // 设置上游限流配置
+        config.setRateLimitConfig(buildRateLimitConfig());
+
         // 设置HTML解析配置
         config.setParseConfig(buildParseConfig());
 
@@ -114,6 +120,33 @@ public class RrdynbRssProvider extends AbstractRssProviderService {
         return config;
     }
 
+    /**
+     * 构建HTTP客户端配置
+     */
+    private HttpConfig buildHttpConfig() {
+        HttpConfig httpConfig = new HttpConfig();
+        httpConfig.setConnectTimeoutMs(10000L);
+        httpConfig.setReadTimeoutMs(20000L);
+        httpConfig.setMaxConnectionsPerHost(4);
+        httpConfig.setPreferHttp2(true);
+        httpConfig.setPrewarm(true);
+        // 上游偶发5xx与连接重置，允许重试一次（受重试预算约束）
+        httpConfig.setMaxRetries(1);
+        return httpConfig;
+    }
+
+    /**
+     * 构建上游限流配置（集群共享）
+     */
+    private RateLimitConfig buildRateLimitConfig() {
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        rateLimitConfig.setSiteRatePerSecond(1.0);
+        rateLimitConfig.setSiteBurst(5);
+        rateLimitConfig.setHostRatePerSecond(2.0);
+        rateLimitConfig.setHostBurst(10);
+        return rateLimitConfig;
+    }
+
     /**
      * 构建解析配置
      */
@@ -151,6 +184,9 @@ public class RrdynbRssProvider extends AbstractRssProviderService {
         customSelectors.put("director", ".brief"); // 导演信息
         parseConfig.setCustomSelectors(customSelectors);
 
+        // 列表页较大，边下载边提取，取满itemsPerPage条后停止
+        parseConfig.setStreaming(true);
+
         return parseConfig;
     }
 
@@ -166,7 +202,6 @@ public class RrdynbRssProvider extends AbstractRssProviderService {
         rssConfig.setGenerator("RSSNest");
         rssConfig.setItemsPerPage(20);
         rssConfig.setIncludeContent(true);
-        rssConfig.setIncludeImage(true);
         return rssConfig;
     }
 
@@ -176,7 +211,8 @@ public class RrdynbRssProvider extends AbstractRssProviderService {
     private CacheConfig buildCacheConfig() {
         CacheConfig cacheConfig = new CacheConfig();
         cacheConfig.setEnabled(true);
-        cacheConfig.setTtl(10800L); // 3小时
+        cacheConfig.setTtl(14400L); // 4小时（硬过期）
+        cacheConfig.setSoftTtl(10800L); // 3小时后返回旧内容并后台刷新
         cacheConfig.setCacheNullValues(false);
         cacheConfig.setKeyPrefix("rrdynb");
         return cacheConfig;
@@ -22,9 +22,6 @@ import java.time.Duration;
 @Service
 public class RedisServiceImpl implements IRedisService {
 
-    private static final String UNLOCK_SCRIPT =
-            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
-
     @Resource(name = "objRedisTemplate")
     private RedisTemplate<String, Object> objRedisTemplate;
 
@@ -0,0 +1,187 @@
+package com.rss.nest.utils.date;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日期格式注册表
+ * <p>
+ * 按格式字符串缓存线程安全的DateTimeFormatter，解析时不抛出异常（失败返回null）。
+ * 与SimpleDateFormat的习惯保持一致：
+ * <ul>
+ *     <li>数字字段宽度宽松，yyyy/MM/dd可以解析2024/6/29（字段之间有分隔符时）</li>
+ *     <li>只需匹配字符串开头，后面多余的文字忽略</li>
+ *     <li>按系统默认时区转换为Date</li>
+ * </ul>
+ * 与SimpleDateFormat不同的是，没有年份的格式（如MM-dd HH:mm）取不晚于当前时间的最近日期（当前年份，
+ * 跨年时为上一年），而不是1970年
+ */
+public final class DateFormatRegistry {
+
+    /**
+     * 缓存上限，格式来自代码与网站配置，正常情况下远小于该值
+     */
+    private static final int MAX_FORMATS = 256;
+
+    /**
+     * 没有年份的日期允许超前当前时间的范围，容忍网站与本机的时区差，超出时视为上一年
+     */
+    private static final Duration FUTURE_TOLERANCE = Duration.ofDays(1);
+
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    private DateFormatRegistry() {
+    }
+
+    /**
+     * 获取格式对应的解析器
+     *
+     * @param pattern 格式，如 yyyy-MM-dd HH:mm:ss
+     * @return 解析器
+     * @throws IllegalArgumentException 格式无效
+     */
+    public static DateTimeFormatter get(String pattern) {
+        DateTimeFormatter formatter = FORMATTERS.get(pattern);
+        if (formatter != null) {
+            return formatter;
+        }
+        formatter = new DateTimeFormatterBuilder()
+                .parseCaseInsensitive()
+                .appendPattern(lenientPattern(pattern))
+                .toFormatter(Locale.ROOT);
+        if (FORMATTERS.size() < MAX_FORMATS) {
+            FORMATTERS.putIfAbsent(pattern, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * 按格式解析字符串开头的日期
+     *
+     * @param pattern 格式
+     * @param text    日期字符串
+     * @return 解析结果，失败返回null
+     */
+    public static Date parse(String pattern, String text) {
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = parseUnresolved(pattern, text, position);
+        return parsed != null ? toDate(parsed) : null;
+    }
+
+    /**
+     * 解析但不转换，position记录解析结束的位置
+     *
+     * @return 解析出的字段，失败返回null
+     */
+    static TemporalAccessor parseUnresolved(String pattern, String text, ParsePosition position) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        TemporalAccessor parsed = get(pattern).parseUnresolved(text, position);
+        if (parsed == null || position.getErrorIndex() >= 0) {
+            return null;
+        }
+        return parsed;
+    }
+
+    /**
+     * 由解析出的字段构造Date，缺少的时间取0点
+     * 缺少年份时取当前年份，若得到的日期超前当前时间一天以上（如1月初解析到12-31），取上一年
+     *
+     * @return 日期，字段值无效时返回null
+     */
+    static Date toDate(TemporalAccessor parsed) {
+        return toDate(parsed, LocalDateTime.now());
+    }
+
+    /**
+     * 同{@link #toDate(TemporalAccessor)}，指定当前时间
+     */
+    static Date toDate(TemporalAccessor parsed, LocalDateTime now) {
+        try {
+            boolean hasYear = parsed.isSupported(ChronoField.YEAR) || parsed.isSupported(ChronoField.YEAR_OF_ERA);
+            int year = parsed.isSupported(ChronoField.YEAR) ? (int) parsed.getLong(ChronoField.YEAR)
+                    : parsed.isSupported(ChronoField.YEAR_OF_ERA) ? (int) parsed.getLong(ChronoField.YEAR_OF_ERA)
+                    : now.getYear();
+            int month = field(parsed, ChronoField.MONTH_OF_YEAR, 1);
+            int day = field(parsed, ChronoField.DAY_OF_MONTH, 1);
+            int hour;
+            if (parsed.isSupported(ChronoField.HOUR_OF_DAY)) {
+                hour = (int) parsed.getLong(ChronoField.HOUR_OF_DAY);
+            } else {
+                hour = field(parsed, ChronoField.CLOCK_HOUR_OF_AMPM, 12) % 12
+                        + 12 * field(parsed, ChronoField.AMPM_OF_DAY, 0);
+            }
+            LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour,
+                    field(parsed, ChronoField.MINUTE_OF_HOUR, 0), field(parsed, ChronoField.SECOND_OF_MINUTE, 0));
+            if (!hasYear && dateTime.isAfter(now.plus(FUTURE_TOLERANCE))) {
+                dateTime = dateTime.minusYears(1);
+            }
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int field(TemporalAccessor parsed, ChronoField field, int defaultValue) {
+        return parsed.isSupported(field) ? (int) parsed.getLong(field) : defaultValue;
+    }
+
+    /**
+     * 数字字段之间都有分隔符时，把MM、dd、HH等两位字段改为不限宽度，行为与SimpleDateFormat一致；
+     * 字段相邻（如yyyyMMdd）时保持原格式，依赖固定宽度切分
+     */
+    static String lenientPattern(String pattern) {
+        StringBuilder result = new StringBuilder(pattern.length());
+        boolean quoted = false;
+        char previousLetter = 0;
+        boolean adjacent = false;
+        for (int i = 0; i < pattern.length(); ) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                previousLetter = 0;
+                result.append(c);
+                i++;
+                continue;
+            }
+            if (quoted || !isAsciiLetter(c)) {
+                previousLetter = 0;
+                result.append(c);
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < pattern.length() && pattern.charAt(end) == c) {
+                end++;
+            }
+            if (previousLetter != 0) {
+                adjacent = true;
+            }
+            int length = end - i;
+            if (length == 2 && "MdHhms".indexOf(c) >= 0) {
+                result.append(c);
+            } else {
+                result.append(pattern, i, end);
+            }
+            previousLetter = c;
+            i = end;
+        }
+        return adjacent ? pattern : result.toString();
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,154 @@
+package com.rss.nest.utils.date;
+
+import java.text.ParsePosition;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自动识别格式的日期解析器（线程安全）
+ * <p>
+ * 先按字符串的形状（数字段与分隔符的排列，如 2024-01-02 12:30 为 Y-N-N N:N）直接选出格式，不逐个尝试；
+ * 形状未知时依次尝试常见格式，取匹配最长的一个，并按形状记住成功的格式，同一网站后续的日期直接使用。
+ * 每个网站（解析配置）使用一个实例，记忆互不影响
+ */
+public class DateParser {
+
+    /**
+     * 形状未知时依次尝试的格式
+     */
+    static final List<String> FORMATS = List.of(
+            "yyyy-MM-dd HH:mm:ss",
+            "yyyy-MM-dd HH:mm",
+            "yyyy-MM-dd",
+            "yyyy/MM/dd HH:mm:ss",
+            "yyyy/MM/dd HH:mm",
+            "yyyy/MM/dd",
+            "yyyy年MM月dd日 HH:mm:ss",
+            "yyyy年MM月dd日 HH:mm",
+            "yyyy年MM月dd日",
+            "yyyy.MM.dd",
+            "MM-dd HH:mm",
+            "MM/dd HH:mm"
+    );
+
+    /**
+     * 已知形状对应的格式，Y为4位数字，N为其他长度的数字
+     */
+    private static final Map<String, String> SHAPES = Map.ofEntries(
+            Map.entry("Y-N-N N:N:N", "yyyy-MM-dd HH:mm:ss"),
+            Map.entry("Y-N-NTN:N:N", "yyyy-MM-dd'T'HH:mm:ss"),
+            Map.entry("Y-N-N N:N", "yyyy-MM-dd HH:mm"),
+            Map.entry("Y-N-N", "yyyy-MM-dd"),
+            Map.entry("Y/N/N N:N:N", "yyyy/MM/dd HH:mm:ss"),
+            Map.entry("Y/N/N N:N", "yyyy/MM/dd HH:mm"),
+            Map.entry("Y/N/N", "yyyy/MM/dd"),
+            Map.entry("Y年N月N日 N:N:N", "yyyy年MM月dd日 HH:mm:ss"),
+            Map.entry("Y年N月N日 N:N", "yyyy年MM月dd日 HH:mm"),
+            Map.entry("Y年N月N日", "yyyy年MM月dd日"),
+            Map.entry("Y.N.N", "yyyy.MM.dd"),
+            Map.entry("N-N N:N", "MM-dd HH:mm"),
+            Map.entry("N/N N:N", "MM/dd HH:mm")
+    );
+
+    /**
+     * 记忆的形状数上限
+     */
+    private static final int MAX_LEARNED = 64;
+
+    /**
+     * 形状未知时尝试成功的格式，key: 形状
+     */
+    private final Map<String, String> learned = new ConcurrentHashMap<>();
+
+    /**
+     * 解析日期
+     *
+     * @param text 日期字符串（可以带有后续文字）
+     * @return 日期，无法识别时返回null
+     */
+    public Date parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+
+        String shape = shapeOf(trimmed);
+        String pattern = SHAPES.get(shape);
+        if (pattern == null) {
+            pattern = learned.get(shape);
+        }
+        if (pattern != null) {
+            Date date = DateFormatRegistry.parse(pattern, trimmed);
+            if (date != null) {
+                return date;
+            }
+        }
+        return parseByTrial(shape, trimmed);
+    }
+
+    /**
+     * 依次尝试常见格式，取解析位置最靠后（匹配最完整）的结果
+     */
+    private Date parseByTrial(String shape, String text) {
+        TemporalAccessor best = null;
+        String bestPattern = null;
+        int bestIndex = -1;
+        for (String format : FORMATS) {
+            ParsePosition position = new ParsePosition(0);
+            TemporalAccessor parsed = DateFormatRegistry.parseUnresolved(format, text, position);
+            if (parsed != null && position.getIndex() > bestIndex) {
+                best = parsed;
+                bestPattern = format;
+                bestIndex = position.getIndex();
+            }
+        }
+        Date date = best != null ? DateFormatRegistry.toDate(best) : null;
+        if (date != null && learned.size() < MAX_LEARNED) {
+            learned.put(shape, bestPattern);
+        }
+        return date;
+    }
+
+    /**
+     * 字符串开头日期部分的形状：4位数字为Y，其他数字段为N，分隔符原样保留，连续空白合并为一个空格；
+     * 遇到其他字符时结束
+     */
+    static String shapeOf(String text) {
+        StringBuilder shape = new StringBuilder(16);
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int start = i;
+                while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                }
+                shape.append(i - start == 4 ? 'Y' : 'N');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                shape.append(' ');
+            } else if ("-/:.年月日T".indexOf(c) >= 0) {
+                shape.append(c);
+                i++;
+            } else {
+                break;
+            }
+        }
+        // 去掉结尾的空白与分隔符（"日"是格式的一部分，保留）
+        int end = shape.length();
+        while (end > 0 && " -/:.T".indexOf(shape.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        shape.setLength(end);
+        return shape.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.rss.nest.utils.hash;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Lemon695
+ * @description: 内容哈希（非加密，MurmurHash3 128位取低64位），用于判断内容是否变化
+ */
+public class ContentHashUtil {
+
+    /**
+     * 计算字节数组的64位哈希
+     *
+     * @param bytes 内容
+     * @return 哈希值
+     */
+    public static long hash64(byte[] bytes) {
+        return MurmurHash3.hash128x64(bytes)[0];
+    }
+
+    /**
+     * 计算字符串（UTF-8）的64位哈希
+     *
+     * @param content 内容
+     * @return 哈希值
+     */
+    public static long hash64(String content) {
+        return hash64(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 哈希值转为16进制字符串
+     */
+    public static String toHex(long hash) {
+        return Long.toHexString(hash);
+    }
+}
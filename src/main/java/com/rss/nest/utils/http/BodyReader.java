@@ -0,0 +1,22 @@
+package com.rss.nest.utils.http;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 流式读取响应体
+ * 可以只读取需要的部分后返回，剩余内容不再下载（连接随之关闭）
+ *
+ * @param <T> 读取结果类型
+ */
+@FunctionalInterface
+public interface BodyReader<T> {
+
+    /**
+     * @param body 按响应字符集解码的响应体
+     * @param url  最终请求URL（用于解析相对链接）
+     * @return 读取结果
+     * @throws IOException 读取失败
+     */
+    T read(Reader body, String url) throws IOException;
+}
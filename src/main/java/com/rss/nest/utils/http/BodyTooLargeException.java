@@ -0,0 +1,23 @@
+package com.rss.nest.utils.http;
+
+import java.io.IOException;
+
+/**
+ * 响应体超过允许的最大字节数
+ */
+public class BodyTooLargeException extends IOException {
+
+    /**
+     * 允许的最大字节数
+     */
+    private final long maxBytes;
+
+    public BodyTooLargeException(long maxBytes, String message) {
+        super(message);
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,77 @@
+package com.rss.nest.utils.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 限制最大读取字节数的输入流
+ * 超过上限时立即抛出BodyTooLargeException，不再继续下载
+ */
+public class BoundedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+
+    private long count;
+
+    /**
+     * @param in       原始输入流
+     * @param maxBytes 最大字节数，不大于0表示不限制
+     */
+    public BoundedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            consumed(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            consumed(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的内容同样计入读取字节数
+        byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * 已读取的字节数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private void consumed(int n) throws IOException {
+        count += n;
+        if (maxBytes > 0 && count > maxBytes) {
+            throw new BodyTooLargeException(maxBytes, "Response body exceeds " + maxBytes + " bytes");
+        }
+    }
+}
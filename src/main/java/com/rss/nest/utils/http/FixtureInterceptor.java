@@ -0,0 +1,206 @@
+package com.rss.nest.utils.http;
+
+import com.rss.nest.utils.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 上游响应录制与回放（用于离线压测）
+ * <p>
+ * record模式下正常请求上游，并把每个响应（状态码、响应头、响应体）保存到本地目录；
+ * replay模式下不访问网络，按请求方法与URL从目录读取录制的响应，可配置人工延迟与错误注入。
+ * 文件名为md5(方法 + URL)，元数据为.json，响应体为.body
+ */
+@Slf4j
+public class FixtureInterceptor implements Interceptor {
+
+    /**
+     * 不录制的响应头：响应体已由OkHttp解压，长度按录制内容重新计算
+     */
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private final FixtureMode mode;
+
+    private final Path directory;
+
+    private final long latencyMillis;
+
+    private final long latencyJitterMillis;
+
+    private final double errorRate;
+
+    private final int errorStatus;
+
+    /**
+     * @param mode                录制/回放模式
+     * @param directory           录制文件目录
+     * @param latencyMillis       回放时每个响应的延迟
+     * @param latencyJitterMillis 回放延迟的随机抖动（0到该值之间）
+     * @param errorRate           回放时注入错误的比例（0-1）
+     * @param errorStatus         注入错误的状态码，不大于0时注入网络错误（IOException）
+     */
+    public FixtureInterceptor(FixtureMode mode, Path directory, long latencyMillis, long latencyJitterMillis,
+                              double errorRate, int errorStatus) {
+        this.mode = mode;
+        this.directory = directory;
+        this.latencyMillis = Math.max(latencyMillis, 0);
+        this.latencyJitterMillis = Math.max(latencyJitterMillis, 0);
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        switch (mode) {
+            case RECORD:
+                return record(chain);
+            case REPLAY:
+                return replay(chain.request());
+            default:
+                return chain.proceed(chain.request());
+        }
+    }
+
+    /**
+     * 请求上游并保存响应；304不保存，避免覆盖已录制的完整内容
+     */
+    private Response record(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        ResponseBody body = response.body();
+        if (response.code() == 304 || body == null) {
+            return response;
+        }
+
+        MediaType contentType = body.contentType();
+        byte[] bytes = body.bytes();
+        try {
+            save(response, bytes);
+        } catch (IOException e) {
+            log.warn("保存录制响应失败, URL: {}, 错误: {}", response.request().url(), e.getMessage());
+        }
+        return response.newBuilder()
+                .body(ResponseBody.create(bytes, contentType))
+                .build();
+    }
+
+    private void save(Response response, byte[] bytes) throws IOException {
+        Request request = response.request();
+        HttpFixture fixture = new HttpFixture();
+        fixture.setMethod(request.method());
+        fixture.setUrl(request.url().toString());
+        fixture.setStatusCode(response.code());
+        fixture.setMessage(response.message());
+        fixture.setHeaders(response.headers().toMultimap());
+        fixture.getHeaders().keySet().removeIf(SKIPPED_HEADERS::contains);
+        fixture.setRecordedAt(LocalDateTime.now().toString());
+
+        Files.createDirectories(directory);
+        String key = key(request);
+        // 先写临时文件再替换，并发录制同一URL时不会读到半个文件
+        writeAtomically(directory.resolve(key + ".body"), bytes);
+        writeAtomically(directory.resolve(key + ".json"), JsonUtil.toJson(fixture, true).getBytes(StandardCharsets.UTF_8));
+        log.debug("已录制响应, URL: {}, 状态码: {}, {}字节", fixture.getUrl(), fixture.getStatusCode(), bytes.length);
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 按录制内容返回响应；未录制的URL返回404
+     */
+    private Response replay(Request request) throws IOException {
+        long sentAt = System.currentTimeMillis();
+        sleep(latencyMillis + (latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1) : 0));
+
+        Response.Builder builder = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .sentRequestAtMillis(sentAt);
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            if (errorStatus <= 0) {
+                throw new IOException("Injected fixture failure: " + request.url());
+            }
+            return builder.code(errorStatus)
+                    .message("Injected Error")
+                    .body(ResponseBody.create(new byte[0], null))
+                    .receivedResponseAtMillis(System.currentTimeMillis())
+                    .build();
+        }
+
+        String key = key(request);
+        Path meta = directory.resolve(key + ".json");
+        if (!Files.exists(meta)) {
+            log.warn("未找到录制响应, URL: {}", request.url());
+            return builder.code(404)
+                    .message("Fixture Not Found")
+                    .body(ResponseBody.create(new byte[0], null))
+                    .receivedResponseAtMillis(System.currentTimeMillis())
+                    .build();
+        }
+
+        HttpFixture fixture = JsonUtil.fromJson(Files.readString(meta, StandardCharsets.UTF_8), HttpFixture.class);
+        byte[] bytes = Files.readAllBytes(directory.resolve(key + ".body"));
+        Headers.Builder headers = new Headers.Builder();
+        if (fixture.getHeaders() != null) {
+            fixture.getHeaders().forEach((name, values) -> values.forEach(value -> headers.add(name, value)));
+        }
+        String contentType = headers.get("Content-Type");
+        return builder.code(fixture.getStatusCode())
+                .message(fixture.getMessage() != null ? fixture.getMessage() : "")
+                .headers(headers.build())
+                .body(ResponseBody.create(bytes, contentType != null ? MediaType.parse(contentType) : null))
+                .receivedResponseAtMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("回放延迟被中断");
+        }
+    }
+
+    /**
+     * 录制文件名：md5(方法 + URL)
+     */
+    static String key(Request request) {
+        return DigestUtils.md5DigestAsHex((request.method() + " " + request.url()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 录制/回放模式
+     */
+    public enum FixtureMode {
+        /**
+         * 正常请求上游
+         */
+        OFF,
+        /**
+         * 请求上游并录制响应
+         */
+        RECORD,
+        /**
+         * 只回放录制的响应，不访问网络
+         */
+        REPLAY
+    }
+}
@@ -0,0 +1,77 @@
+package com.rss.nest.utils.http;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTML字符集识别
+ * 优先使用响应头声明的字符集，其次为BOM，再次为文档开头的meta标签，均没有时使用UTF-8
+ */
+public final class HtmlCharsetDetector {
+
+    /**
+     * 查找meta标签时读取的最大字节数
+     */
+    private static final int SNIFF_BYTES = 4096;
+
+    private static final Pattern META_CHARSET = Pattern.compile(
+            "<meta[^>]+charset\\s*=\\s*[\"']?\\s*([a-zA-Z0-9_:.\\-]+)", Pattern.CASE_INSENSITIVE);
+
+    private HtmlCharsetDetector() {
+    }
+
+    /**
+     * 以识别出的字符集打开响应体
+     *
+     * @param in       响应体
+     * @param declared 响应头声明的字符集，可为null
+     * @return 解码后的Reader（已跳过BOM）
+     * @throws IOException 读取失败
+     */
+    public static Reader open(InputStream in, Charset declared) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, SNIFF_BYTES);
+        buffered.mark(SNIFF_BYTES);
+        byte[] head = buffered.readNBytes(SNIFF_BYTES);
+        buffered.reset();
+
+        int bomLength = 0;
+        Charset charset = declared;
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            bomLength = 3;
+            charset = charset != null ? charset : StandardCharsets.UTF_8;
+        } else if (head.length >= 2 && (head[0] & 0xFF) == 0xFE && (head[1] & 0xFF) == 0xFF) {
+            bomLength = 2;
+            charset = StandardCharsets.UTF_16BE;
+        } else if (head.length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE) {
+            bomLength = 2;
+            charset = StandardCharsets.UTF_16LE;
+        }
+        if (charset == null) {
+            charset = fromMeta(head);
+        }
+        buffered.skipNBytes(bomLength);
+        return new InputStreamReader(buffered, charset);
+    }
+
+    /**
+     * 从文档开头的meta标签识别字符集，不支持或没有时为UTF-8
+     */
+    static Charset fromMeta(byte[] head) {
+        Matcher matcher = META_CHARSET.matcher(new String(head, StandardCharsets.ISO_8859_1));
+        if (matcher.find()) {
+            try {
+                return Charset.forName(matcher.group(1));
+            } catch (IllegalArgumentException e) {
+                // 不支持的字符集
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
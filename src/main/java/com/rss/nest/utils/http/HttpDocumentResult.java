@@ -0,0 +1,51 @@
+package com.rss.nest.utils.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jsoup.nodes.Document;
+
+/**
+ * HTTP抓取并解析的结果
+ * 响应体以字节读入后计算哈希再解析为Document，不生成完整的字符串副本
+ */
+@Getter
+@AllArgsConstructor
+public class HttpDocumentResult {
+
+    /**
+     * HTTP状态码
+     */
+    private final int statusCode;
+
+    /**
+     * 解析后的文档，304或内容哈希与上一版相同（未解析）时为null
+     */
+    private final Document document;
+
+    /**
+     * 响应头ETag
+     */
+    private final String etag;
+
+    /**
+     * 响应头Last-Modified
+     */
+    private final String lastModified;
+
+    /**
+     * 响应体原始字节的64位哈希（ContentHashUtil.hash64），304时为0
+     */
+    private final long bodyHash;
+
+    /**
+     * 响应体字节数，304时为0
+     */
+    private final long bodyBytes;
+
+    /**
+     * 是否为304（内容未修改）
+     */
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rss.nest.utils.http;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 录制的上游响应元数据，响应体单独保存为同名.body文件
+ */
+@Data
+public class HttpFixture {
+
+    /**
+     * 请求方法
+     */
+    private String method;
+
+    /**
+     * 请求URL
+     */
+    private String url;
+
+    /**
+     * HTTP状态码
+     */
+    private int statusCode;
+
+    /**
+     * 状态描述
+     */
+    private String message;
+
+    /**
+     * 响应头
+     */
+    private Map<String, List<String>> headers;
+
+    /**
+     * 录制时间
+     */
+    private String recordedAt;
+}
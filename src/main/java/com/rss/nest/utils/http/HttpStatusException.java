@@ -0,0 +1,30 @@
+package com.rss.nest.utils.http;
+
+import java.io.IOException;
+
+/**
+ * 上游返回非2xx（且非304）响应
+ */
+public class HttpStatusException extends IOException {
+
+    /**
+     * HTTP状态码
+     */
+    private final int statusCode;
+
+    public HttpStatusException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 是否为可重试的状态码（5xx或429）
+     */
+    public boolean isRetryable() {
+        return statusCode >= 500 || statusCode == 429;
+    }
+}
@@ -0,0 +1,46 @@
+package com.rss.nest.utils.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * HTTP抓取并流式读取的结果
+ *
+ * @param <T> 读取结果类型
+ */
+@Getter
+@AllArgsConstructor
+public class HttpStreamResult<T> {
+
+    /**
+     * HTTP状态码
+     */
+    private final int statusCode;
+
+    /**
+     * BodyReader的读取结果，304时为null
+     */
+    private final T value;
+
+    /**
+     * 响应头ETag
+     */
+    private final String etag;
+
+    /**
+     * 响应头Last-Modified
+     */
+    private final String lastModified;
+
+    /**
+     * 实际读取的响应体字节数（提前结束时小于响应体大小），304时为0
+     */
+    private final long bytesRead;
+
+    /**
+     * 是否为304（内容未修改）
+     */
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+}
@@ -0,0 +1,56 @@
+package com.rss.nest.utils.http;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 最近请求耗时的滑动样本，用于估算P95（对冲延迟）
+ * 保留最近SIZE个样本，每记录RECOMPUTE_INTERVAL个样本重新计算一次
+ */
+public class LatencyTracker {
+
+    private static final int SIZE = 256;
+
+    private static final int MIN_SAMPLES = 20;
+
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile long p95 = -1L;
+
+    /**
+     * 记录一次耗时
+     *
+     * @param millis 耗时（毫秒）
+     */
+    public void record(long millis) {
+        // 计数溢出前回绕到SIZE，保持为正且样本数视为已满
+        int n = count.getAndUpdate(c -> c == Integer.MAX_VALUE ? SIZE : c + 1);
+        samples.set(Math.floorMod(n, SIZE), millis);
+        if (n + 1 >= MIN_SAMPLES && (n + 1) % RECOMPUTE_INTERVAL == 0) {
+            p95 = compute(Math.min(n + 1, SIZE));
+        }
+    }
+
+    /**
+     * P95耗时（毫秒）
+     *
+     * @return 样本不足时返回-1
+     */
+    public long p95() {
+        return p95;
+    }
+
+    private long compute(int size) {
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        return copy[Math.min((int) Math.ceil(size * 0.95) - 1, size - 1)];
+    }
+}
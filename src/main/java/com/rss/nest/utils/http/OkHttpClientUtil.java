@@ -1,10 +1,23 @@
 package com.rss.nest.utils.http;
 
 import lombok.extern.slf4j.Slf4j;
+import com.rss.nest.utils.hash.ContentHashUtil;
 import okhttp3.*;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
 
 /**
  * @author Lemon695
@@ -20,13 +33,41 @@ public class OkHttpClientUtil {
      */
     private static final String DEFAULT_MEDIA_TYPE = "application/json; charset=utf-8";
 
+    /**
+     * 重试预算最多积累的额度
+     */
+    private static final int RETRY_BUDGET_MAX_BALANCE = 10;
+
     /**
      * OkHttpClient请求方法
      */
     private final OkHttpClient okHttpClient;
 
+    /**
+     * 重试与对冲策略
+     */
+    private final RetryPolicy retryPolicy;
+
+    private final RetryBudget retryBudget;
+
+    private final LatencyTracker latencyTracker = new LatencyTracker();
+
+    @Autowired
     public OkHttpClientUtil(OkHttpClient okHttpClient) {
+        this(okHttpClient, RetryPolicy.NONE);
+    }
+
+    public OkHttpClientUtil(OkHttpClient okHttpClient, RetryPolicy retryPolicy) {
         this.okHttpClient = okHttpClient;
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = new RetryBudget(retryPolicy.getBudgetRatio(), RETRY_BUDGET_MAX_BALANCE);
+    }
+
+    /**
+     * 获取底层的OkHttpClient
+     */
+    public OkHttpClient getClient() {
+        return okHttpClient;
     }
 
     /**
@@ -34,31 +75,334 @@ public class OkHttpClientUtil {
      *
      * @param url     请求路径
      * @param headers 请求头
-     * @return 响应内容
+     * @return 响应内容，请求失败时返回空字符串
      */
     public String doGet(String url, Headers headers) {
         try {
-            Request request = new Request.Builder()
-                    .url(url)
-                    .headers(headers)
-                    .build();
-
-            try (Response response = okHttpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new IOException("Unexpected HTTP response: " + response);
-                }
-                ResponseBody body = response.body();
-                if (body != null) {
-                    return body.string();
-                } else {
-                    throw new RuntimeException("Response body is null");
-                }
-            }
+            return fetch(url, headers, response -> successBody(response).string());
         } catch (IOException ex) {
             log.error("An error occurred while executing GET request", ex);
             return "";
         }
     }
 
+    /**
+     * 发送GET请求，读取响应体并计算内容哈希（{@link ContentHashUtil#hash64(byte[])}），再解析为Document
+     * 响应体以字节数组读入（不超过maxBodyBytes），不生成完整的响应字符串；哈希满足unchanged（内容与上一版相同）时
+     * 不解析，直接返回哈希。字符集优先取Content-Type响应头，缺失或不支持时由Jsoup按BOM与meta标签识别（默认UTF-8）。
+     * 请求头中携带If-None-Match或If-Modified-Since时，上游可能返回304。
+     * 按重试策略对网络错误、5xx与429重试（带抖动的指数退避），响应体超限不重试；启用对冲时等同于等待异步请求的结果
+     *
+     * @param url          请求路径
+     * @param headers      请求头
+     * @param maxBodyBytes 响应体最大字节数，不大于0表示不限制
+     * @param unchanged    按内容哈希判断内容是否未变化，返回true时不解析
+     * @return 抓取结果，304或内容未变化时Document为null
+     * @throws BodyTooLargeException 响应体超过maxBodyBytes
+     * @throws IOException           网络错误、非2xx且非304响应或响应体为空
+     */
+    public HttpDocumentResult fetchDocument(String url, Headers headers, long maxBodyBytes, LongPredicate unchanged)
+            throws IOException {
+        return fetch(url, headers, response -> toDocumentResult(response, maxBodyBytes, unchanged));
+    }
+
+    /**
+     * 异步发送GET请求并解析为Document（基于OkHttp的enqueue，等待网络期间不占用调用线程），
+     * 读取与解析在OkHttp回调线程中进行。取消返回的Future会同时取消底层请求。
+     * 规则同{@link #fetchDocument}；启用对冲时，请求超过P95耗时仍未返回则再发一个相同请求，取先成功的结果并取消另一个
+     *
+     * @param url          请求路径
+     * @param headers      请求头
+     * @param timeout      单次调用的超时时间，为null时使用客户端默认配置
+     * @param maxBodyBytes 响应体最大字节数，不大于0表示不限制
+     * @param unchanged    按内容哈希判断内容是否未变化，返回true时不解析
+     * @return 抓取结果，失败时以IOException异常完成
+     */
+    public CompletableFuture<HttpDocumentResult> fetchDocumentAsync(String url, Headers headers, Duration timeout,
+                                                                    long maxBodyBytes, LongPredicate unchanged) {
+        return fetchAsync(url, headers, timeout, response -> toDocumentResult(response, maxBodyBytes, unchanged));
+    }
+
+    /**
+     * 发送GET请求并流式读取响应体，BodyReader可以在读到需要的内容后提前返回，剩余响应体不再下载。
+     * 字符集优先取Content-Type响应头，其次为BOM与meta标签，默认UTF-8。重试与对冲规则同{@link #fetchDocument}
+     *
+     * @param url          请求路径
+     * @param headers      请求头
+     * @param maxBodyBytes 最多读取的响应体字节数，不大于0表示不限制
+     * @param bodyReader   响应体读取方式
+     * @return 抓取结果，304时读取结果为null
+     * @throws BodyTooLargeException 读取超过maxBodyBytes
+     * @throws IOException           网络错误、非2xx且非304响应或响应体为空
+     */
+    public <T> HttpStreamResult<T> fetchStream(String url, Headers headers, long maxBodyBytes,
+                                               BodyReader<T> bodyReader) throws IOException {
+        return fetch(url, headers, response -> toStreamResult(response, maxBodyBytes, bodyReader));
+    }
+
+    /**
+     * 异步发送GET请求并流式读取响应体，读取在OkHttp回调线程中进行
+     * 规则同{@link #fetchStream}与{@link #fetchDocumentAsync}
+     *
+     * @return 抓取结果，失败时以IOException异常完成
+     */
+    public <T> CompletableFuture<HttpStreamResult<T>> fetchStreamAsync(String url, Headers headers, Duration timeout,
+                                                                       long maxBodyBytes, BodyReader<T> bodyReader) {
+        return fetchAsync(url, headers, timeout, response -> toStreamResult(response, maxBodyBytes, bodyReader));
+    }
+
+    private <T> T fetch(String url, Headers headers, ResponseReader<T> reader) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .headers(headers)
+                .build();
+
+        if (!retryPolicy.isEnabled()) {
+            return execute(request, reader);
+        }
+        if (retryPolicy.isHedge()) {
+            return await(fetchAsync(url, headers, null, reader));
+        }
+
+        retryBudget.onRequest();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return execute(request, reader);
+            } catch (IOException e) {
+                if (!shouldRetry(e, attempt, null)) {
+                    throw e;
+                }
+                long delay = retryDelayMillis(attempt + 1);
+                log.debug("GET请求失败，{}ms后重试, URL: {}, 第{}次重试, 错误: {}", delay, url, attempt + 1, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("重试等待被中断");
+                }
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> fetchAsync(String url, Headers headers, Duration timeout,
+                                                ResponseReader<T> reader) {
+        Request request = new Request.Builder()
+                .url(url)
+                .headers(headers)
+                .build();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Set<Call> calls = ConcurrentHashMap.newKeySet();
+        future.whenComplete((result, error) -> calls.forEach(Call::cancel));
+        if (retryPolicy.isEnabled()) {
+            retryBudget.onRequest();
+        }
+        attemptAsync(request, timeout, 0, calls, reader, future);
+        return future;
+    }
+
+    /**
+     * 发起一轮异步请求（含可能的对冲请求），全部失败时按策略重试
+     */
+    private <T> void attemptAsync(Request request, Duration timeout, int attempt, Set<Call> calls,
+                                  ResponseReader<T> reader, CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return;
+        }
+        // 本轮进行中的请求数，归零表示本轮全部失败
+        AtomicInteger pending = new AtomicInteger(1);
+        Callback callback = new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                calls.remove(call);
+                if (pending.decrementAndGet() > 0 || future.isDone()) {
+                    return;
+                }
+                if (!shouldRetry(e, attempt, call)) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                long delay = retryDelayMillis(attempt + 1);
+                log.debug("GET请求失败，{}ms后重试, URL: {}, 第{}次重试, 错误: {}",
+                        delay, request.url(), attempt + 1, e.getMessage());
+                CompletableFuture.runAsync(() -> attemptAsync(request, timeout, attempt + 1, calls, reader, future),
+                        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                T result;
+                try (response) {
+                    result = reader.read(response);
+                } catch (IOException e) {
+                    onFailure(call, e);
+                    return;
+                } catch (RuntimeException e) {
+                    // 解析异常不重试，直接结束，避免Future永远不完成
+                    calls.remove(call);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                calls.remove(call);
+                latencyTracker.record(response.receivedResponseAtMillis() - response.sentRequestAtMillis());
+                future.complete(result);
+            }
+        };
+        enqueue(request, timeout, calls, callback);
+
+        if (retryPolicy.isHedge()) {
+            long delay = Math.max(retryPolicy.getHedgeMinDelayMillis(), latencyTracker.p95());
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> {
+                // 本轮仍在进行且有预算时才发出对冲请求
+                if (future.isDone() || pending.getAndUpdate(p -> p > 0 ? p + 1 : p) == 0) {
+                    return;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    pending.decrementAndGet();
+                    return;
+                }
+                log.debug("请求超过{}ms未返回，发送对冲请求, URL: {}", delay, request.url());
+                enqueue(request, timeout, calls, callback);
+            });
+        }
+    }
+
+    private void enqueue(Request request, Duration timeout, Set<Call> calls, Callback callback) {
+        Call call = okHttpClient.newCall(request);
+        if (timeout != null) {
+            call.timeout().timeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        calls.add(call);
+        call.enqueue(callback);
+    }
+
+    /**
+     * 同步执行一次请求
+     */
+    private <T> T execute(Request request, ResponseReader<T> reader) throws IOException {
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            T result = reader.read(response);
+            latencyTracker.record(response.receivedResponseAtMillis() - response.sentRequestAtMillis());
+            return result;
+        }
+    }
+
+    /**
+     * 是否重试：未超过次数、错误可重试（网络错误、5xx、429，且不是主动取消或响应体超限）并且预算充足
+     */
+    private boolean shouldRetry(IOException e, int attempt, Call call) {
+        if (attempt >= retryPolicy.getMaxRetries() || (call != null && call.isCanceled())) {
+            return false;
+        }
+        if (e instanceof HttpStatusException && !((HttpStatusException) e).isRetryable()) {
+            return false;
+        }
+        if (e instanceof BodyTooLargeException) {
+            return false;
+        }
+        return retryBudget.tryWithdraw();
+    }
+
+    /**
+     * 第n次重试前的等待时间：base * 2^(n-1)，带±50%抖动
+     */
+    private long retryDelayMillis(int retry) {
+        long delay = retryPolicy.getBackoffMillis() << Math.min(retry - 1, 10);
+        return (long) (delay * (0.5 + ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * 同步等待异步请求结果，被中断时取消请求
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("请求等待被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * 读取响应体（限制大小）并计算内容哈希，哈希满足unchanged时不解析，否则解析为Document
+     */
+    private HttpDocumentResult toDocumentResult(Response response, long maxBodyBytes, LongPredicate unchanged)
+            throws IOException {
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (response.code() == 304) {
+            return new HttpDocumentResult(304, null, etag, lastModified, 0L, 0L);
+        }
+        ResponseBody body = successBody(response);
+        long contentLength = body.contentLength();
+        if (maxBodyBytes > 0 && contentLength > maxBodyBytes) {
+            throw new BodyTooLargeException(maxBodyBytes,
+                    "Content-Length " + contentLength + " exceeds " + maxBodyBytes + " bytes");
+        }
+
+        byte[] bytes;
+        try (BoundedInputStream in = new BoundedInputStream(body.byteStream(), maxBodyBytes)) {
+            bytes = in.readAllBytes();
+        }
+        long bodyHash = ContentHashUtil.hash64(bytes);
+        if (unchanged.test(bodyHash)) {
+            return new HttpDocumentResult(response.code(), null, etag, lastModified, bodyHash, bytes.length);
+        }
+
+        // 响应头中的字符集无效或不支持时为null，交给Jsoup识别
+        MediaType contentType = body.contentType();
+        Charset charset = contentType != null ? contentType.charset() : null;
+        Document document = Jsoup.parse(new ByteArrayInputStream(bytes), charset != null ? charset.name() : null,
+                response.request().url().toString());
+        return new HttpDocumentResult(response.code(), document, etag, lastModified, bodyHash, bytes.length);
+    }
+
+    /**
+     * 按识别出的字符集流式读取响应体；读取方提前返回时关闭响应体，不再下载剩余内容
+     */
+    private <T> HttpStreamResult<T> toStreamResult(Response response, long maxBodyBytes, BodyReader<T> bodyReader)
+            throws IOException {
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (response.code() == 304) {
+            return new HttpStreamResult<>(304, null, etag, lastModified, 0L);
+        }
+        ResponseBody body = successBody(response);
+
+        MediaType contentType = body.contentType();
+        try (BoundedInputStream in = new BoundedInputStream(body.byteStream(), maxBodyBytes)) {
+            T value = bodyReader.read(HtmlCharsetDetector.open(in, contentType != null ? contentType.charset() : null),
+                    response.request().url().toString());
+            return new HttpStreamResult<>(response.code(), value, etag, lastModified, in.getCount());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResponseBody successBody(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new HttpStatusException(response.code(), "Unexpected HTTP response: " + response);
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Response body is null");
+        }
+        return body;
+    }
+
+    /**
+     * 响应读取方式
+     */
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+
+        T read(Response response) throws IOException;
+    }
 
 }
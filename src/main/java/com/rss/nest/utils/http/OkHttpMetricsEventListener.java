@@ -0,0 +1,205 @@
+package com.rss.nest.utils.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttp请求各阶段耗时指标
+ * <p>
+ * 每次调用创建一个实例（OkHttp按调用分发事件），按网站与Host记录：
+ * <ul>
+ *     <li>{@code rss.http.phase{site, host, phase}}：dns、connect（TCP+TLS）、tls、ttfb（请求头发出到响应头开始）、
+ *     body（响应体开始读取到读取结束，边下载边提取时包含解析耗时）</li>
+ *     <li>{@code rss.http.call{site, host, outcome=success|failure}}：整个调用耗时，含重定向与OkHttp内部重试</li>
+ *     <li>{@code rss.http.connection{site, host, reused=true|false}}：获取连接次数，reused=false表示新建连接</li>
+ *     <li>{@code rss.http.response.bytes{site, host}}：响应体字节数</li>
+ * </ul>
+ * 计时器发布百分位直方图，可在监控系统中按网站聚合P95/P99
+ */
+public class OkHttpMetricsEventListener extends EventListener {
+
+    private static final String METRIC_PHASE = "rss.http.phase";
+
+    private static final String METRIC_CALL = "rss.http.call";
+
+    private static final String METRIC_CONNECTION = "rss.http.connection";
+
+    private static final String METRIC_RESPONSE_BYTES = "rss.http.response.bytes";
+
+    private final MeterRegistry meterRegistry;
+
+    private final String siteId;
+
+    private final String host;
+
+    private long callStart;
+
+    private long dnsStart;
+
+    private long connectStart;
+
+    private long secureConnectStart;
+
+    private long requestHeadersStart;
+
+    private long responseBodyStart;
+
+    /**
+     * 本次调用是否新建了连接
+     */
+    private boolean connected;
+
+    OkHttpMetricsEventListener(MeterRegistry meterRegistry, String siteId, String host) {
+        this.meterRegistry = meterRegistry;
+        this.siteId = siteId;
+        this.host = host;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        recordPhase("dns", dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        recordPhase("tls", secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        recordPhase("connect", connectStart);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        recordPhase("connect", connectStart);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        Counter.builder(METRIC_CONNECTION)
+                .tag("site", siteId)
+                .tag("host", host)
+                .tag("reused", String.valueOf(!connected))
+                .register(meterRegistry)
+                .increment();
+        connected = false;
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestHeadersStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestHeadersStart > 0) {
+            recordPhase("ttfb", requestHeadersStart);
+        }
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        recordPhase("body", responseBodyStart);
+        DistributionSummary.builder(METRIC_RESPONSE_BYTES)
+                .baseUnit("bytes")
+                .tag("site", siteId)
+                .tag("host", host)
+                .register(meterRegistry)
+                .record(byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        recordCall("success");
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        recordCall("failure");
+    }
+
+    private void recordPhase(String phase, long startNanos) {
+        Timer.builder(METRIC_PHASE)
+                .tag("site", siteId)
+                .tag("host", host)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordCall(String outcome) {
+        Timer.builder(METRIC_CALL)
+                .tag("site", siteId)
+                .tag("host", host)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 指标监听器工厂，绑定一个网站ID
+     */
+    public static class Factory implements EventListener.Factory {
+
+        private final MeterRegistry meterRegistry;
+
+        private final String siteId;
+
+        public Factory(MeterRegistry meterRegistry, String siteId) {
+            this.meterRegistry = meterRegistry;
+            this.siteId = siteId;
+        }
+
+        /**
+         * 以相同的MeterRegistry为另一个网站创建工厂
+         */
+        public Factory forSite(String siteId) {
+            return new Factory(meterRegistry, siteId);
+        }
+
+        @Override
+        public EventListener create(Call call) {
+            return new OkHttpMetricsEventListener(meterRegistry, siteId, call.request().url().host());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rss.nest.utils.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算
+ * 每个原始请求存入ratio个额度（ratio不超过1），每次重试或对冲取出1个，额度上限为maxBalance（初始为0）；
+ * 额外请求数因此不超过原始请求数 * ratio，上游负载不会因重试翻倍以上
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000L;
+
+    private final long deposit;
+
+    private final long maxBalance;
+
+    /**
+     * 当前额度（放大SCALE倍）
+     */
+    private final AtomicLong balance = new AtomicLong();
+
+    public RetryBudget(double ratio, int maxBalance) {
+        this.deposit = Math.round(Math.min(Math.max(ratio, 0.0), 1.0) * SCALE);
+        this.maxBalance = Math.max(maxBalance, 1) * SCALE;
+    }
+
+    /**
+     * 记录一次原始请求
+     */
+    public void onRequest() {
+        balance.updateAndGet(current -> Math.min(current + deposit, maxBalance));
+    }
+
+    /**
+     * 尝试取出一次重试额度
+     *
+     * @return 是否允许重试
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
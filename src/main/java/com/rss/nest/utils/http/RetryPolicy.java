@@ -0,0 +1,50 @@
+package com.rss.nest.utils.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * GET请求的重试与对冲策略
+ */
+@Getter
+@AllArgsConstructor
+public class RetryPolicy {
+
+    /**
+     * 不重试、不对冲
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0L, false, 0L, 0.0);
+
+    /**
+     * 最大重试次数
+     */
+    private final int maxRetries;
+
+    /**
+     * 首次重试前的等待时间（毫秒），之后按2的幂增长，带±50%抖动
+     */
+    private final long backoffMillis;
+
+    /**
+     * 是否启用对冲：请求超过该网站P95耗时仍未返回时再发一个相同请求，取先返回的结果
+     */
+    private final boolean hedge;
+
+    /**
+     * 对冲的最小等待时间（毫秒），样本不足或P95过小时使用
+     */
+    private final long hedgeMinDelayMillis;
+
+    /**
+     * 重试预算比例：每个原始请求积累的重试额度（0~1），重试和对冲各消耗1，
+     * 因此额外请求数不超过原始请求数的该比例，上游负载最多翻倍
+     */
+    private final double budgetRatio;
+
+    /**
+     * 是否需要重试或对冲
+     */
+    public boolean isEnabled() {
+        return (maxRetries > 0 || hedge) && budgetRatio > 0;
+    }
+}
@@ -14,18 +14,12 @@ public class RssUtil {
 
     /**
      * Channel转为Xml格式
+     * RssChannel不是ROME的rss.Channel，先按RssOutPutUtil转换为RSS 2.0的Channel再输出
      *
      * @param channel RSS数据
      */
     public static String rssChannelOutPutXml(RssChannel channel) {
-        WireFeedOutput out = new WireFeedOutput();
-        try {
-            return out.outputString(channel);
-        } catch (FeedException e) {
-            e.printStackTrace();
-        }
-
-        return null;
+        return rssChannelOutPutXmlV2(RssOutPutUtil.rssOutPut(channel));
     }
 
     public static String rssChannelOutPutXmlV2(Channel channel) {
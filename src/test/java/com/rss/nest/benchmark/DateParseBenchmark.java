@@ -0,0 +1,122 @@
+package com.rss.nest.benchmark;
+
+import com.rss.nest.utils.date.DateParseUtil;
+import com.rss.nest.utils.date.DateParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日期解析：SimpleDateFormat逐个尝试与DateTimeFormatter注册表 + 形状识别的对比
+ * <p>
+ * 每次调用解析一批（batch条）日期，格式按各网站实际出现的比例混合（yyyy-MM-dd、带时间、yyyy/M/d、中文日期、无年份的MM-dd HH:mm）。
+ * legacyTrial为改造前的DateParseUtil.parseDate：每次按8个格式依次新建SimpleDateFormat尝试，失败时抛出ParseException；
+ * legacyFixedFormat为改造前按已知格式（每次新建SimpleDateFormat）解析；
+ * autoDetect为按形状选择格式的DateParser（单个网站一个实例）；fixedFormat为DateParseUtil.parseDateStr
+ * <p>
+ * 运行方式：
+ * <pre>
+ * mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main DateParseBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateParseBenchmark {
+
+    private static final String[] LEGACY_FORMATS = {
+            "yyyy-MM-dd HH:mm:ss",
+            "yyyy-MM-dd",
+            "yyyy/MM/dd HH:mm:ss",
+            "yyyy/MM/dd",
+            "yyyy年MM月dd日 HH:mm:ss",
+            "yyyy年MM月dd日",
+            "MM-dd HH:mm",
+            "MM/dd HH:mm"
+    };
+
+    @Param({"10000"})
+    public int batch;
+
+    private List<String> mixedDates;
+
+    private List<String> plainDates;
+
+    private DateParser dateParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        mixedDates = new ArrayList<>(batch);
+        plainDates = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(28);
+            int hour = random.nextInt(24);
+            int minute = random.nextInt(60);
+            plainDates.add(String.format("2024-%02d-%02d", month, day));
+            int kind = random.nextInt(10);
+            if (kind < 4) {
+                mixedDates.add(String.format("2024-%02d-%02d", month, day));
+            } else if (kind < 6) {
+                mixedDates.add(String.format("2024-%02d-%02d %02d:%02d:%02d", month, day, hour, minute, 0));
+            } else if (kind < 8) {
+                mixedDates.add(String.format("2024/%d/%d", month, day));
+            } else if (kind < 9) {
+                mixedDates.add(String.format("2024年%02d月%02d日", month, day));
+            } else {
+                mixedDates.add(String.format("%02d-%02d %02d:%02d", month, day, hour, minute));
+            }
+        }
+        dateParser = new DateParser();
+    }
+
+    @Benchmark
+    public void legacyTrial(Blackhole blackhole) {
+        for (String date : mixedDates) {
+            blackhole.consume(legacyParse(date));
+        }
+    }
+
+    @Benchmark
+    public void autoDetect(Blackhole blackhole) {
+        for (String date : mixedDates) {
+            blackhole.consume(dateParser.parse(date));
+        }
+    }
+
+    @Benchmark
+    public void legacyFixedFormat(Blackhole blackhole) throws ParseException {
+        for (String date : plainDates) {
+            blackhole.consume(new SimpleDateFormat(DateParseUtil.FORMAT_V1_YYYY_MM_DD).parse(date));
+        }
+    }
+
+    @Benchmark
+    public void fixedFormat(Blackhole blackhole) {
+        for (String date : plainDates) {
+            blackhole.consume(DateParseUtil.parseDateStr(DateParseUtil.FORMAT_V1_YYYY_MM_DD, date));
+        }
+    }
+
+    private static Object legacyParse(String dateStr) {
+        for (String format : LEGACY_FORMATS) {
+            try {
+                return new SimpleDateFormat(format).parse(dateStr);
+            } catch (ParseException e) {
+                // 继续尝试下一个格式
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.rss.nest.benchmark;
+
+import com.rss.nest.core.config.ParseConfig;
+import com.rss.nest.core.config.RssConfig;
+import com.rss.nest.core.parser.ConfigurableHtmlParser;
+import com.rss.nest.core.parser.OutputFields;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按输出字段裁剪解析的收益（人人影视网解析配置）
+ * <p>
+ * 解析配置与RrdynbRssProvider一致（内容为HTML模式，图片取data-original并拼接完整URL），夹具页面见SelectorPlanBenchmark。
+ * all为改造前的行为：全部字段都匹配（序列化内容HTML、拼接图片URL、提取自定义字段）；rss为默认的RSS输出
+ * （标题、链接、内容、发布时间）；titleOnly对应includeContent=false（RSS描述回退为标题）。
+ * 配合-prof gc比较每次解析的内存分配
+ * <p>
+ * 运行方式：
+ * <pre>
+ * mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main OutputFieldsBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputFieldsBenchmark {
+
+    @Param({"20", "500"})
+    public int items;
+
+    private Document document;
+
+    private ParseConfig config;
+
+    private ConfigurableHtmlParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = Jsoup.parse(SelectorPlanBenchmark.fixturePage(items));
+        config = rrdynbParseConfig();
+        parser = new ConfigurableHtmlParser();
+    }
+
+    @Benchmark
+    public int all() {
+        return parser.parse(document, config, OutputFields.ALL).size();
+    }
+
+    @Benchmark
+    public int rss() {
+        return parser.parse(document, config, OutputFields.of(rssConfig(true))).size();
+    }
+
+    @Benchmark
+    public int titleOnly() {
+        return parser.parse(document, config, OutputFields.of(rssConfig(false))).size();
+    }
+
+    private static RssConfig rssConfig(boolean includeContent) {
+        RssConfig rssConfig = new RssConfig();
+        rssConfig.setIncludeContent(includeContent);
+        return rssConfig;
+    }
+
+    /**
+     * 与RrdynbRssProvider.buildParseConfig相同的配置
+     */
+    static ParseConfig rrdynbParseConfig() {
+        ParseConfig config = new ParseConfig();
+        config.setListSelector("li.pure-g.shadow");
+        config.setTitleSelector("h2 a");
+        config.setLinkSelector("h2 a");
+        config.setLinkAttribute("href");
+        config.setContentSelector(".brief");
+        config.setContentMode("html");
+        config.setDateSelector(".tags");
+        config.setDateFormat("yyyy-MM-dd");
+        config.setImageSelector(".pure-u-5-24 img");
+        config.setImageAttribute("data-original");
+        config.setNeedFullUrl(true);
+        config.setUrlPrefix("https://www.rrdynb.com");
+        config.setCustomSelectors(Map.of("director", ".brief"));
+        return config;
+    }
+}
@@ -0,0 +1,148 @@
+package com.rss.nest.benchmark;
+
+import com.rss.nest.core.config.ParseConfig;
+import com.rss.nest.core.parser.ConfigurableHtmlParser;
+import com.rss.nest.core.parser.SelectorPlan;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预编译选择器计划与逐次解析选择器字符串的对比
+ * <p>
+ * 夹具页面按人人影视网列表结构生成（每条含标题、链接、简介、标签、封面及自定义字段），条目数由items参数控制。
+ * stringSelectors为改造前的方式：每个元素每个字段调用element.select(String)；
+ * compiledPlan对同样的字段使用预编译的Evaluator（每个字段各遍历一次子树）；
+ * singlePass在一次子树遍历中匹配全部字段（SelectorPlan.matchFields）；parser为完整的ConfigurableHtmlParser.parse（含日期解析与DTO构建）
+ * <p>
+ * 运行方式：
+ * <pre>
+ * mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main SelectorPlanBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectorPlanBenchmark {
+
+    @Param({"500"})
+    public int items;
+
+    private Document document;
+
+    private ParseConfig config;
+
+    private List<String> fieldSelectors;
+
+    private List<Evaluator> fieldEvaluators;
+
+    private SelectorPlan plan;
+
+    private ConfigurableHtmlParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = Jsoup.parse(fixturePage(items));
+        config = parseConfig();
+        plan = SelectorPlan.compile(config);
+        parser = new ConfigurableHtmlParser();
+
+        fieldSelectors = new ArrayList<>(List.of(config.getTitleSelector(), config.getLinkSelector(),
+                config.getContentSelector(), config.getDateSelector(), config.getImageSelector(),
+                config.getAuthorSelector(), config.getCategorySelector()));
+        fieldSelectors.addAll(config.getCustomSelectors().values());
+        fieldEvaluators = new ArrayList<>(List.of(plan.getTitle(), plan.getLink(), plan.getContent(),
+                plan.getDate(), plan.getImage(), plan.getAuthor(), plan.getCategory()));
+        fieldEvaluators.addAll(plan.getCustomFields().values());
+    }
+
+    @Benchmark
+    public void stringSelectors(Blackhole blackhole) {
+        Elements elements = document.select(config.getListSelector());
+        for (Element element : elements) {
+            for (String selector : fieldSelectors) {
+                blackhole.consume(element.select(selector).first());
+            }
+        }
+    }
+
+    @Benchmark
+    public void compiledPlan(Blackhole blackhole) {
+        Elements elements = document.select(plan.getList());
+        for (Element element : elements) {
+            for (Evaluator evaluator : fieldEvaluators) {
+                blackhole.consume(element.selectFirst(evaluator));
+            }
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        Elements elements = document.select(plan.getList());
+        for (Element element : elements) {
+            blackhole.consume(plan.matchFields(element));
+        }
+        plan.release();
+    }
+
+    @Benchmark
+    public int parser() {
+        return parser.parse(document, config).size();
+    }
+
+    static ParseConfig parseConfig() {
+        ParseConfig config = new ParseConfig();
+        config.setListSelector("li.pure-g.shadow");
+        config.setTitleSelector("h2 a");
+        config.setLinkSelector("h2 a");
+        config.setContentSelector(".brief");
+        config.setDateSelector(".tags");
+        config.setDateFormat("yyyy-MM-dd");
+        config.setImageSelector(".pure-u-5-24 img");
+        config.setImageAttribute("data-original");
+        config.setAuthorSelector(".brief span.director");
+        config.setCategorySelector(".tags a[rel=tag]");
+        config.setUrlPrefix("https://www.rrdynb.com");
+        config.setCustomSelectors(Map.of(
+                "director", ".brief",
+                "actors", ".brief span.actors",
+                "score", "div.meta > span.score"));
+        return config;
+    }
+
+    /**
+     * 生成列表页夹具
+     */
+    static String fixturePage(int items) {
+        StringBuilder html = new StringBuilder(items * 800);
+        html.append("<html><head><title>列表</title></head><body><div class=\"wrap\"><ul class=\"list\">");
+        for (int i = 0; i < items; i++) {
+            html.append("<li class=\"pure-g shadow\">")
+                    .append("<div class=\"pure-u-5-24\"><a href=\"/movie/").append(i).append(".html\">")
+                    .append("<img data-original=\"/img/").append(i).append(".jpg\" src=\"/loading.gif\"></a></div>")
+                    .append("<div class=\"pure-u-19-24\"><h2><a href=\"/movie/").append(i).append(".html\">")
+                    .append("影片标题").append(i).append("</a></h2>")
+                    .append("<div class=\"brief\"><span class=\"director\">导演: 某某").append(i % 37)
+                    .append("</span><span class=\"actors\">主演: 甲 / 乙 / 丙</span>")
+                    .append("<p>这是一段较长的剧情简介，用于模拟真实页面中的内容区域。</p></div>")
+                    .append("<div class=\"meta\"><span class=\"score\">").append(i % 10).append(".5</span></div>")
+                    .append("<div class=\"tags\">2024-0").append(i % 9 + 1).append("-1").append(i % 9)
+                    .append(" <a rel=\"tag\" href=\"/tag/movie\">电影</a></div></div></li>");
+        }
+        html.append("</ul></div></body></html>");
+        return html.toString();
+    }
+}
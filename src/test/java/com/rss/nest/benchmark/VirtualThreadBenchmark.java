@@ -0,0 +1,127 @@
+package com.rss.nest.benchmark;
+
+import com.rss.nest.utils.hash.ContentHashUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.*;
+
+/**
+ * 平台线程池与虚拟线程在高并发订阅请求下的吞吐与内存对比
+ * <p>
+ * 每次调用同时发起{@link #CONCURRENCY}个模拟请求，单个请求包括：
+ * 一次Redis往返（1ms）、一次上游抓取（{@link #upstreamMillis}ms）、对32KB内容计算哈希（模拟解析的CPU开销）。
+ * platform为与server.tomcat.threads.max一致的800线程固定线程池；virtual为每个请求一个虚拟线程（需JDK 21+）
+ * <p>
+ * 运行方式：
+ * <pre>
+ * mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main VirtualThreadBenchmark -prof gc"
+ * </pre>
+ * 吞吐看requests指标（请求/秒），堆内存分配看gc.alloc.rate.norm；
+ * 平台线程栈不在堆内，线程数与堆占用在每轮结束时打印，线程栈内存可加 -jvmArgsAppend -XX:NativeMemoryTracking=summary 查看
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    /**
+     * 同时进行中的请求数
+     */
+    static final int CONCURRENCY = 5000;
+
+    /**
+     * 平台线程池大小（与server.tomcat.threads.max一致）
+     */
+    static final int PLATFORM_THREADS = 800;
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"50"})
+    public int upstreamMillis;
+
+    private ExecutorService platformPool;
+
+    private Executor executor;
+
+    private final byte[] content = new byte[32 * 1024];
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        /**
+         * 完成的请求数，JMH按时间折算为请求/秒
+         */
+        public long requests;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom.current().nextBytes(content);
+        if ("virtual".equals(threading)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("虚拟线程需要JDK 21+，当前: " + Runtime.version());
+            }
+            executor = new VirtualThreadTaskExecutor("bench-");
+        } else {
+            platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            executor = platformPool;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.out.printf("%n[%s] 峰值平台线程数: %d, 堆已用: %dMB, 非堆已用: %dMB%n", threading,
+                threads.getPeakThreadCount(),
+                memory.getHeapMemoryUsage().getUsed() >> 20,
+                memory.getNonHeapMemoryUsage().getUsed() >> 20);
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public long feedRequests(Counters counters) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(CONCURRENCY);
+        long[] hashes = new long[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            int index = i;
+            executor.execute(() -> {
+                try {
+                    hashes[index] = handle();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        counters.requests += CONCURRENCY;
+        return hashes[CONCURRENCY - 1];
+    }
+
+    /**
+     * 模拟一次订阅请求：查缓存、抓取上游、解析
+     */
+    private long handle() throws InterruptedException {
+        Thread.sleep(1);
+        Thread.sleep(upstreamMillis);
+        return ContentHashUtil.hash64(content);
+    }
+}
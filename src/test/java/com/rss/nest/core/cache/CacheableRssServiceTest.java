@@ -0,0 +1,203 @@
+package com.rss.nest.core.cache;
+
+import com.rss.nest.core.config.CacheConfig;
+import com.rss.nest.core.config.SiteConfig;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import com.rss.nest.core.provider.GeneratedRss;
+import com.rss.nest.core.provider.RssProviderFactory;
+import com.rss.nest.core.provider.RssProviderService;
+import com.rss.nest.core.provider.UpstreamValidators;
+import com.rss.nest.core.resilience.GenerationLimiter;
+import com.rss.nest.core.resilience.UpstreamBackoff;
+import com.rss.nest.models.rss.RssChannel;
+import com.rss.nest.utils.rss.RssChannelDataUtil;
+import com.rss.nest.utils.rss.RssSetUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 带缓存的RSS服务测试（异步接口）
+ */
+class CacheableRssServiceTest {
+
+    private static final Map<String, String> PARAMS = Map.of("category", "movie");
+
+    private CacheableRssService service;
+    private RssCacheService cacheService;
+    private RssProviderService provider;
+    private GenerationLimiter generationLimiter;
+    private ThreadPoolTaskExecutor statsExecutor;
+
+    /**
+     * 缓存中的上一版内容（getOrSetEntryAsync传给加载器）
+     */
+    private CachedFeed previous;
+
+    @BeforeEach
+    void setUp() {
+        SiteConfig siteConfig = new SiteConfig();
+        siteConfig.setSiteId("test");
+        siteConfig.setCacheConfig(new CacheConfig());
+
+        provider = mock(RssProviderService.class);
+        when(provider.getSiteIdentifier()).thenReturn("test");
+        when(provider.getSiteConfig()).thenReturn(siteConfig);
+        when(provider.reserveUpstreamAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        RssProviderFactory providerFactory = mock(RssProviderFactory.class);
+        when(providerFactory.getProvider("test")).thenReturn(provider);
+
+        // 模拟缓存服务：未命中时调用加载器并把结果（含校验信息）写成缓存条目
+        cacheService = mock(RssCacheService.class);
+        when(cacheService.getOrSetEntryAsync(eq("test"), eq(PARAMS), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    AsyncFeedLoader loader = invocation.getArgument(4);
+                    return loader.load(previous).thenApply(loaded -> {
+                        long now = System.currentTimeMillis();
+                        return CachedFeed.of(loaded.getXml(), FeedEncoding.GZIP, now, 0L, now + 60_000L,
+                                loaded.getValidators());
+                    });
+                });
+
+        generationLimiter = new GenerationLimiter(true, 1, 1, 8, 10, 10, 5_000, 10_000, 5,
+                new SimpleMeterRegistry());
+        statsExecutor = new ThreadPoolTaskExecutor();
+        statsExecutor.initialize();
+
+        service = new CacheableRssService();
+        ReflectionTestUtils.setField(service, "providerFactory", providerFactory);
+        ReflectionTestUtils.setField(service, "cacheService", cacheService);
+        ReflectionTestUtils.setField(service, "upstreamBackoff", new UpstreamBackoff(true, 2000L, 300000L, 3));
+        ReflectionTestUtils.setField(service, "requestStats", new RssRequestStats(new SimpleMeterRegistry(), statsExecutor));
+        ReflectionTestUtils.setField(service, "generationLimiter", generationLimiter);
+        ReflectionTestUtils.setField(service, "refreshExecutor", (TaskExecutor) Runnable::run);
+        ReflectionTestUtils.setField(service, "generationExecutor", (TaskExecutor) Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsExecutor.shutdown();
+    }
+
+    private static GeneratedRss generated(String title, UpstreamValidators validators) {
+        RssChannel channel = RssChannelDataUtil.setRssChannel("测试网站", "https://example.com", "测试");
+        RssSetUtil.setRssChannelData(title, "https://example.com/a/1", new Date(), title, channel);
+        return new GeneratedRss(channel, validators);
+    }
+
+    @Test
+    void testHitServedInline() {
+        long now = System.currentTimeMillis();
+        CachedFeed cached = CachedFeed.of("<rss/>", FeedEncoding.GZIP, now, 0L, now + 60_000L);
+        when(cacheService.getEntry("test", PARAMS)).thenReturn(cached);
+
+        CompletableFuture<CachedFeed> future = service.getFeedWithCacheAsync("test", PARAMS);
+
+        assertTrue(future.isDone());
+        assertSame(cached, future.join());
+        verify(provider, never()).generateRssAsync(any(), any());
+    }
+
+    @Test
+    void testMissComposesOnGenerateRssAsync() {
+        CompletableFuture<GeneratedRss> generating = new CompletableFuture<>();
+        when(provider.generateRssAsync(eq(PARAMS), any())).thenReturn(generating);
+
+        CompletableFuture<CachedFeed> future = service.getFeedWithCacheAsync("test", PARAMS);
+
+        // 调用线程立即返回，抓取期间只占用生成许可，不占用线程
+        assertFalse(future.isDone());
+        assertEquals(1, generationLimiter.getInFlight());
+        verify(provider, never()).generateRss(any(), any());
+
+        UpstreamValidators validators = new UpstreamValidators("\"v1\"", null, 42L);
+        generating.complete(generated("新内容", validators));
+
+        CachedFeed feed = future.join();
+        assertTrue(feed.getXml().contains("新内容"));
+        assertEquals(42L, feed.getValidators().getBodyHash());
+        assertEquals(0, generationLimiter.getInFlight());
+    }
+
+    @Test
+    void testMissPassesPreviousValidators() {
+        UpstreamValidators validators = new UpstreamValidators("\"v1\"", null, 42L);
+        long now = System.currentTimeMillis();
+        previous = CachedFeed.of("<rss/>", FeedEncoding.GZIP, now - 120_000L, 0L, now - 60_000L, validators);
+        when(provider.generateRssAsync(eq(PARAMS), any()))
+                .thenReturn(CompletableFuture.completedFuture(generated("内容", validators)));
+
+        service.getFeedWithCacheAsync("test", PARAMS).join();
+
+        verify(provider).generateRssAsync(eq(PARAMS), same(validators));
+    }
+
+    @Test
+    void testReservesUpstreamBeforePermit() {
+        CompletableFuture<Void> reserving = new CompletableFuture<>();
+        when(provider.reserveUpstreamAsync(PARAMS)).thenReturn(reserving);
+        when(provider.generateRssAsync(eq(PARAMS), any()))
+                .thenReturn(CompletableFuture.completedFuture(generated("内容", null)));
+
+        CompletableFuture<CachedFeed> future = service.getFeedWithCacheAsync("test", PARAMS);
+
+        // 等待限流预算期间不占用生成许可
+        assertFalse(future.isDone());
+        assertEquals(0, generationLimiter.getInFlight());
+        verify(provider, never()).generateRssAsync(any(), any());
+
+        reserving.complete(null);
+        assertTrue(future.join().getXml().contains("内容"));
+        assertEquals(0, generationLimiter.getInFlight());
+    }
+
+    @Test
+    void testMissWaitsForPermitWithoutThread() {
+        GenerationLimiter.Permit busy = generationLimiter.acquire("other", true);
+        when(provider.generateRssAsync(eq(PARAMS), any()))
+                .thenReturn(CompletableFuture.completedFuture(generated("内容", null)));
+
+        CompletableFuture<CachedFeed> future = service.getFeedWithCacheAsync("test", PARAMS);
+
+        // 达到并发上限：排队等待许可，调用线程已返回
+        assertFalse(future.isDone());
+        assertEquals(1, generationLimiter.getQueued());
+        verify(provider, never()).generateRssAsync(any(), any());
+
+        busy.close();
+        assertTrue(future.join().getXml().contains("内容"));
+        assertEquals(0, generationLimiter.getInFlight());
+    }
+
+    @Test
+    void testMissFallsBackToStale() {
+        when(provider.generateRssAsync(eq(PARAMS), any()))
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("上游不可用", 5)));
+
+        // 没有可用的旧内容：原异常
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> service.getFeedWithCacheAsync("test", PARAMS).join());
+        assertInstanceOf(UpstreamUnavailableException.class, error.getCause());
+
+        // 有旧内容：返回旧内容
+        long now = System.currentTimeMillis();
+        CachedFeed stale = CachedFeed.of("<rss/>", FeedEncoding.GZIP, now - 120_000L, 0L, now - 60_000L)
+                .asStaleIfError();
+        when(cacheService.getStaleEntry("test", PARAMS)).thenReturn(stale);
+        assertSame(stale, service.getFeedWithCacheAsync("test", PARAMS).join());
+        assertEquals(0, generationLimiter.getInFlight());
+    }
+}
@@ -0,0 +1,155 @@
+package com.rss.nest.core.cache;
+
+import com.rss.nest.core.provider.UpstreamValidators;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存条目编码测试
+ */
+class CachedFeedTest {
+
+    private static final String XML = "<rss><channel><title>测试</title></channel></rss>".repeat(20);
+
+    @Test
+    void testGzipRoundTrip() {
+        long now = System.currentTimeMillis();
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.GZIP, now, now + 1000, now + 2000);
+        assertTrue(feed.getBody().length < XML.getBytes(StandardCharsets.UTF_8).length);
+
+        CachedFeed decoded = CachedFeed.decode(feed.encode(), now + 2000);
+        assertNotNull(decoded);
+        assertEquals(FeedEncoding.GZIP, decoded.getEncoding());
+        assertEquals(XML, decoded.getXml());
+        assertEquals(feed.getETag(), decoded.getETag());
+        assertEquals(now, decoded.getCreatedAtMillis());
+        assertEquals(now + 1000, decoded.getSoftExpireAtMillis());
+        assertEquals(now + 2000, decoded.getExpireAtMillis());
+    }
+
+    @Test
+    void testIdentityRoundTrip() {
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.IDENTITY, 1L, 0L, 2L);
+        CachedFeed decoded = CachedFeed.decode(feed.encode(), 2L);
+        assertNotNull(decoded);
+        assertEquals(XML, decoded.getXml());
+        assertFalse(decoded.isStale(System.currentTimeMillis()));
+    }
+
+    @Test
+    void testLegacyValueIgnored() {
+        // 旧版本直接存储的XML字符串视为未命中
+        assertNull(CachedFeed.decode(XML.getBytes(StandardCharsets.UTF_8), 0L));
+        assertNull(CachedFeed.decode(null, 0L));
+    }
+
+    @Test
+    void testRenewKeepsContent() {
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 2L, 3L);
+        CachedFeed renewed = feed.renew(10L, 20L, 30L);
+
+        assertSame(feed.getBody(), renewed.getBody());
+        assertEquals(feed.getETag(), renewed.getETag());
+        assertEquals(10L, renewed.getCreatedAtMillis());
+        assertEquals(20L, renewed.getSoftExpireAtMillis());
+        assertEquals(30L, renewed.getExpireAtMillis());
+    }
+
+    @Test
+    void testSameContentSameETag() {
+        CachedFeed a = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 0L, 2L);
+        CachedFeed b = CachedFeed.of(XML, FeedEncoding.IDENTITY, 3L, 0L, 4L);
+        assertEquals(a.getETag(), b.getETag());
+    }
+
+    @Test
+    void testValidatorsRoundTrip() {
+        UpstreamValidators validators = new UpstreamValidators("\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", 42L);
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 2L, 3L, validators);
+
+        CachedFeed decoded = CachedFeed.decode(feed.encode(), 3L);
+        assertNotNull(decoded);
+        assertEquals(XML, decoded.getXml());
+        assertEquals("\"v1\"", decoded.getValidators().getEtag());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", decoded.getValidators().getLastModified());
+        assertEquals(42L, decoded.getValidators().getBodyHash());
+        assertNull(decoded.getValidators().getConfigFingerprint());
+
+        // 带配置指纹
+        CachedFeed withFingerprint = CachedFeed.decode(CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 2L, 3L,
+                new UpstreamValidators("\"v1\"", null, 42L, -5L)).encode(), 3L);
+        assertNotNull(withFingerprint);
+        assertEquals(-5L, withFingerprint.getValidators().getConfigFingerprint());
+
+        // 只有内容哈希（上游不支持条件请求）
+        CachedFeed hashOnly = CachedFeed.decode(
+                CachedFeed.of(XML, FeedEncoding.IDENTITY, 1L, 0L, 2L, new UpstreamValidators(null, null, 7L)).encode(), 2L);
+        assertNotNull(hashOnly);
+        assertNull(hashOnly.getValidators().getEtag());
+        assertNull(hashOnly.getValidators().getLastModified());
+        assertEquals(7L, hashOnly.getValidators().getBodyHash());
+
+        // 没有校验信息
+        CachedFeed none = CachedFeed.decode(CachedFeed.of(XML, FeedEncoding.IDENTITY, 1L, 0L, 2L).encode(), 2L);
+        assertNotNull(none);
+        assertNull(none.getValidators());
+    }
+
+    @Test
+    void testRenewKeepsValidators() {
+        UpstreamValidators validators = new UpstreamValidators("\"v1\"", null, 42L);
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 2L, 3L, validators);
+
+        assertSame(validators, feed.renew(10L, 20L, 30L).getValidators());
+        assertSame(validators, feed.asStaleIfError().getValidators());
+    }
+
+    @Test
+    void testVersion2StillReadable() {
+        byte[] v4 = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 2L, 3L).encode();
+        // 版本2没有 flags(1) | upstreamBodyHash(8) | configFingerprint(8) | etagLength(2) | lastModifiedLength(2)
+        int header = 2 + 1 + 1 + 8 + 8 + 8 + 4;
+        byte[] v2 = new byte[v4.length - 21];
+        System.arraycopy(v4, 0, v2, 0, header);
+        System.arraycopy(v4, header + 21, v2, header, v4.length - header - 21);
+        v2[2] = 2;
+
+        CachedFeed decoded = CachedFeed.decode(v2, 3L);
+        assertNotNull(decoded);
+        assertEquals(XML, decoded.getXml());
+        assertNull(decoded.getValidators());
+    }
+
+    @Test
+    void testVersion3ReadWithoutFingerprint() {
+        byte[] v4 = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 2L, 3L,
+                new UpstreamValidators("\"v1\"", null, 42L, -5L)).encode();
+        // 版本3没有 configFingerprint(8)，位于 flags(1) | upstreamBodyHash(8) 之后
+        int fingerprintOffset = 2 + 1 + 1 + 8 + 8 + 8 + 4 + 1 + 8;
+        byte[] v3 = new byte[v4.length - 8];
+        System.arraycopy(v4, 0, v3, 0, fingerprintOffset);
+        System.arraycopy(v4, fingerprintOffset + 8, v3, fingerprintOffset, v4.length - fingerprintOffset - 8);
+        v3[2] = 3;
+        // 版本3的flags没有bit2
+        v3[fingerprintOffset - 9] &= ~4;
+
+        CachedFeed decoded = CachedFeed.decode(v3, 3L);
+        assertNotNull(decoded);
+        assertEquals(XML, decoded.getXml());
+        assertEquals("\"v1\"", decoded.getValidators().getEtag());
+        assertEquals(42L, decoded.getValidators().getBodyHash());
+        assertNull(decoded.getValidators().getConfigFingerprint());
+    }
+
+    @Test
+    void testTruncatedValidatorsIgnored() {
+        byte[] encoded = CachedFeed.of(XML, FeedEncoding.IDENTITY, 1L, 0L, 2L,
+                new UpstreamValidators("\"v1\"", null, null)).encode();
+        byte[] truncated = new byte[2 + 1 + 1 + 8 + 8 + 8 + 4 + 5];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        assertNull(CachedFeed.decode(truncated, 2L));
+    }
+}
@@ -0,0 +1,79 @@
+package com.rss.nest.core.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * L1进程内缓存测试
+ */
+class LocalRssCacheTest {
+
+    private LocalRssCache localCache;
+
+    @BeforeEach
+    void setUp() {
+        localCache = new LocalRssCache(true, 1024 * 1024, 60);
+    }
+
+    @Test
+    void testPutAndGet() {
+        localCache.put("rssNest:cache:site:a", feed("<rss>a</rss>", System.currentTimeMillis() + 10_000));
+
+        CachedFeed cached = localCache.get("rssNest:cache:site:a");
+        assertNotNull(cached);
+        assertEquals("<rss>a</rss>", cached.getXml());
+    }
+
+    @Test
+    void testTtlCappedByRedisExpiry() {
+        // Redis中已过期的数据不应留在L1
+        localCache.put("rssNest:cache:site:a", feed("<rss>a</rss>", System.currentTimeMillis() - 1));
+        assertNull(localCache.get("rssNest:cache:site:a"));
+
+        // L1存活时间不超过max-ttl-seconds
+        LocalRssCache zeroTtlCache = new LocalRssCache(true, 1024 * 1024, 0);
+        zeroTtlCache.put("rssNest:cache:site:b", feed("<rss>b</rss>", System.currentTimeMillis() + 3_600_000));
+        assertNull(zeroTtlCache.get("rssNest:cache:site:b"));
+    }
+
+    @Test
+    void testInvalidatePrefix() {
+        long expireAt = System.currentTimeMillis() + 10_000;
+        localCache.put("rssNest:cache:site1:a", feed("a", expireAt));
+        localCache.put("rssNest:cache:site1:b", feed("b", expireAt));
+        localCache.put("rssNest:cache:site2:a", feed("c", expireAt));
+
+        localCache.invalidatePrefix("rssNest:cache:site1:");
+
+        assertNull(localCache.get("rssNest:cache:site1:a"));
+        assertNull(localCache.get("rssNest:cache:site1:b"));
+        assertNotNull(localCache.get("rssNest:cache:site2:a"));
+    }
+
+    @Test
+    void testWeightedEviction() {
+        LocalRssCache smallCache = new LocalRssCache(true, 4096, 60);
+        String value = "x".repeat(512);
+        long expireAt = System.currentTimeMillis() + 10_000;
+        for (int i = 0; i < 32; i++) {
+            smallCache.put("rssNest:cache:site:" + i, feed(value, expireAt));
+        }
+        smallCache.cleanUp();
+
+        assertTrue(smallCache.weightedSize() <= 4096);
+        assertTrue(smallCache.size() < 32);
+    }
+
+    @Test
+    void testDisabled() {
+        LocalRssCache disabled = new LocalRssCache(false, 4096, 60);
+        disabled.put("rssNest:cache:site:a", feed("a", System.currentTimeMillis() + 10_000));
+        assertNull(disabled.get("rssNest:cache:site:a"));
+    }
+
+    private static CachedFeed feed(String xml, long expireAtMillis) {
+        return CachedFeed.of(xml, FeedEncoding.IDENTITY, System.currentTimeMillis(), 0L, expireAtMillis);
+    }
+}
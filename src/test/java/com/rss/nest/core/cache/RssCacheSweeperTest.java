@@ -0,0 +1,39 @@
+package com.rss.nest.core.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 过期代数缓存判断测试
+ */
+class RssCacheSweeperTest {
+
+    private final ToLongFunction<String> generations = siteId -> Map.of("rrdynb", 3L, "zsxcool", 0L).getOrDefault(siteId, 0L);
+
+    @Test
+    void testCurrentGenerationKept() {
+        assertFalse(RssCacheSweeper.isOrphan("rssNest:cache:rrdynb:g3:d41d8cd98f00b204e9800998ecf8427e", generations));
+        assertFalse(RssCacheSweeper.isOrphan("rssNest:cache:zsxcool:g0:d41d8cd98f00b204e9800998ecf8427e", generations));
+    }
+
+    @Test
+    void testOldGenerationRemoved() {
+        assertTrue(RssCacheSweeper.isOrphan("rssNest:cache:rrdynb:g2:d41d8cd98f00b204e9800998ecf8427e", generations));
+    }
+
+    @Test
+    void testLegacyKeyRemoved() {
+        // 引入代数之前的Key格式
+        assertTrue(RssCacheSweeper.isOrphan("rssNest:cache:rrdynb:d41d8cd98f00b204e9800998ecf8427e", generations));
+        assertTrue(RssCacheSweeper.isOrphan("rssNest:cache:rrdynb:gx:d41d8cd98f00b204e9800998ecf8427e", generations));
+    }
+
+    @Test
+    void testOtherPrefixIgnored() {
+        assertFalse(RssCacheSweeper.isOrphan("rssNest:lock:rrdynb:d41d8cd98f00b204e9800998ecf8427e", generations));
+    }
+}
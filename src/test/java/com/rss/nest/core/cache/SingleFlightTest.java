@@ -0,0 +1,185 @@
+package com.rss.nest.core.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 进程内请求合并测试
+ */
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "<rss>data</rss>";
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 7; i++) {
+                futures.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    executions.incrementAndGet();
+                    return "<rss>other</rss>";
+                })));
+            }
+            // 等待跟随者加入
+            while (singleFlight.sharedCount() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> future : futures) {
+                assertEquals("<rss>data</rss>", future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, singleFlight.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExceptionSharedWithFollowers() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("upstream down");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "unused"));
+            while (singleFlight.sharedCount() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSequentialCallsExecuteAgain() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("key", () -> "v" + executions.incrementAndGet());
+        String second = singleFlight.execute("key", () -> "v" + executions.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testAsyncCallersShareOneExecution() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> loading = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.executeAsync("key", () -> {
+            executions.incrementAndGet();
+            return loading;
+        });
+        CompletableFuture<String> follower = singleFlight.executeAsync("key", () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture("<rss>other</rss>");
+        });
+        // 等待期间不占用线程，调用立即返回
+        assertFalse(leader.isDone());
+        assertFalse(follower.isDone());
+        assertEquals(1, singleFlight.inFlightCount());
+
+        loading.complete("<rss>data</rss>");
+        assertEquals("<rss>data</rss>", leader.join());
+        assertEquals("<rss>data</rss>", follower.join());
+        assertEquals(1, executions.get());
+        assertEquals(1, singleFlight.sharedCount());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testAsyncSharedWithSyncCaller() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> loading = new CompletableFuture<>();
+        CompletableFuture<String> leader = singleFlight.executeAsync("key", () -> loading);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "unused"));
+            while (singleFlight.sharedCount() < 1) {
+                Thread.sleep(5);
+            }
+            loading.complete("<rss>data</rss>");
+
+            assertEquals("<rss>data</rss>", follower.get(5, TimeUnit.SECONDS));
+            assertEquals("<rss>data</rss>", leader.join());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAsyncFailureAndCancellation() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> loading = new CompletableFuture<>();
+        CompletableFuture<String> leader = singleFlight.executeAsync("key", () -> loading);
+        CompletableFuture<String> follower = singleFlight.executeAsync("key", () -> loading);
+
+        // 取消一个调用方不影响其他调用方
+        leader.cancel(true);
+        assertFalse(loading.isCancelled());
+        assertFalse(follower.isDone());
+
+        loading.completeExceptionally(new IllegalStateException("upstream down"));
+        CompletionException error = assertThrows(CompletionException.class, follower::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(0, singleFlight.inFlightCount());
+
+        // supplier直接抛出异常时以异常完成
+        CompletableFuture<String> failed = singleFlight.executeAsync("key", () -> {
+            throw new IllegalArgumentException("bad");
+        });
+        assertInstanceOf(IllegalArgumentException.class,
+                assertThrows(CompletionException.class, failed::join).getCause());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
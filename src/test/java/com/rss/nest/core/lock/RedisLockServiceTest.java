@@ -0,0 +1,114 @@
+package com.rss.nest.core.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 分布式锁测试（Redis以内存Map模拟SET NX与解锁、续期脚本）
+ */
+class RedisLockServiceTest {
+
+    private static final String LOCK_KEY = "rssNest:lock:test-site:lock-test";
+
+    /**
+     * 模拟的Redis数据
+     */
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
+    private RedisTemplate<String, String> redisTemplate;
+
+    private RedisLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock();
+        ValueOperations<String, String> valueOperations = mock();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(invocation -> redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(redisTemplate.execute(any(), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            RedisScript<?> script = invocation.getArgument(0);
+            List<String> keys = invocation.getArgument(1);
+            String token = invocation.getArgument(2);
+            if (!token.equals(redis.get(keys.get(0)))) {
+                return 0L;
+            }
+            if (script.getScriptAsString().contains("'del'")) {
+                redis.remove(keys.get(0));
+            }
+            return 1L;
+        });
+
+        lockService = new RedisLockService(redisTemplate, new SimpleMeterRegistry(), 30, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockService.shutdown();
+    }
+
+    @Test
+    void testMutualExclusion() {
+        try (LockLease lease = lockService.tryLock(LOCK_KEY)) {
+            assertNotNull(lease);
+            assertTrue(lease.isHeld());
+            assertNull(lockService.tryLock(LOCK_KEY));
+        }
+        assertNull(redis.get(LOCK_KEY));
+
+        LockLease again = lockService.tryLock(LOCK_KEY);
+        assertNotNull(again);
+        again.close();
+    }
+
+    @Test
+    void testStaleOwnerCannotReleaseOtherLock() {
+        LockLease first = lockService.tryLock(LOCK_KEY);
+        assertNotNull(first);
+
+        // 模拟租期过期后被其他节点获取
+        redis.remove(LOCK_KEY);
+        LockLease second = lockService.tryLock(LOCK_KEY);
+        assertNotNull(second);
+
+        first.close();
+        assertEquals(second.getToken(), redis.get(LOCK_KEY));
+        assertFalse(first.isHeld());
+
+        second.close();
+        assertNull(redis.get(LOCK_KEY));
+    }
+
+    @Test
+    void testWatchdogDetectsLostLock() throws InterruptedException {
+        // 租期1秒，看门狗约每333毫秒续期一次
+        RedisLockService shortLease = new RedisLockService(redisTemplate, new SimpleMeterRegistry(), 1, 300);
+        try {
+            LockLease lease = shortLease.tryLock(LOCK_KEY);
+            assertNotNull(lease);
+
+            redis.remove(LOCK_KEY);
+            long deadline = System.currentTimeMillis() + 3000;
+            while (lease.isHeld() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertFalse(lease.isHeld());
+        } finally {
+            shortLease.shutdown();
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.rss.nest.core.parser;
 
 import com.rss.nest.core.config.ParseConfig;
+import com.rss.nest.core.config.RssConfig;
 import com.rss.nest.models.webhtml.WebDataArticleDTO;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -132,4 +137,151 @@ class ConfigurableHtmlParserTest {
         assertEquals(1, articles.size());
         assertEquals("https://example.com/image.jpg", articles.get(0).getImageUrl());
     }
+
+    @Test
+    void testOutputFieldsSkipFieldsNotInRss() {
+        String html = """
+                <html>
+                <body>
+                    <article class="item">
+                        <h2>文章标题</h2>
+                        <a href="/test">链接</a>
+                        <div class="brief"><p>简介</p></div>
+                        <img class="cover" src="/image.jpg" />
+                        <span class="author">作者</span>
+                        <span class="category">分类</span>
+                    </article>
+                </body>
+                </html>
+                """;
+
+        parseConfig.setListSelector("article.item");
+        parseConfig.setTitleSelector("h2");
+        parseConfig.setLinkSelector("a");
+        parseConfig.setContentSelector(".brief");
+        parseConfig.setContentMode("html");
+        parseConfig.setImageSelector("img.cover");
+        parseConfig.setImageAttribute("src");
+        parseConfig.setAuthorSelector(".author");
+        parseConfig.setCategorySelector(".category");
+        parseConfig.setCustomSelectors(Map.of("brief", ".brief"));
+
+        WebDataArticleDTO full = parser.parse(Jsoup.parse(html), parseConfig, OutputFields.ALL).get(0);
+        assertEquals("<p>简介</p>", full.getContent());
+        assertEquals("/image.jpg", full.getImageUrl());
+        assertEquals("作者", full.getAuthor());
+        assertEquals("分类", full.getCategory());
+        assertEquals("简介", full.getCustomField("brief"));
+
+        // RSS输出只用到标题、链接、内容与发布时间
+        RssConfig rssConfig = new RssConfig();
+        WebDataArticleDTO rss = parser.parse(Jsoup.parse(html), parseConfig, OutputFields.of(rssConfig)).get(0);
+        assertEquals("<p>简介</p>", rss.getContent());
+        assertNull(rss.getImageUrl());
+        assertNull(rss.getAuthor());
+        assertNull(rss.getCategory());
+        assertNull(rss.getCustomField("brief"));
+
+        rssConfig.setIncludeContent(false);
+        WebDataArticleDTO titleOnly = parser.parse(Jsoup.parse(html), parseConfig, OutputFields.of(rssConfig)).get(0);
+        assertEquals("文章标题", titleOnly.getTitle());
+        assertEquals("/test", titleOnly.getUrl());
+        assertNull(titleOnly.getContent());
+
+        // 裁剪计划按字段组合缓存，需要全部字段时即原计划
+        SelectorPlan plan = parser.getPlan(parseConfig);
+        assertSame(plan, plan.project(OutputFields.ALL));
+        assertSame(plan.project(OutputFields.of(rssConfig)), plan.project(OutputFields.of(rssConfig)));
+        SelectorPlan projected = plan.project(OutputFields.of(false, true, false));
+        assertNull(projected.getFields()[SelectorPlan.CONTENT]);
+        assertNull(projected.getFields()[SelectorPlan.AUTHOR]);
+        assertEquals(SelectorPlan.CUSTOM_START, projected.getFields().length);
+    }
+
+    @Test
+    void testPlanCachedAndRecompiledWhenConfigChanges() {
+        String html = """
+                <html>
+                <body>
+                    <article class="item">
+                        <h2>文章标题</h2>
+                        <h3>副标题</h3>
+                        <a href="https://example.com/a">链接</a>
+                    </article>
+                </body>
+                </html>
+                """;
+
+        Document document = Jsoup.parse(html);
+
+        parseConfig.setListSelector("article.item");
+        parseConfig.setTitleSelector("h2");
+        parseConfig.setLinkSelector("a");
+
+        SelectorPlan plan = parser.getPlan(parseConfig);
+        assertSame(plan, parser.getPlan(parseConfig));
+        assertEquals("文章标题", parser.parse(document, parseConfig).get(0).getTitle());
+
+        // 修改配置后重新编译
+        parseConfig.setTitleSelector("h3");
+        assertNotSame(plan, parser.getPlan(parseConfig));
+        assertEquals("副标题", parser.parse(document, parseConfig).get(0).getTitle());
+    }
+
+    @Test
+    void testInvalidFieldSelectorIgnored() {
+        String html = """
+                <html>
+                <body>
+                    <article class="item">
+                        <h2>文章标题</h2>
+                        <a href="https://example.com/a">链接</a>
+                    </article>
+                </body>
+                </html>
+                """;
+
+        parseConfig.setListSelector("article.item");
+        parseConfig.setTitleSelector("h2");
+        parseConfig.setLinkSelector("a");
+        parseConfig.setAuthorSelector("span[");
+
+        List<WebDataArticleDTO> articles = parser.parse(Jsoup.parse(html), parseConfig);
+
+        assertEquals(1, articles.size());
+        assertNull(articles.get(0).getAuthor());
+    }
+
+    @Test
+    void testParseStreamStopsAtMaxItems() throws IOException {
+        StringBuilder html = new StringBuilder("<html><body><ul>");
+        for (int i = 0; i < 20000; i++) {
+            html.append("<li class=\"item\"><h2>标题").append(i).append("</h2><a href=\"/a/").append(i)
+                    .append("\">链接</a><p>").append("内容".repeat(20)).append("</p></li>");
+        }
+        html.append("</ul></body></html>");
+
+        parseConfig.setListSelector("li.item");
+        parseConfig.setTitleSelector("h2");
+        parseConfig.setLinkSelector("a");
+        parseConfig.setUrlPrefix("https://example.com");
+
+        int[] charsRead = {0};
+        Reader reader = new StringReader(html.toString()) {
+            @Override
+            public int read(char[] buffer, int off, int len) throws IOException {
+                int n = super.read(buffer, off, len);
+                charsRead[0] += Math.max(n, 0);
+                return n;
+            }
+        };
+
+        List<WebDataArticleDTO> articles = parser.parseStream(reader, "https://example.com/", parseConfig, 3);
+
+        assertEquals(3, articles.size());
+        assertEquals("标题2", articles.get(2).getTitle());
+        assertEquals("https://example.com/a/2", articles.get(2).getUrl());
+        // 只读取了页面开头的一小部分
+        assertTrue(charsRead[0] < html.length() / 10, "读取字符数: " + charsRead[0]);
+    }
 }
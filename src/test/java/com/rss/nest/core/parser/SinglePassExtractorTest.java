@@ -0,0 +1,50 @@
+package com.rss.nest.core.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单次遍历多字段匹配测试
+ */
+class SinglePassExtractorTest {
+
+    private static final String HTML = """
+            <li class="item">
+                <div class="cover"><a href="/1"><img src="/1.jpg"></a></div>
+                <h2><a href="/1">标题</a></h2>
+                <div class="brief"><span>导演: 甲</span><span>主演: 乙</span></div>
+                <div class="tags"><a rel="tag">电影</a><a rel="tag">剧情</a></div>
+            </li>
+            """;
+
+    @Test
+    void testMatchesSameAsSelectFirst() {
+        Element item = Jsoup.parse(HTML).selectFirst("li.item");
+        String[] selectors = {"h2 a", "a", ".brief span", "a[rel=tag]", "img", "li.item", "span.missing"};
+        Evaluator[] evaluators = new Evaluator[selectors.length + 1];
+        for (int i = 0; i < selectors.length; i++) {
+            evaluators[i] = QueryParser.parse(selectors[i]);
+        }
+
+        Element[] matches = SinglePassExtractor.matchFirst(item, evaluators);
+        SinglePassExtractor.reset(evaluators);
+
+        for (int i = 0; i < selectors.length; i++) {
+            assertSame(item.selectFirst(selectors[i]), matches[i], selectors[i]);
+        }
+        // 未配置的字段
+        assertNull(matches[selectors.length]);
+    }
+
+    @Test
+    void testNoEvaluators() {
+        Element item = Jsoup.parse(HTML).selectFirst("li.item");
+
+        assertArrayEquals(new Element[2], SinglePassExtractor.matchFirst(item, new Evaluator[2]));
+    }
+}
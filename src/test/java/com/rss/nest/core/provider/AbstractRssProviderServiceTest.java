@@ -0,0 +1,393 @@
+package com.rss.nest.core.provider;
+
+import com.rss.nest.core.cache.CachedFeed;
+import com.rss.nest.core.cache.FeedEncoding;
+import com.rss.nest.core.config.ParseConfig;
+import com.rss.nest.core.config.RssConfig;
+import com.rss.nest.core.config.SiteConfig;
+import com.rss.nest.core.exception.FeedNotModifiedException;
+import com.rss.nest.core.exception.HtmlParseException;
+import com.rss.nest.core.parser.ConfigurableHtmlParser;
+import com.rss.nest.core.resilience.UpstreamBackoff;
+import com.rss.nest.core.resilience.UpstreamGuard;
+import com.rss.nest.core.resilience.UpstreamRateLimiter;
+import com.rss.nest.models.webhtml.WebDataArticleDTO;
+import com.rss.nest.utils.hash.ContentHashUtil;
+import com.rss.nest.utils.rss.RssUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * RSS生成模板流程测试（同步与异步生成、条件抓取与内容哈希）
+ */
+class AbstractRssProviderServiceTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private HttpServer server;
+    private TestProvider provider;
+
+    /**
+     * 上游返回的页面内容
+     */
+    private volatile String page = page("标题1");
+
+    /**
+     * 上游是否支持条件请求（返回ETag/Last-Modified并处理If-None-Match）
+     */
+    private volatile boolean conditionalSupported = true;
+
+    /**
+     * 每次请求的If-None-Match/If-Modified-Since
+     */
+    private final List<String> conditionalHeaders = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        provider = new TestProvider("http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(provider, "htmlParser", new ConfigurableHtmlParser());
+        ReflectionTestUtils.setField(provider, "upstreamBackoff", new UpstreamBackoff(true, 2000L, 300000L, 3));
+        UpstreamGuard upstreamGuard = new UpstreamGuard();
+        ReflectionTestUtils.setField(upstreamGuard, "circuitBreakerRegistry", CircuitBreakerRegistry.ofDefaults());
+        ReflectionTestUtils.setField(upstreamGuard, "bulkheadRegistry", BulkheadRegistry.ofDefaults());
+        ReflectionTestUtils.setField(provider, "upstreamGuard", upstreamGuard);
+        UpstreamRateLimiter rateLimiter =
+                new UpstreamRateLimiter(null, null, false, 5, 1000L, 5000L, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(provider, "siteHttpClients",
+                new SiteHttpClients(new OkHttpClient(), mock(), rateLimiter));
+        ReflectionTestUtils.setField(provider, "changeStats", new UpstreamChangeStats(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(provider, "parseExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(provider, "callTimeoutMillis", 10000L);
+        ReflectionTestUtils.setField(provider, "maxBodyBytes", 1048576L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        conditionalHeaders.add(ifNoneMatch + "|" + ifModifiedSince);
+        if (conditionalSupported) {
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            if (ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        byte[] body = page.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String page(String title) {
+        return "<html><body><ul>"
+                + "<li class=\"item\"><a href=\"/a/1\">" + title + "</a></li>"
+                + "<li class=\"item\"><a href=\"/a/2\">标题2</a></li>"
+                + "</ul></body></html>";
+    }
+
+    @Test
+    void testValidatorsReturnedWithResult() {
+        GeneratedRss generated = provider.generateRss(Map.of(), null);
+
+        assertEquals(2, generated.getChannel().getItems().size());
+        assertEquals(ETAG, generated.getValidators().getEtag());
+        assertEquals(LAST_MODIFIED, generated.getValidators().getLastModified());
+        assertNotNull(generated.getValidators().getBodyHash());
+        // 没有上一版时不发送条件请求
+        assertEquals(List.of("null|null"), conditionalHeaders);
+    }
+
+    @Test
+    void testNotModifiedWithPreviousValidators() {
+        UpstreamValidators previous = provider.generateRss(Map.of(), null).getValidators();
+
+        assertThrows(FeedNotModifiedException.class, () -> provider.generateRss(Map.of(), previous));
+        assertEquals(ETAG + "|" + LAST_MODIFIED, conditionalHeaders.get(1));
+    }
+
+    @Test
+    void testNotModifiedAsync() {
+        UpstreamValidators previous = provider.generateRssAsync(Map.of(), null).join().getValidators();
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> provider.generateRssAsync(Map.of(), previous).join());
+        assertInstanceOf(FeedNotModifiedException.class, error.getCause());
+        assertEquals(ETAG + "|" + LAST_MODIFIED, conditionalHeaders.get(1));
+    }
+
+    @Test
+    void testNotModifiedStreaming() {
+        provider.getSiteConfig().getParseConfig().setStreaming(true);
+        UpstreamValidators previous = provider.generateRss(Map.of(), null).getValidators();
+        assertEquals(ETAG, previous.getEtag());
+
+        assertThrows(FeedNotModifiedException.class, () -> provider.generateRss(Map.of(), previous));
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> provider.generateRssAsync(Map.of(), previous).join());
+        assertInstanceOf(FeedNotModifiedException.class, error.getCause());
+    }
+
+    @Test
+    void testItemsPerPageOnBothPaths() {
+        RssConfig rssConfig = new RssConfig();
+        rssConfig.setItemsPerPage(1);
+        provider.getSiteConfig().setRssConfig(rssConfig);
+
+        assertEquals(1, provider.generateRss(Map.of(), null).getChannel().getItems().size());
+        assertEquals(1, provider.generateRssAsync(Map.of(), null).join().getChannel().getItems().size());
+
+        provider.getSiteConfig().getParseConfig().setStreaming(true);
+        assertEquals(1, provider.generateRss(Map.of(), null).getChannel().getItems().size());
+    }
+
+    @Test
+    void testConfigChangeNotShortCircuited() {
+        UpstreamValidators previous = provider.generateRss(Map.of(), null).getValidators();
+        assertNotNull(previous.getConfigFingerprint());
+        assertThrows(FeedNotModifiedException.class, () -> provider.generateRss(Map.of(), previous));
+
+        // 输出配置变化：上游未变化也要重新生成，且不发送条件请求
+        RssConfig rssConfig = new RssConfig();
+        rssConfig.setItemsPerPage(1);
+        provider.getSiteConfig().setRssConfig(rssConfig);
+        conditionalHeaders.clear();
+        GeneratedRss generated = provider.generateRss(Map.of(), previous);
+        assertEquals(1, generated.getChannel().getItems().size());
+        assertEquals(List.of("null|null"), conditionalHeaders);
+        assertNotEquals(previous.getConfigFingerprint(), generated.getValidators().getConfigFingerprint());
+
+        // 没有记录配置指纹（旧版本缓存）时同样不沿用
+        UpstreamValidators legacy = new UpstreamValidators(ETAG, LAST_MODIFIED, previous.getBodyHash());
+        assertEquals(1, provider.generateRssAsync(Map.of(), legacy).join().getChannel().getItems().size());
+    }
+
+    @Test
+    void testOtherEntryValidatorsNotShared() {
+        // 同一URL被两个缓存条目使用：第一个条目抓取后，第二个条目（没有上一版）仍然无条件抓取并得到完整内容
+        UpstreamValidators first = provider.generateRss(Map.of(), null).getValidators();
+        assertEquals(2, provider.generateRss(Map.of(), null).getChannel().getItems().size());
+
+        assertEquals(List.of("null|null", "null|null"), conditionalHeaders);
+        assertThrows(FeedNotModifiedException.class, () -> provider.generateRss(Map.of(), first));
+    }
+
+    @Test
+    void testHashUnchangedWithoutConditionalSupport() {
+        conditionalSupported = false;
+        UpstreamValidators previous = provider.generateRss(Map.of(), null).getValidators();
+        assertNull(previous.getEtag());
+        // 与其他内容哈希使用同一算法，按响应体原始字节计算
+        assertEquals(ContentHashUtil.hash64(page.getBytes(StandardCharsets.UTF_8)), previous.getBodyHash());
+
+        // 内容相同：按哈希判断未修改
+        assertThrows(FeedNotModifiedException.class, () -> provider.generateRss(Map.of(), previous));
+
+        // 内容变化：重新生成
+        page = page("标题1-更新");
+        GeneratedRss generated = provider.generateRss(Map.of(), previous);
+        assertEquals("标题1-更新", generated.getChannel().getItems().get(0).getTitle());
+        assertNotEquals(previous.getBodyHash(), generated.getValidators().getBodyHash());
+    }
+
+    @Test
+    void testParseFailureAfterChangedBodyThenSameBody() {
+        conditionalSupported = false;
+        CachedFeed cached = load(null);
+
+        // 内容变化后解析失败：缓存条目（及其中的哈希）保持上一版
+        page = page("标题1-更新");
+        provider.failParse = true;
+        CachedFeed previous = cached;
+        assertThrows(HtmlParseException.class, () -> load(previous));
+
+        // 下一次请求得到相同内容：与缓存中的哈希不同，必须重新生成而不是按未修改沿用旧内容
+        provider.failParse = false;
+        cached = load(cached);
+        assertTrue(cached.getXml().contains("标题1-更新"));
+
+        // 新内容写入缓存后，相同内容才按未修改处理
+        CachedFeed updated = cached;
+        assertThrows(FeedNotModifiedException.class, () -> load(updated));
+    }
+
+    @Test
+    void testGenerateAsync() {
+        GeneratedRss generated = provider.generateRssAsync(Map.of(), null).join();
+
+        assertEquals(2, generated.getChannel().getItems().size());
+        assertEquals("标题1", generated.getChannel().getItems().get(0).getTitle());
+        assertEquals(ETAG, generated.getValidators().getEtag());
+        assertEquals(provider.generateRss(Map.of(), null).getValidators().getBodyHash(),
+                generated.getValidators().getBodyHash());
+    }
+
+    @Test
+    void testGenerateAsyncTranslatesErrors() {
+        provider.failParse = true;
+        CompletionException parseError = assertThrows(CompletionException.class,
+                () -> provider.generateRssAsync(Map.of(), null).join());
+        assertInstanceOf(HtmlParseException.class, parseError.getCause());
+
+        // 参数错误不发起请求，直接以异常完成
+        provider.invalidParams = true;
+        CompletableFuture<GeneratedRss> invalid = provider.generateRssAsync(Map.of(), null);
+        assertTrue(invalid.isCompletedExceptionally());
+        assertEquals(1, conditionalHeaders.size());
+    }
+
+    @Test
+    void testCancelAsyncCancelsCall() throws Exception {
+        CountDownLatch requested = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow/", exchange -> {
+            requested.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handle(exchange);
+        });
+        provider.path = "/slow/";
+        try {
+            CompletableFuture<GeneratedRss> future = provider.generateRssAsync(Map.of(), null);
+            // 等待上游响应期间调用线程已返回
+            assertTrue(requested.await(5, TimeUnit.SECONDS));
+            assertFalse(future.isDone());
+
+            assertTrue(future.cancel(true));
+            assertTrue(future.isCancelled());
+            // 底层HTTP调用被取消，连接上不再有进行中的请求
+            OkHttpClient client = ((SiteHttpClients) ReflectionTestUtils.getField(provider, "siteHttpClients"))
+                    .get(provider.getSiteConfig()).getClient();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (client.dispatcher().runningCallsCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, client.dispatcher().runningCallsCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * 按缓存层的规则生成一次：以缓存条目中的校验信息条件抓取，成功后校验信息随内容写入新条目（经过Redis编码）
+     */
+    private CachedFeed load(CachedFeed previous) {
+        GeneratedRss generated = provider.generateRss(Map.of(), previous != null ? previous.getValidators() : null);
+        long now = System.currentTimeMillis();
+        String xml = RssUtil.rssChannelOutPutXml(generated.getChannel());
+        CachedFeed feed = CachedFeed.of(xml, FeedEncoding.GZIP,
+                now, 0L, now + 60000L, generated.getValidators());
+        return CachedFeed.decode(feed.encode(), now + 60000L);
+    }
+
+    /**
+     * 测试用Provider：列表页每个li.item为一条
+     */
+    static class TestProvider extends AbstractRssProviderService {
+
+        private final String url;
+
+        /**
+         * 请求路径
+         */
+        private volatile String path = "/list/";
+
+        /**
+         * 为true时参数验证失败
+         */
+        private volatile boolean invalidParams;
+
+        /**
+         * 为true时提取文章失败
+         */
+        private volatile boolean failParse;
+
+        TestProvider(String url) {
+            this.url = url;
+            ParseConfig parseConfig = new ParseConfig();
+            parseConfig.setListSelector("li.item");
+            parseConfig.setTitleSelector("a");
+            parseConfig.setLinkSelector("a");
+            parseConfig.setLinkAttribute("href");
+            parseConfig.setNeedFullUrl(true);
+            parseConfig.setUrlPrefix("https://example.com");
+
+            SiteConfig config = new SiteConfig();
+            config.setSiteId("test");
+            config.setSiteName("测试网站");
+            config.setBaseUrl("https://example.com");
+            config.setParseConfig(parseConfig);
+            this.siteConfig = config;
+        }
+
+        @Override
+        public String getSiteIdentifier() {
+            return "test";
+        }
+
+        @Override
+        protected String buildUrl(Map<String, String> params) {
+            return url + path;
+        }
+
+        @Override
+        public boolean validateParams(Map<String, String> params) {
+            return !invalidParams;
+        }
+
+        @Override
+        public String getSupportedParams() {
+            return "";
+        }
+
+        @Override
+        protected List<WebDataArticleDTO> extractArticles(Document document, Map<String, String> params) {
+            if (failParse) {
+                throw new HtmlParseException("解析失败");
+            }
+            return super.extractArticles(document, params);
+        }
+    }
+}
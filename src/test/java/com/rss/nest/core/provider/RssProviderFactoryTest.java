@@ -8,6 +8,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * RSS提供者工厂测试
@@ -58,4 +60,13 @@ class RssProviderFactoryTest {
         assertNotNull(info.getSiteId());
         assertNotNull(info.getSiteName());
     }
+
+    @Test
+    void testReservedSiteIdRejected() {
+        RssProviderService provider = mock(RssProviderService.class);
+        when(provider.getSiteIdentifier()).thenReturn("async");
+
+        // /api/rss/async/{siteId}会抢先匹配，网站ID不能为async
+        assertThrows(IllegalStateException.class, () -> new RssProviderFactory(List.of(provider)));
+    }
 }
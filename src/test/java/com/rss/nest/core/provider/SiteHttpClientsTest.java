@@ -0,0 +1,118 @@
+package com.rss.nest.core.provider;
+
+import com.rss.nest.core.config.HttpConfig;
+import com.rss.nest.core.config.RateLimitConfig;
+import com.rss.nest.core.config.SiteConfig;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import com.rss.nest.core.resilience.UpstreamRateLimiter;
+import com.rss.nest.utils.http.RetryPolicy;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 按网站划分的HTTP客户端测试
+ */
+class SiteHttpClientsTest {
+
+    /**
+     * 预热请求次数，请求由拦截器直接应答，不访问网络
+     */
+    private final CountDownLatch prewarmed = new CountDownLatch(1);
+
+    private final OkHttpClient baseClient = new OkHttpClient.Builder()
+            .addInterceptor(chain -> {
+                prewarmed.countDown();
+                return new Response.Builder()
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(200)
+                        .message("OK")
+                        .body(ResponseBody.create("", null))
+                        .build();
+            })
+            .build();
+
+    private final UpstreamRateLimiter rateLimiter = mock();
+
+    private final SiteHttpClients clients = new SiteHttpClients(baseClient, mock(), rateLimiter);
+
+    private static SiteConfig site(String siteId, HttpConfig httpConfig) {
+        SiteConfig config = new SiteConfig();
+        config.setSiteId(siteId);
+        config.setBaseUrl("https://example.com");
+        config.setHttpConfig(httpConfig);
+        return config;
+    }
+
+    @Test
+    void testBuildsClientFromSiteConfig() {
+        HttpConfig httpConfig = new HttpConfig();
+        httpConfig.setConnectTimeoutMs(1500L);
+        httpConfig.setReadTimeoutMs(2500L);
+        httpConfig.setMaxConnectionsPerHost(3);
+        httpConfig.setPreferHttp2(false);
+
+        OkHttpClient client = clients.build(site("a", httpConfig));
+
+        assertEquals(1500, client.connectTimeoutMillis());
+        assertEquals(2500, client.readTimeoutMillis());
+        assertEquals(3, client.dispatcher().getMaxRequestsPerHost());
+        assertEquals(List.of(Protocol.HTTP_1_1), client.protocols());
+        // 连接池与Dispatcher独立，线程池共享
+        assertNotSame(baseClient.connectionPool(), client.connectionPool());
+        assertNotSame(baseClient.dispatcher(), client.dispatcher());
+        assertSame(baseClient.dispatcher().executorService(), client.dispatcher().executorService());
+    }
+
+    @Test
+    void testPrewarmWaitsForRateLimit() throws InterruptedException {
+        SiteConfig site = site("d", null);
+        site.setRateLimitConfig(new RateLimitConfig());
+
+        // 限流预算不足时不发送预热请求
+        when(rateLimiter.acquireAsync(eq("d"), eq("https://example.com"), same(site.getRateLimitConfig())))
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("限流", 1)));
+        clients.prewarm(site);
+        assertEquals(1, prewarmed.getCount());
+
+        when(rateLimiter.acquireAsync(eq("d"), eq("https://example.com"), same(site.getRateLimitConfig())))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        clients.prewarm(site);
+        assertTrue(prewarmed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDefaultsAndCachingPerSite() {
+        SiteConfig site = site("b", null);
+
+        assertSame(clients.get(site), clients.get(site));
+        assertNotSame(clients.get(site), clients.get(site("c", null)));
+        assertTrue(clients.get(site).getClient().protocols().contains(Protocol.HTTP_2));
+    }
+
+    @Test
+    void testRetriesOffByDefault() {
+        assertFalse(SiteHttpClients.retryPolicy(site("d", null)).isEnabled());
+        assertFalse(SiteHttpClients.retryPolicy(site("e", new HttpConfig())).isEnabled());
+
+        HttpConfig httpConfig = new HttpConfig();
+        httpConfig.setMaxRetries(1);
+        RetryPolicy policy = SiteHttpClients.retryPolicy(site("f", httpConfig));
+        assertTrue(policy.isEnabled());
+        assertEquals(1, policy.getMaxRetries());
+    }
+}
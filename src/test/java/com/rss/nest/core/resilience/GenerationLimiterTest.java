@@ -0,0 +1,173 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.exception.GenerationOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RSS生成准入控制测试
+ */
+class GenerationLimiterTest {
+
+    private static GenerationLimiter limiter(int limit, int queueCapacity, int queuePerSite, long maxWaitMillis,
+                                             long latencyThresholdMillis) {
+        return new GenerationLimiter(true, limit, 1, 8, queueCapacity, queuePerSite, maxWaitMillis,
+                latencyThresholdMillis, 5, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testRejectsWithoutWaitWhenSaturated() {
+        GenerationLimiter limiter = limiter(1, 10, 10, 1000, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("a", true);
+
+        GenerationOverloadedException e = assertThrows(GenerationOverloadedException.class,
+                () -> limiter.acquire("a", false));
+        assertEquals(5, e.getRetryAfterSeconds());
+
+        permit.close();
+        assertDoesNotThrow(() -> limiter.acquire("a", false).close());
+    }
+
+    @Test
+    void testWaitTimesOutAndLeavesQueue() {
+        GenerationLimiter limiter = limiter(1, 10, 10, 50, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("a", true);
+
+        assertThrows(GenerationOverloadedException.class, () -> limiter.acquire("b", true));
+        assertEquals(0, limiter.getQueued());
+        permit.close();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testPerSiteQueueLimit() throws Exception {
+        GenerationLimiter limiter = limiter(1, 10, 1, 5_000, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("a", true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> queued = executor.submit(() -> limiter.acquire("a", true).close());
+            waitUntil(() -> limiter.getQueued() == 1);
+
+            // 同一网站已有一个排队，再排队直接拒绝
+            assertThrows(GenerationOverloadedException.class, () -> limiter.acquire("a", true));
+
+            permit.close();
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGrantsWaitersRoundRobinAcrossSites() throws Exception {
+        GenerationLimiter limiter = limiter(1, 10, 10, 5_000, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("x", true);
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        // 网站a先排两个，网站b后排一个：放行顺序应为 a, b, a
+        for (String site : new String[]{"a", "a", "b"}) {
+            int expected = limiter.getQueued() + 1;
+            Thread thread = new Thread(() -> {
+                try (GenerationLimiter.Permit p = limiter.acquire(site, true)) {
+                    order.add(site);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+            waitUntil(() -> limiter.getQueued() == expected);
+        }
+
+        permit.close();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+        assertEquals(List.of("a", "b", "a"), order);
+    }
+
+    @Test
+    void testLimitAdaptsToLatency() {
+        GenerationLimiter slow = limiter(4, 10, 10, 1000, 0);
+        slow.acquire("a", true).close();
+        assertEquals(3, slow.getLimit());
+
+        // 并发达到上限时才增长，每个上限周期+1
+        GenerationLimiter fast = limiter(2, 10, 10, 1000, 10_000);
+        for (int i = 0; i < 3; i++) {
+            GenerationLimiter.Permit first = fast.acquire("a", true);
+            GenerationLimiter.Permit second = fast.acquire("b", true);
+            first.close();
+            second.close();
+        }
+        assertEquals(3, fast.getLimit());
+    }
+
+    @Test
+    void testAcquireAsyncQueuesWithoutThread() {
+        GenerationLimiter limiter = limiter(1, 10, 10, 5_000, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquireAsync("a").join();
+
+        CompletableFuture<GenerationLimiter.Permit> queued = limiter.acquireAsync("b");
+        assertFalse(queued.isDone());
+        assertEquals(1, limiter.getQueued());
+
+        // 归还许可后放行排队者，许可在释放锁后交付
+        permit.close();
+        assertTrue(queued.isDone());
+        assertEquals(1, limiter.getInFlight());
+        queued.join().close();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testAcquireAsyncTimesOut() {
+        GenerationLimiter limiter = limiter(1, 10, 10, 50, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("a", true);
+
+        CompletionException e = assertThrows(CompletionException.class, () -> limiter.acquireAsync("b").join());
+        assertInstanceOf(GenerationOverloadedException.class, e.getCause());
+        assertEquals(0, limiter.getQueued());
+
+        permit.close();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testAcquireAsyncCancelLeavesQueue() {
+        GenerationLimiter limiter = limiter(1, 10, 10, 5_000, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("a", true);
+
+        CompletableFuture<GenerationLimiter.Permit> queued = limiter.acquireAsync("b");
+        assertTrue(queued.cancel(true));
+        assertEquals(0, limiter.getQueued());
+
+        // 取消的排队者不会占用许可
+        permit.close();
+        assertEquals(0, limiter.getInFlight());
+        assertDoesNotThrow(() -> limiter.acquire("a", false).close());
+    }
+
+    @Test
+    void testAcquireAsyncRejectsWhenQueueFull() {
+        GenerationLimiter limiter = limiter(1, 0, 10, 5_000, 10_000);
+        GenerationLimiter.Permit permit = limiter.acquire("a", true);
+
+        CompletableFuture<GenerationLimiter.Permit> rejected = limiter.acquireAsync("b");
+        assertTrue(rejected.isCompletedExceptionally());
+        permit.close();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待条件超时");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 上游失败退避测试
+ */
+class UpstreamBackoffTest {
+
+    private static final String SITE = "rrdynb";
+    private static final String URL_A = "https://example.com/a";
+    private static final String URL_B = "https://example.com/b";
+
+    @Test
+    void testUrlBacksOffAfterFirstFailure() {
+        UpstreamBackoff backoff = new UpstreamBackoff(true, 60_000, 300_000, 3);
+        backoff.recordFailure(SITE, URL_A, new IOException("timeout"));
+
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> backoff.checkAvailable(SITE, URL_A));
+        assertTrue(e.getRetryAfterSeconds() > 0);
+        // 其他URL和整个网站不受影响
+        assertDoesNotThrow(() -> backoff.checkAvailable(SITE, URL_B));
+        assertEquals(0L, backoff.siteBackoffRemaining(SITE));
+    }
+
+    @Test
+    void testSiteBacksOffAfterThreshold() {
+        UpstreamBackoff backoff = new UpstreamBackoff(true, 60_000, 300_000, 3);
+        for (int i = 0; i < 3; i++) {
+            backoff.recordFailure(SITE, URL_A + i, new IOException("timeout"));
+        }
+        assertTrue(backoff.siteBackoffRemaining(SITE) > 0);
+        assertThrows(UpstreamUnavailableException.class, () -> backoff.checkAvailable(SITE, URL_B));
+    }
+
+    @Test
+    void testSuccessResets() {
+        UpstreamBackoff backoff = new UpstreamBackoff(true, 60_000, 300_000, 1);
+        backoff.recordFailure(SITE, URL_A, new IOException("timeout"));
+        assertTrue(backoff.siteBackoffRemaining(SITE) > 0);
+
+        backoff.recordSuccess(SITE, URL_A);
+        assertEquals(0L, backoff.siteBackoffRemaining(SITE));
+        assertDoesNotThrow(() -> backoff.checkAvailable(SITE, URL_A));
+    }
+
+    @Test
+    void testBackoffGrowsExponentiallyWithinMax() {
+        UpstreamBackoff backoff = new UpstreamBackoff(true, 1_000, 10_000, 1);
+        assertTrue(backoff.backoffMillis(0) <= 1_200);
+        assertTrue(backoff.backoffMillis(2) >= 3_200);
+        assertTrue(backoff.backoffMillis(40) <= 10_000);
+    }
+
+    @Test
+    void testDisabled() {
+        UpstreamBackoff backoff = new UpstreamBackoff(false, 60_000, 300_000, 1);
+        backoff.recordFailure(SITE, URL_A, new IOException("timeout"));
+        assertDoesNotThrow(() -> backoff.checkAvailable(SITE, URL_A));
+    }
+}
@@ -0,0 +1,88 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 上游请求保护测试
+ */
+class UpstreamGuardTest {
+
+    private UpstreamGuard guard;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        guard = new UpstreamGuard();
+        ReflectionTestUtils.setField(guard, "circuitBreakerRegistry", circuitBreakerRegistry);
+        ReflectionTestUtils.setField(guard, "bulkheadRegistry", bulkheadRegistry);
+    }
+
+    @Test
+    void testOpensAfterFailuresAndIsolatesSites() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IOException.class, () -> guard.execute("slow-site", () -> {
+                throw new IOException("timeout");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("slow-site").getState());
+
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> guard.execute("slow-site", () -> "<html/>"));
+        assertEquals(30L, e.getRetryAfterSeconds());
+
+        // 其他网站不受影响
+        assertEquals("<html/>", guard.execute("other-site", () -> "<html/>"));
+    }
+
+    @Test
+    void testBulkheadRejectsWhenFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> guard.execute("site", () -> {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "<html/>";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(UpstreamUnavailableException.class, () -> guard.execute("site", () -> "<html/>"));
+            // 舱壁拒绝不计入熔断失败
+            assertEquals(0, circuitBreakerRegistry.circuitBreaker("site").getMetrics().getNumberOfFailedCalls());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rss.nest.core.resilience;
+
+import com.rss.nest.core.config.RateLimitConfig;
+import com.rss.nest.core.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 上游请求限流测试（Redis脚本以桩替代）
+ */
+class UpstreamRateLimiterTest {
+
+    private static final String SITE = "rrdynb";
+    private static final String URL = "https://www.rrdynb.com/movie/";
+
+    /**
+     * 记录Redis调用的限流器
+     */
+    private static class StubLimiter extends UpstreamRateLimiter {
+
+        private final List<String> calls = new ArrayList<>();
+
+        private final LongSupplier redis;
+
+        StubLimiter(long maxWaitMillis, LongSupplier redis) {
+            super(null, null, true, 5, 60_000, maxWaitMillis, new SimpleMeterRegistry());
+            this.redis = redis;
+        }
+
+        @Override
+        long takeFromRedis(String key, double ratePerSecond, int capacity, int requested) {
+            calls.add(key + ":" + requested);
+            return redis.getAsLong();
+        }
+    }
+
+    private static RateLimitConfig siteLimit(double rate, int burst) {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setSiteRatePerSecond(rate);
+        config.setSiteBurst(burst);
+        return config;
+    }
+
+    @Test
+    void testUsesLocalTokensBetweenRedisCalls() {
+        StubLimiter limiter = new StubLimiter(1000, () -> 5L);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire(SITE, URL, siteLimit(10, 5)));
+        }
+        assertEquals(List.of("rssNest:ratelimit:site:rrdynb:5"), limiter.calls);
+
+        // 本地令牌用完后再次申请
+        limiter.tryAcquire(SITE, URL, siteLimit(10, 5));
+        assertEquals(2, limiter.calls.size());
+    }
+
+    @Test
+    void testChecksSiteAndHostBudgets() {
+        StubLimiter limiter = new StubLimiter(1000, () -> 1L);
+        RateLimitConfig config = siteLimit(1, 1);
+        config.setHostRatePerSecond(1.0);
+
+        assertEquals(0L, limiter.tryAcquire(SITE, URL, config));
+        assertEquals(List.of("rssNest:ratelimit:site:rrdynb:1", "rssNest:ratelimit:host:www.rrdynb.com:1"),
+                limiter.calls);
+    }
+
+    @Test
+    void testSiteTokenRefundedWhenHostLimited() {
+        Iterator<Long> results = List.of(1L, -100L, 1L).iterator();
+        StubLimiter limiter = new StubLimiter(1000, results::next);
+        RateLimitConfig config = siteLimit(1, 1);
+        config.setHostRatePerSecond(1.0);
+
+        assertEquals(100L, limiter.tryAcquire(SITE, URL, config));
+        // 网站令牌已退回本地，再次尝试时只向Redis申请Host令牌
+        assertEquals(0L, limiter.tryAcquire(SITE, URL, config));
+        assertEquals(List.of("rssNest:ratelimit:site:rrdynb:1", "rssNest:ratelimit:host:www.rrdynb.com:1",
+                "rssNest:ratelimit:host:www.rrdynb.com:1"), limiter.calls);
+    }
+
+    @Test
+    void testReservedPermitUsedByNextAcquire() {
+        StubLimiter limiter = new StubLimiter(1000, () -> 1L);
+
+        limiter.reserve(SITE, URL, siteLimit(1, 1));
+        assertEquals(1, limiter.calls.size());
+
+        // 预留的许可只使用一次
+        limiter.acquire(SITE, URL, siteLimit(1, 1));
+        assertEquals(1, limiter.calls.size());
+        limiter.acquire(SITE, URL, siteLimit(1, 1));
+        assertEquals(2, limiter.calls.size());
+
+        limiter.reserveAsync(SITE, URL, siteLimit(1, 1)).join();
+        assertTrue(limiter.acquireAsync(SITE, URL, siteLimit(1, 1)).isDone());
+        assertEquals(3, limiter.calls.size());
+    }
+
+    @Test
+    void testThrowsWhenWaitExceedsMax() {
+        StubLimiter limiter = new StubLimiter(50, () -> -200L);
+        assertEquals(200L, limiter.tryAcquire(SITE, URL, siteLimit(5, 5)));
+
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> limiter.acquire(SITE, URL, siteLimit(5, 5)));
+        assertEquals(1L, e.getRetryAfterSeconds());
+        assertTrue(limiter.acquireAsync(SITE, URL, siteLimit(5, 5)).isCompletedExceptionally());
+    }
+
+    @Test
+    void testFailsOpenWithoutConfigOrRedis() {
+        StubLimiter limiter = new StubLimiter(50, () -> {
+            throw new IllegalStateException("redis down");
+        });
+        assertDoesNotThrow(() -> limiter.acquire(SITE, URL, null));
+        assertTrue(limiter.calls.isEmpty());
+        assertDoesNotThrow(() -> limiter.acquire(SITE, URL, siteLimit(5, 5)));
+    }
+}
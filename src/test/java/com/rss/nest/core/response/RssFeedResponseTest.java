@@ -0,0 +1,81 @@
+package com.rss.nest.core.response;
+
+import com.rss.nest.core.cache.CachedFeed;
+import com.rss.nest.core.cache.FeedEncoding;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RSS订阅源响应测试
+ */
+class RssFeedResponseTest {
+
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"/>";
+
+    @Test
+    void testAcceptsEncoding() {
+        assertTrue(RssFeedResponse.acceptsEncoding("gzip, deflate", "gzip"));
+        assertTrue(RssFeedResponse.acceptsEncoding("GZIP;q=0.5", "gzip"));
+        assertTrue(RssFeedResponse.acceptsEncoding("*", "gzip"));
+        assertFalse(RssFeedResponse.acceptsEncoding(null, "gzip"));
+        assertFalse(RssFeedResponse.acceptsEncoding("deflate, br", "gzip"));
+        assertFalse(RssFeedResponse.acceptsEncoding("gzip;q=0", "gzip"));
+        assertFalse(RssFeedResponse.acceptsEncoding("*;q=0", "gzip"));
+    }
+
+    @Test
+    void testExplicitCodingOverridesWildcard() {
+        // 明确拒绝的编码不因"*"而被接受，无论先后顺序
+        assertFalse(RssFeedResponse.acceptsEncoding("gzip;q=0, *", "gzip"));
+        assertFalse(RssFeedResponse.acceptsEncoding("*, gzip;q=0", "gzip"));
+        assertTrue(RssFeedResponse.acceptsEncoding("*;q=0, gzip", "gzip"));
+        assertTrue(RssFeedResponse.acceptsEncoding("zstd;q=0, *", "gzip"));
+    }
+
+    @Test
+    void testRejectedCodingDecompressed() {
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 0L, 2L);
+
+        ResponseEntity<byte[]> response = RssFeedResponse.of(feed, "gzip;q=0, *", null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(XML, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEncodedRepresentationHasOwnETag() {
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.GZIP, 1L, 0L, 2L);
+
+        ResponseEntity<byte[]> encoded = RssFeedResponse.of(feed, "gzip", null);
+        ResponseEntity<byte[]> identity = RssFeedResponse.of(feed, null, null);
+
+        assertEquals("gzip", encoded.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        String encodedETag = encoded.getHeaders().getETag();
+        String identityETag = identity.getHeaders().getETag();
+        assertEquals(feed.getETag(), identityETag);
+        assertEquals(feed.getETag().replaceFirst("\"$", "-gzip\""), encodedETag);
+
+        // If-None-Match按本次选择的表示比对
+        assertEquals(HttpStatus.NOT_MODIFIED, RssFeedResponse.of(feed, "gzip", encodedETag).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, RssFeedResponse.of(feed, null, identityETag).getStatusCode());
+        assertEquals(HttpStatus.OK, RssFeedResponse.of(feed, "gzip", identityETag).getStatusCode());
+        assertEquals(HttpStatus.OK, RssFeedResponse.of(feed, null, encodedETag).getStatusCode());
+    }
+
+    @Test
+    void testIdentityFeedKeepsPlainETag() {
+        CachedFeed feed = CachedFeed.of(XML, FeedEncoding.IDENTITY, 1L, 0L, 2L);
+
+        ResponseEntity<byte[]> response = RssFeedResponse.of(feed, "gzip", null);
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(feed.getETag(), response.getHeaders().getETag());
+    }
+}
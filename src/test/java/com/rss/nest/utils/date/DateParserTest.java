@@ -0,0 +1,128 @@
+package com.rss.nest.utils.date;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日期解析测试
+ */
+class DateParserTest {
+
+    private static Date date(int year, int month, int day, int hour, int minute, int second) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, minute, second)
+                .atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Test
+    void testShapeOf() {
+        assertEquals("Y-N-N N:N:N", DateParser.shapeOf("2024-01-02 12:30:00"));
+        assertEquals("Y/N/N", DateParser.shapeOf("2024/6/29 更新"));
+        assertEquals("Y年N月N日", DateParser.shapeOf("2024年06月29日"));
+        assertEquals("N-N N:N", DateParser.shapeOf("06-29  08:15"));
+    }
+
+    @Test
+    void testParseKnownShapes() {
+        DateParser parser = new DateParser();
+        assertEquals(date(2024, 1, 2, 12, 30, 5), parser.parse("2024-01-02 12:30:05"));
+        assertEquals(date(2024, 1, 2, 12, 30, 0), parser.parse("2024-01-02 12:30"));
+        assertEquals(date(2024, 6, 29, 0, 0, 0), parser.parse(" 2024/6/29 "));
+        assertEquals(date(2024, 6, 29, 0, 0, 0), parser.parse("2024年06月29日"));
+        assertEquals(date(2024, 1, 2, 8, 0, 0), parser.parse("2024-01-02T08:00:00+08:00"));
+        assertEquals(date(2024, 6, 29, 8, 15, 0), DateFormatRegistry.toDate(
+                DateFormatRegistry.parseUnresolved("MM-dd HH:mm", "06-29 08:15", new ParsePosition(0)),
+                LocalDateTime.of(2024, 10, 1, 0, 0)));
+        Date withoutYear = parser.parse("06-29 08:15");
+        assertNotNull(withoutYear);
+        assertFalse(withoutYear.after(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1))));
+    }
+
+    @Test
+    void testYearRollover() {
+        // 1月初解析到12-31的日期：当年的12-31尚未到来，取上一年
+        LocalDateTime newYear = LocalDateTime.of(2025, 1, 2, 9, 0);
+        assertEquals(date(2024, 12, 31, 23, 50, 0), withoutYear("12-31 23:50", newYear));
+        assertEquals(date(2025, 1, 1, 8, 0, 0), withoutYear("01-01 08:00", newYear));
+        // 时区差导致的少量超前不视为上一年
+        assertEquals(date(2025, 1, 2, 20, 0, 0), withoutYear("01-02 20:00", newYear));
+        assertEquals(date(2024, 1, 5, 0, 0, 0), withoutYear("01-05 00:00", newYear));
+        // 带年份的日期不调整
+        assertEquals(date(2025, 12, 31, 0, 0, 0), DateFormatRegistry.toDate(
+                DateFormatRegistry.parseUnresolved("yyyy-MM-dd", "2025-12-31", new ParsePosition(0)), newYear));
+    }
+
+    private static Date withoutYear(String text, LocalDateTime now) {
+        return DateFormatRegistry.toDate(
+                DateFormatRegistry.parseUnresolved("MM-dd HH:mm", text, new ParsePosition(0)), now);
+    }
+
+    @Test
+    void testUnknownShapeFallsBackAndIsRemembered() {
+        DateParser parser = new DateParser();
+        // 未知形状依次尝试，取匹配最完整的格式；同一形状再次出现时直接使用记住的格式
+        assertEquals(date(2024, 3, 9, 12, 30, 15), parser.parse("2024/03/09 12:30:15.250"));
+        assertEquals(date(2024, 3, 10, 8, 0, 1), parser.parse("2024/03/10 08:00:01.000"));
+        assertEquals(date(2024, 3, 9, 0, 0, 0), parser.parse("2024-03-09 发布"));
+        assertNull(parser.parse("昨天"));
+        assertNull(parser.parse(""));
+        assertNull(parser.parse(null));
+    }
+
+    @Test
+    void testInvalidFieldValues() {
+        assertNull(new DateParser().parse("2024-13-45"));
+    }
+
+    @Test
+    void testFixedFormat() {
+        assertEquals(date(2024, 6, 29, 0, 0, 0), DateParseUtil.parseDateStr(DateParseUtil.FORMAT_V2_YYYY_MM_DD, "2024/6/29"));
+        assertEquals(date(2024, 6, 29, 0, 0, 0), DateParseUtil.parseDateStr("yyyyMMdd", "20240629"));
+        assertNull(DateParseUtil.parseDateStr(DateParseUtil.FORMAT_V1_YYYY_MM_DD, "2024/6/29"));
+        assertNull(DateParseUtil.parseDateStr("yyyy-MM-dd{", "2024-06-29"));
+    }
+
+    @Test
+    void testLenientPattern() {
+        assertEquals("yyyy-M-d H:m:s", DateFormatRegistry.lenientPattern("yyyy-MM-dd HH:mm:ss"));
+        assertEquals("yyyy-M-d'T'H", DateFormatRegistry.lenientPattern("yyyy-MM-dd'T'HH"));
+        assertEquals("yyyyMMdd", DateFormatRegistry.lenientPattern("yyyyMMdd"));
+    }
+
+    @Test
+    void testConcurrentParse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int day = t + 1;
+                results.add(executor.submit(() -> {
+                    Date expected = date(2024, 5, day, 0, 0, 0);
+                    for (int i = 0; i < 2000; i++) {
+                        if (!expected.equals(DateParseUtil.parseDateStr(DateParseUtil.FORMAT_V1_YYYY_MM_DD,
+                                "2024-05-0" + day))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.rss.nest.utils.http;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 限制大小的输入流测试
+ */
+class BoundedInputStreamTest {
+
+    @Test
+    void testCountAcrossReadSizes() throws IOException {
+        byte[] content = "<html><body><a href=\"/x\">标题</a></body></html>".getBytes(StandardCharsets.UTF_8);
+
+        BoundedInputStream bulk = new BoundedInputStream(new ByteArrayInputStream(content), 0);
+        bulk.readAllBytes();
+
+        BoundedInputStream single = new BoundedInputStream(new ByteArrayInputStream(content), 0);
+        while (single.read() >= 0) {
+            // 逐字节读取
+        }
+
+        assertEquals(content.length, bulk.getCount());
+        assertEquals(content.length, single.getCount());
+    }
+
+    @Test
+    void testThrowsWhenOverLimit() {
+        byte[] content = new byte[1024];
+        BoundedInputStream in = new BoundedInputStream(new ByteArrayInputStream(content), 100);
+
+        BodyTooLargeException e = assertThrows(BodyTooLargeException.class, in::readAllBytes);
+        assertEquals(100, e.getMaxBytes());
+    }
+
+    @Test
+    void testJsoupDetectsCharsetFromMeta() throws IOException {
+        String html = "<html><head><meta charset=\"GBK\"></head><body><p>中文内容</p></body></html>";
+        byte[] content = html.getBytes(Charset.forName("GBK"));
+        BoundedInputStream in = new BoundedInputStream(new ByteArrayInputStream(content), 0);
+
+        Document document = Jsoup.parse(in, null, "https://example.com/");
+
+        assertEquals("中文内容", document.selectFirst("p").text());
+        assertEquals(content.length, in.getCount());
+    }
+}
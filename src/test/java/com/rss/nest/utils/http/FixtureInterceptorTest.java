@@ -0,0 +1,80 @@
+package com.rss.nest.utils.http;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 上游响应录制与回放测试
+ */
+class FixtureInterceptorTest {
+
+    private static final String BODY = "<html><body><p>录制内容</p></body></html>";
+
+    @TempDir
+    Path dir;
+
+    private static OkHttpClient client(FixtureInterceptor interceptor) {
+        return new OkHttpClient.Builder().addInterceptor(interceptor).build();
+    }
+
+    private static Response get(OkHttpClient client, String url) throws IOException {
+        return client.newCall(new Request.Builder().url(url).build()).execute();
+    }
+
+    @Test
+    void testReplaysRecordedResponseWithoutNetwork() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/list";
+        try {
+            OkHttpClient recorder = client(new FixtureInterceptor(FixtureInterceptor.FixtureMode.RECORD, dir, 0, 0, 0, 0));
+            try (Response response = get(recorder, url)) {
+                assertEquals(BODY, response.body().string());
+            }
+        } finally {
+            server.stop(0);
+        }
+
+        OkHttpClient replayer = client(new FixtureInterceptor(FixtureInterceptor.FixtureMode.REPLAY, dir, 0, 0, 0, 0));
+        try (Response response = get(replayer, url)) {
+            assertEquals(200, response.code());
+            assertEquals("\"v1\"", response.header("ETag"));
+            assertEquals(BODY, response.body().string());
+        }
+        try (Response response = get(replayer, url + "?page=2")) {
+            assertEquals(404, response.code());
+        }
+    }
+
+    @Test
+    void testInjectsErrors() throws IOException {
+        OkHttpClient status = client(new FixtureInterceptor(FixtureInterceptor.FixtureMode.REPLAY, dir, 0, 0, 1.0, 503));
+        try (Response response = get(status, "http://example.invalid/")) {
+            assertEquals(503, response.code());
+        }
+
+        OkHttpClient network = client(new FixtureInterceptor(FixtureInterceptor.FixtureMode.REPLAY, dir, 0, 0, 1.0, 0));
+        assertThrows(IOException.class, () -> get(network, "http://example.invalid/"));
+    }
+}
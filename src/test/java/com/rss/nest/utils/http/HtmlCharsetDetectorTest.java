@@ -0,0 +1,50 @@
+package com.rss.nest.utils.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTML字符集识别测试
+ */
+class HtmlCharsetDetectorTest {
+
+    private static String readAll(byte[] bytes, Charset declared) throws IOException {
+        try (Reader reader = HtmlCharsetDetector.open(new ByteArrayInputStream(bytes), declared)) {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[256];
+            int n;
+            while ((n = reader.read(buffer)) > 0) {
+                builder.append(buffer, 0, n);
+            }
+            return builder.toString();
+        }
+    }
+
+    @Test
+    void testCharsetFromMeta() throws IOException {
+        String html = "<html><head><meta http-equiv=\"Content-Type\" content=\"text/html; charset=gb2312\"></head>"
+                + "<body>中文</body></html>";
+
+        assertEquals(html, readAll(html.getBytes(Charset.forName("GB2312")), null));
+    }
+
+    @Test
+    void testDeclaredCharsetWinsAndBomSkipped() throws IOException {
+        byte[] body = "<meta charset=\"gbk\"><p>中文</p>".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[body.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(body, 0, withBom, 3, body.length);
+
+        assertEquals("<meta charset=\"gbk\"><p>中文</p>", readAll(withBom, StandardCharsets.UTF_8));
+        assertEquals("<meta charset=\"gbk\"><p>中文</p>", readAll(withBom, null));
+    }
+}
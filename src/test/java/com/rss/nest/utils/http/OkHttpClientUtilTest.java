@@ -0,0 +1,87 @@
+package com.rss.nest.utils.http;
+
+import com.rss.nest.utils.hash.ContentHashUtil;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTTP客户端测试（抓取并解析Document）
+ */
+class OkHttpClientUtilTest {
+
+    private static final byte[] PAGE = "<html><body><p>标题</p></body></html>".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private String url;
+
+    private final OkHttpClientUtil client = new OkHttpClientUtil(new OkHttpClient());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, PAGE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(PAGE);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testFetchDocumentHashesBeforeParsing() throws IOException {
+        AtomicLong seen = new AtomicLong();
+        HttpDocumentResult changed = client.fetchDocument(url, Headers.of(), 0, hash -> {
+            seen.set(hash);
+            return false;
+        });
+
+        assertEquals(ContentHashUtil.hash64(PAGE), changed.getBodyHash());
+        assertEquals(changed.getBodyHash(), seen.get());
+        assertEquals(PAGE.length, changed.getBodyBytes());
+        assertEquals("标题", changed.getDocument().selectFirst("p").text());
+
+        // 哈希与上一版相同：不解析
+        HttpDocumentResult unchanged = client.fetchDocument(url, Headers.of(), 0,
+                hash -> hash == changed.getBodyHash());
+        assertNull(unchanged.getDocument());
+        assertFalse(unchanged.isNotModified());
+        assertEquals(changed.getBodyHash(), unchanged.getBodyHash());
+    }
+
+    @Test
+    void testFetchDocumentAsyncSkipsParseWhenUnchanged() {
+        HttpDocumentResult result = client.fetchDocumentAsync(url, Headers.of(), Duration.ofSeconds(10), 0,
+                hash -> true).join();
+
+        assertNull(result.getDocument());
+        assertEquals(ContentHashUtil.hash64(PAGE), result.getBodyHash());
+    }
+
+    @Test
+    void testFetchDocumentBodyTooLarge() {
+        BodyTooLargeException e = assertThrows(BodyTooLargeException.class,
+                () -> client.fetchDocument(url, Headers.of(), 10, hash -> false));
+        assertEquals(10, e.getMaxBytes());
+    }
+}
@@ -0,0 +1,69 @@
+package com.rss.nest.utils.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OkHttp请求阶段指标测试
+ */
+class OkHttpMetricsEventListenerTest {
+
+    private static final byte[] BODY = "<html><body>ok</body></html>".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testRecordsPhasesAndConnectionReuseBySite() throws IOException {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .eventListenerFactory(new OkHttpMetricsEventListener.Factory(registry, "shared").forSite("demo"))
+                .build();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+        for (int i = 0; i < 2; i++) {
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                assertEquals(BODY.length, response.body().bytes().length);
+            }
+        }
+
+        assertEquals(1.0, registry.get("rss.http.connection")
+                .tags("site", "demo", "host", "127.0.0.1", "reused", "false").counter().count());
+        assertEquals(1.0, registry.get("rss.http.connection")
+                .tags("site", "demo", "reused", "true").counter().count());
+        assertEquals(2, registry.get("rss.http.phase").tags("site", "demo", "phase", "ttfb").timer().count());
+        assertEquals(1, registry.get("rss.http.phase").tags("site", "demo", "phase", "connect").timer().count());
+        assertEquals(2, registry.get("rss.http.call").tags("site", "demo", "outcome", "success").timer().count());
+        assertEquals(2.0 * BODY.length, registry.get("rss.http.response.bytes").summary().totalAmount());
+    }
+}
@@ -0,0 +1,56 @@
+package com.rss.nest.utils.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 重试预算测试
+ */
+class RetryBudgetTest {
+
+    @Test
+    void testRetriesNeverExceedRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.5, 10);
+        int retries = 0;
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+            // 每个请求都尽可能重试
+            while (budget.tryWithdraw()) {
+                retries++;
+            }
+        }
+        assertEquals(50, retries);
+    }
+
+    @Test
+    void testRatioIsCappedAtOne() {
+        RetryBudget budget = new RetryBudget(5.0, 10);
+        budget.onRequest();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void testBalanceIsCapped() {
+        RetryBudget budget = new RetryBudget(1.0, 3);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        int retries = 0;
+        while (budget.tryWithdraw()) {
+            retries++;
+        }
+        assertEquals(3, retries);
+    }
+
+    @Test
+    void testLatencyTrackerP95() {
+        LatencyTracker tracker = new LatencyTracker();
+        assertEquals(-1L, tracker.p95());
+        for (int i = 1; i <= 160; i++) {
+            tracker.record(i);
+        }
+        assertEquals(152L, tracker.p95());
+    }
+}
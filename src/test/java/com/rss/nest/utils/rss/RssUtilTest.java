@@ -0,0 +1,29 @@
+package com.rss.nest.utils.rss;
+
+import com.rss.nest.models.rss.RssChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RSS输出测试
+ */
+class RssUtilTest {
+
+    @Test
+    void testRssChannelOutPutXml() {
+        RssChannel channel = RssChannelDataUtil.setRssChannel("测试网站", "https://example.com", "测试描述");
+        RssSetUtil.setRssChannelData("First item", "https://example.com/a/1", new Date(0L), "内容<b>1</b>", channel);
+
+        String xml = RssUtil.rssChannelOutPutXml(channel);
+
+        assertNotNull(xml);
+        assertTrue(xml.contains("<rss"));
+        assertTrue(xml.contains("version=\"2.0\""));
+        assertTrue(xml.contains("<title>测试网站</title>"));
+        assertTrue(xml.contains("<title>First item</title>"));
+        assertTrue(xml.contains("<link>https://example.com/a/1</link>"));
+    }
+}